@@ -1,24 +1,48 @@
 package net.issachanzi.resteasy;
 
+import net.issachanzi.resteasy.controller.BatchController;
 import net.issachanzi.resteasy.controller.Controller;
 import net.issachanzi.resteasy.controller.EasyController;
+import net.issachanzi.resteasy.controller.HttpController;
+import net.issachanzi.resteasy.controller.JobController;
+import net.issachanzi.resteasy.controller.Jobs;
 import net.issachanzi.resteasy.controller.ServletController;
 import net.issachanzi.resteasy.model.EasyModel;
 import net.issachanzi.resteasy.model.Loader;
 import net.issachanzi.resteasy.model.ModelType;
 import net.issachanzi.resteasy.model.Schema;
+import net.issachanzi.resteasy.view.EasyView;
+import net.issachanzi.resteasy.view.ViewCache;
 import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.ConnectionFactory;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.unixdomain.server.UnixDomainServerConnector;
+import org.eclipse.jetty.util.compression.CompressionPool;
+import org.eclipse.jetty.util.compression.DeflaterPool;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -29,10 +53,32 @@ public class RestEasy {
     public static final String DEFAULT_DB_URL = "jdbc:postgresql://localhost:5432/app?user=postgres";
     public static final int DEFAULT_LISTEN_PORT = 7070;
     public static final String SCHEMA_FILENAME = "schema.json";
+    public static final String BATCH_PATH = "/_batch";
+    public static final String JOBS_PATH = "/_jobs";
+
+    // The file type bits of a unix:mode file attribute, as in stat(2)
+    private static final int S_IFMT = 0170000;
+    private static final int S_IFSOCK = 0140000;
 
     public final int listenPort;
+
+    /**
+     * The database connection shared by every request
+     *
+     * <p>
+     *     Code using it while the server is running, such as a custom method
+     *     started outside a request, must hold its lock, as in
+     *     {@code synchronized (app.db) { ... }}, as the controllers do.
+     * </p>
+     */
     public final Connection db;
 
+    /**
+     * Settings for the HTTP server, which can be changed before
+     * {@link #init()} is called
+     */
+    public final ServerConfig config = new ServerConfig();
+
     /**
      * Constructs a Rest Easy application
      *
@@ -101,25 +147,179 @@ public class RestEasy {
             Connection db,
             int listenPort
     ) throws Exception {
-        var server = new Server(listenPort);
-        var connector = new ServerConnector (server);
-        server.addConnector (connector);
+        var server = new Server();
+        initConnectors(server, listenPort);
 
         var context = new ServletContextHandler();
         context.setContextPath("/api");
-        server.setHandler(context);
+        server.setHandler(compression(context));
+
+        var viewCache = new ViewCache();
+        var jobs = new Jobs(context.getContextPath() + JOBS_PATH);
 
+        Map<String, HttpController> controllers = new HashMap<>();
         for (var model : models) {
             String modelName = model.getSimpleName();
-            Controller controller = new EasyController(model, db);
-            var servlet = new ServletController(controller);
+            Controller controller = new EasyController(
+                    model,
+                    db,
+                    viewCache,
+                    jobs
+            );
+            controllers.put(modelName, new HttpController(controller));
 
-            context.addServlet(servlet, "/" + modelName + "/*");
+            EasyView.prepare(model);
         }
 
+        var servlet = new ServletController(
+                controllers,
+                config.gzipEnabled() ? config.gzipMinSize() : -1
+        );
+        context.addServlet(servlet, "/*");
+
+        var batchServlet = new BatchController(controllers, db);
+        context.addServlet(batchServlet, BATCH_PATH);
+
+        // Long polling requests wait for their job without holding a thread
+        var jobServlet = new JobController(jobs);
+        context.addServlet(jobServlet, JOBS_PATH + "/*")
+                .setAsyncSupported(true);
+
         server.start();
     }
 
+    /**
+     * Adds connectors to the server to listen on a TCP port, a Unix domain
+     * socket, or both, as set in {@link #config}
+     */
+    void initConnectors(Server server, int listenPort)
+            throws IOException {
+        if (!config.tcpEnabled() && config.unixSocketPath() == null) {
+            throw new IllegalStateException(
+                    "TCP is disabled and no Unix socket path is set"
+            );
+        }
+
+        if (config.tcpEnabled()) {
+            var connector = new ServerConnector (
+                    server,
+                    config.acceptors(),
+                    config.selectors(),
+                    connectionFactories()
+            );
+            connector.setPort(listenPort);
+            connector.setIdleTimeout(config.idleTimeout());
+            connector.setAcceptQueueSize(config.acceptQueueSize());
+            server.addConnector (connector);
+        }
+
+        if (config.unixSocketPath() != null) {
+            removeStaleSocket(config.unixSocketPath());
+
+            var connector = new UnixDomainServerConnector (
+                    server,
+                    config.acceptors(),
+                    config.selectors(),
+                    connectionFactories()
+            );
+            connector.setUnixDomainPath(config.unixSocketPath());
+            connector.setIdleTimeout(config.idleTimeout());
+            connector.setAcceptQueueSize(config.acceptQueueSize());
+            server.addConnector (connector);
+        }
+    }
+
+    /**
+     * Removes a Unix domain socket left behind at a path by a server which
+     * didn't stop cleanly, which would stop the socket being bound
+     *
+     * <p>
+     *     The file is only removed if it is a socket which nothing is
+     *     listening on. If it is any other kind of file, or another server is
+     *     still listening on it, it is left alone and startup fails.
+     * </p>
+     *
+     * @param path The path to bind the socket to
+     * @throws IOException If the path is in use
+     */
+    private static void removeStaleSocket(Path path) throws IOException {
+        int mode;
+        try {
+            mode = (int) Files.getAttribute(
+                    path,
+                    "unix:mode",
+                    LinkOption.NOFOLLOW_LINKS
+            );
+        } catch (NoSuchFileException ex) {
+            return;
+        }
+
+        if ((mode & S_IFMT) != S_IFSOCK) {
+            throw new FileAlreadyExistsException(
+                    path.toString(),
+                    null,
+                    "Not a socket, so it was not replaced"
+            );
+        }
+
+        try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(path));
+        } catch (ConnectException ex) {
+            // Nothing is listening, so the socket is stale
+            Files.delete(path);
+            return;
+        }
+
+        throw new FileAlreadyExistsException(
+                path.toString(),
+                null,
+                "Another server is listening on the socket"
+        );
+    }
+
+    /**
+     * Creates the protocols spoken by the server's connectors, as set in
+     * {@link #config}
+     */
+    ConnectionFactory[] connectionFactories() {
+        var httpConfig = new HttpConfiguration();
+        httpConfig.setOutputBufferSize(config.outputBufferSize());
+
+        var http1 = new HttpConnectionFactory(httpConfig);
+        if (config.http2Enabled()) {
+            // HTTP/1.1 connections can upgrade, or start with the HTTP/2
+            // preface
+            var http2 = new HTTP2CServerConnectionFactory(httpConfig);
+
+            return new ConnectionFactory[] { http1, http2 };
+        }
+        else {
+            return new ConnectionFactory[] { http1 };
+        }
+    }
+
+    /**
+     * Wraps a handler to compress its responses, as set in {@link #config}
+     */
+    private Handler compression(Handler handler) {
+        if (!config.gzipEnabled()) {
+            return handler;
+        }
+
+        var gzipHandler = new GzipHandler(handler);
+        gzipHandler.setMinGzipSize(config.gzipMinSize());
+        gzipHandler.setDeflaterPool(new DeflaterPool(
+                CompressionPool.DEFAULT_CAPACITY,
+                config.gzipLevel(),
+                true
+        ));
+        if (config.gzipMimeTypes() != null) {
+            gzipHandler.setIncludedMimeTypes(config.gzipMimeTypes());
+        }
+
+        return gzipHandler;
+    }
+
     private static void syncModels(
             Collection <Class <? extends EasyModel>> models,
             Connection db
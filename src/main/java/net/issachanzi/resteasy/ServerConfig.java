@@ -0,0 +1,335 @@
+package net.issachanzi.resteasy;
+
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+
+/**
+ * Settings for the HTTP server of a Rest Easy application
+ *
+ * <p>
+ *     Each setting has a default, which can be overridden by an environment
+ *     variable, and then by calling its setter before
+ *     {@link RestEasy#init()}.
+ * </p>
+ */
+public class ServerConfig {
+    /**
+     * The default time a connection can be idle before it is closed, in
+     * milliseconds
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 30_000;
+
+    /**
+     * The default size of the buffer for each response body, in bytes
+     */
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 32_768;
+
+    private boolean gzipEnabled;
+    private int gzipMinSize;
+    private int gzipLevel;
+    private String[] gzipMimeTypes;
+    private boolean http2Enabled;
+    private int acceptors;
+    private int selectors;
+    private long idleTimeout;
+    private int acceptQueueSize;
+    private int outputBufferSize;
+    private boolean tcpEnabled;
+    private Path unixSocketPath;
+
+    /**
+     * Constructs a {@code ServerConfig} with the default settings, overridden
+     * by any environment variables which are set
+     *
+     * <ul>
+     *     <li>{@code GZIP_ENABLED} - {@code true} or {@code false}</li>
+     *     <li>{@code GZIP_MIN_SIZE} - in bytes</li>
+     *     <li>{@code GZIP_LEVEL} - from 1 to 9</li>
+     *     <li>{@code GZIP_MIME_TYPES} - comma separated</li>
+     *     <li>{@code HTTP2_ENABLED} - {@code true} or {@code false}</li>
+     *     <li>{@code ACCEPTORS}</li>
+     *     <li>{@code SELECTORS}</li>
+     *     <li>{@code IDLE_TIMEOUT} - in milliseconds</li>
+     *     <li>{@code ACCEPT_QUEUE_SIZE}</li>
+     *     <li>{@code OUTPUT_BUFFER_SIZE} - in bytes</li>
+     *     <li>{@code TCP_ENABLED} - {@code true} or {@code false}</li>
+     *     <li>{@code UNIX_SOCKET_PATH}</li>
+     * </ul>
+     */
+    public ServerConfig() {
+        this.gzipEnabled = env("GZIP_ENABLED", Boolean::valueOf)
+                .orElse(true);
+        this.gzipMinSize = env("GZIP_MIN_SIZE", Integer::valueOf)
+                .orElse(GzipHandler.DEFAULT_MIN_GZIP_SIZE);
+        this.gzipLevel = env("GZIP_LEVEL", Integer::valueOf)
+                .orElse(Deflater.DEFAULT_COMPRESSION);
+        this.gzipMimeTypes = env("GZIP_MIME_TYPES", list -> list.split(","))
+                .orElse(null);
+        this.http2Enabled = env("HTTP2_ENABLED", Boolean::valueOf)
+                .orElse(true);
+        this.acceptors = env("ACCEPTORS", Integer::valueOf)
+                .orElse(-1);
+        this.selectors = env("SELECTORS", Integer::valueOf)
+                .orElse(-1);
+        this.idleTimeout = env("IDLE_TIMEOUT", Long::valueOf)
+                .orElse(DEFAULT_IDLE_TIMEOUT);
+        this.acceptQueueSize = env("ACCEPT_QUEUE_SIZE", Integer::valueOf)
+                .orElse(0);
+        this.outputBufferSize = env("OUTPUT_BUFFER_SIZE", Integer::valueOf)
+                .orElse(DEFAULT_OUTPUT_BUFFER_SIZE);
+        this.tcpEnabled = env("TCP_ENABLED", Boolean::valueOf)
+                .orElse(true);
+        this.unixSocketPath = env("UNIX_SOCKET_PATH", Path::of)
+                .orElse(null);
+    }
+
+    private static <T> Optional<T> env(
+            String name,
+            Function<String, T> parser
+    ) {
+        return Optional.ofNullable (System.getenv(name))
+                .map (String::trim)
+                .filter (value -> !value.isEmpty())
+                .map (parser);
+    }
+
+    /**
+     * Checks whether responses are compressed for clients which accept gzip
+     *
+     * @return {@code true} if responses are compressed
+     */
+    public boolean gzipEnabled() {
+        return gzipEnabled;
+    }
+
+    /**
+     * Sets whether responses are compressed for clients which accept gzip
+     *
+     * @param gzipEnabled {@code true} to compress responses
+     */
+    public void setGzipEnabled(boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    /**
+     * Gets the size of the smallest response body to compress
+     *
+     * @return The minimum size in bytes
+     */
+    public int gzipMinSize() {
+        return gzipMinSize;
+    }
+
+    /**
+     * Sets the size of the smallest response body to compress, since small
+     * bodies can grow when compressed
+     *
+     * @param gzipMinSize The minimum size in bytes
+     */
+    public void setGzipMinSize(int gzipMinSize) {
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    /**
+     * Gets the compression level
+     *
+     * @return A level from 1 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public int gzipLevel() {
+        return gzipLevel;
+    }
+
+    /**
+     * Sets the compression level, trading CPU time for smaller responses
+     *
+     * @param gzipLevel A level from 1, the fastest, to 9, the smallest, or
+     *                  {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public void setGzipLevel(int gzipLevel) {
+        this.gzipLevel = gzipLevel;
+    }
+
+    /**
+     * Gets the MIME types of responses to compress
+     *
+     * @return The MIME types, or {@code null} if all types except those
+     *         already compressed, such as images, are compressed
+     */
+    public String[] gzipMimeTypes() {
+        return gzipMimeTypes;
+    }
+
+    /**
+     * Sets the MIME types of responses to compress
+     *
+     * @param gzipMimeTypes The MIME types, or {@code null} to compress all
+     *                      types except those already compressed
+     */
+    public void setGzipMimeTypes(String... gzipMimeTypes) {
+        this.gzipMimeTypes = gzipMimeTypes;
+    }
+
+    /**
+     * Checks whether clients can use HTTP/2 without TLS (h2c), either by
+     * upgrading an HTTP/1.1 connection or with prior knowledge
+     *
+     * @return {@code true} if HTTP/2 is enabled
+     */
+    public boolean http2Enabled() {
+        return http2Enabled;
+    }
+
+    /**
+     * Sets whether clients can use HTTP/2 without TLS (h2c), so many requests
+     * can share one connection
+     *
+     * @param http2Enabled {@code true} to enable HTTP/2
+     */
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    /**
+     * Gets the number of threads accepting new connections
+     *
+     * @return The number of acceptor threads, or -1 to choose from the
+     *         number of CPUs
+     */
+    public int acceptors() {
+        return acceptors;
+    }
+
+    /**
+     * Sets the number of threads accepting new connections
+     *
+     * @param acceptors The number of acceptor threads, or -1 to choose from
+     *                  the number of CPUs
+     */
+    public void setAcceptors(int acceptors) {
+        this.acceptors = acceptors;
+    }
+
+    /**
+     * Gets the number of threads waiting for activity on open connections
+     *
+     * @return The number of selector threads, or -1 to choose from the
+     *         number of CPUs
+     */
+    public int selectors() {
+        return selectors;
+    }
+
+    /**
+     * Sets the number of threads waiting for activity on open connections
+     *
+     * @param selectors The number of selector threads, or -1 to choose from
+     *                  the number of CPUs
+     */
+    public void setSelectors(int selectors) {
+        this.selectors = selectors;
+    }
+
+    /**
+     * Gets the time a connection can be idle before it is closed
+     *
+     * @return The idle timeout in milliseconds
+     */
+    public long idleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the time a connection can be idle before it is closed
+     *
+     * @param idleTimeout The idle timeout in milliseconds
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Gets the number of connections which can wait to be accepted
+     *
+     * @return The size of the accept queue, or 0 for the operating system's
+     *         default
+     */
+    public int acceptQueueSize() {
+        return acceptQueueSize;
+    }
+
+    /**
+     * Sets the number of connections which can wait to be accepted, before
+     * new connections are refused
+     *
+     * @param acceptQueueSize The size of the accept queue, or 0 for the
+     *                        operating system's default
+     */
+    public void setAcceptQueueSize(int acceptQueueSize) {
+        this.acceptQueueSize = acceptQueueSize;
+    }
+
+    /**
+     * Gets the size of the buffer for each response body
+     *
+     * @return The buffer size in bytes
+     */
+    public int outputBufferSize() {
+        return outputBufferSize;
+    }
+
+    /**
+     * Sets the size of the buffer for each response body. Bodies which fit
+     * in the buffer are sent with a {@code Content-Length}, and larger ones
+     * are sent in chunks.
+     *
+     * @param outputBufferSize The buffer size in bytes
+     */
+    public void setOutputBufferSize(int outputBufferSize) {
+        this.outputBufferSize = outputBufferSize;
+    }
+
+    /**
+     * Checks whether the server listens for connections on its TCP port
+     *
+     * @return {@code true} if the server listens on its TCP port
+     */
+    public boolean tcpEnabled() {
+        return tcpEnabled;
+    }
+
+    /**
+     * Sets whether the server listens for connections on its TCP port, which
+     * can be disabled if it is only reached through a Unix domain socket
+     *
+     * @param tcpEnabled {@code true} to listen on the TCP port
+     */
+    public void setTcpEnabled(boolean tcpEnabled) {
+        this.tcpEnabled = tcpEnabled;
+    }
+
+    /**
+     * Gets the path of the Unix domain socket the server listens on
+     *
+     * @return The path of the socket, or {@code null} if the server doesn't
+     *         listen on a Unix domain socket
+     */
+    public Path unixSocketPath() {
+        return unixSocketPath;
+    }
+
+    /**
+     * Sets the path of a Unix domain socket for the server to listen on, for
+     * a reverse proxy on the same host to connect to without the overhead of
+     * TCP
+     *
+     * @param unixSocketPath The path of the socket, or {@code null} to not
+     *                       listen on a Unix domain socket
+     */
+    public void setUnixSocketPath(Path unixSocketPath) {
+        this.unixSocketPath = unixSocketPath;
+    }
+}
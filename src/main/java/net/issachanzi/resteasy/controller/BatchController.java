@@ -0,0 +1,345 @@
+package net.issachanzi.resteasy.controller;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+import net.issachanzi.resteasy.controller.exception.InternalServerError;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A servlet to execute multiple requests to {@link HttpController}s in a
+ * single HTTP request
+ *
+ * <p>
+ *     The request body is either a JSON array of sub-requests, or a JSON
+ *     object with a {@code requests} array and an optional {@code atomic}
+ *     flag. Each sub-request is a JSON object with a {@code method}, a
+ *     {@code path} relative to the API root such as {@code /ModelName/id}, an
+ *     optional {@code body}, and an optional {@code ifMatch} entity tag for
+ *     {@code PUT} and {@code DELETE} sub-requests.
+ * </p>
+ *
+ * <pre><code>
+ *     {
+ *         "atomic": true,
+ *         "requests": [
+ *             {"method": "POST", "path": "/TodoItem", "body": {"text": "a"}},
+ *             {"method": "DELETE", "path": "/TodoItem/..."}
+ *         ]
+ *     }
+ * </code></pre>
+ *
+ * <p>
+ *     The response body is a JSON array with a {@code status} and
+ *     {@code body} for each sub-request, in the same order as the requests.
+ * </p>
+ *
+ * <p>
+ *     Sub-requests are executed one at a time, in order. If {@code atomic}
+ *     is {@code true}, all sub-requests are executed in a single database
+ *     transaction, which is rolled back if any sub-request fails.
+ *     Sub-requests after a failed one are not executed, and are given a
+ *     status of {@value #NOT_EXECUTED_STATUS}.
+ * </p>
+ *
+ * <p>
+ *     The response of each sub-request is held in memory until the batch is
+ *     complete, so {@code _export}, whose response has no size limit, is
+ *     rejected with {@code 400 Bad Request}.
+ * </p>
+ */
+public class BatchController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The status given to sub-requests not executed because of an earlier
+     * failure in an atomic batch
+     */
+    public static final int NOT_EXECUTED_STATUS = 424;
+
+    private static final BadRequest MALFORMED_BATCH
+            = new BadRequest("Malformed batch");
+
+    private static final BadRequest EXPORT_IN_BATCH = new BadRequest(
+            HttpController.EXPORT_ACTION + " is not available in a batch"
+    );
+
+    private final Router router;
+    private final Connection db;
+
+    /**
+     * Constructs a {@code BatchController}
+     *
+     * @param controllers A map with a key of each model name, with a value of
+     *                    the controller to pass sub-requests for that model to
+     * @param db The database connection used by the controllers, for atomic
+     *           batches, whose lock the controllers hold while using it
+     */
+    public BatchController(
+            Map<String, HttpController> controllers,
+            Connection db
+    ) {
+        this.router = new Router(controllers);
+        this.db = db;
+    }
+
+    @Override
+    public void doPost(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        var origin = request.getHeader("Origin");
+        response.addHeader("Access-Control-Allow-Origin", origin);
+
+        try {
+            String authorization = request.getHeader("Authorization");
+            JsonValue batch = Json.createReader(request.getReader()).readValue();
+
+            boolean atomic = false;
+            JsonArray subRequests;
+            if (batch instanceof JsonArray array) {
+                subRequests = array;
+            }
+            else if (batch instanceof JsonObject object
+                    && object.get("requests") instanceof JsonArray array) {
+                atomic = object.getBoolean("atomic", false);
+                subRequests = array;
+            }
+            else {
+                throw new BadRequest("Batch must contain an array of requests");
+            }
+
+            List<Result> results;
+            if (atomic) {
+                results = executeAtomic(subRequests, authorization);
+            }
+            else {
+                results = execute(subRequests, authorization);
+            }
+
+            var builder = Json.createArrayBuilder();
+            for (var result : results) {
+                builder.add(result.json());
+            }
+
+            response.setStatus(200);
+            response.setContentType("application/json");
+            response.getOutputStream().print(builder.build().toString());
+        }
+        catch (HttpErrorStatus errorStatus) {
+            ServletController.sendError(response, errorStatus);
+        }
+        catch (JsonException | ClassCastException ex) {
+            ServletController.sendError(response, MALFORMED_BATCH);
+        }
+        catch (IOException ex) {
+            ErrorLog.SHARED.log(ex);
+            response.setStatus(500);
+        }
+    }
+
+    private List<Result> execute(
+            JsonArray subRequests,
+            String authorization
+    ) {
+        List<Result> results = new ArrayList<>(subRequests.size());
+        for (var subRequest : subRequests) {
+            results.add(execute(subRequest, authorization));
+        }
+
+        return results;
+    }
+
+    private List<Result> executeAtomic(
+            JsonArray subRequests,
+            String authorization
+    ) throws InternalServerError {
+        List<Result> results = new ArrayList<>(subRequests.size());
+
+        // Every use of the shared connection holds its lock, so no other
+        // request can run statements inside this transaction
+        synchronized (db) {
+            try {
+                boolean autoCommit = db.getAutoCommit();
+                db.setAutoCommit(false);
+
+                try {
+                    boolean failed = false;
+                    for (var subRequest : subRequests) {
+                        if (failed) {
+                            results.add(new Result(
+                                    NOT_EXECUTED_STATUS,
+                                    JsonValue.NULL
+                            ));
+                            continue;
+                        }
+
+                        var result = execute(subRequest, authorization);
+                        results.add(result);
+                        failed = result.status() >= 400;
+                    }
+
+                    if (failed) {
+                        db.rollback();
+                    }
+                    else {
+                        db.commit();
+                    }
+                }
+                catch (RuntimeException ex) {
+                    db.rollback();
+                    throw ex;
+                }
+                finally {
+                    db.setAutoCommit(autoCommit);
+                }
+            }
+            catch (SQLException ex) {
+                throw new InternalServerError(ex);
+            }
+        }
+
+        return results;
+    }
+
+    private Result execute(JsonValue subRequestJson, String authorization) {
+        try {
+            if (!(subRequestJson instanceof JsonObject subRequest)) {
+                throw new BadRequest("Request must be an object");
+            }
+
+            String method = method(subRequest);
+            String path = subRequest.getString("path", null);
+            JsonValue bodyJson = subRequest.get("body");
+            if (path == null) {
+                throw new BadRequest("Missing path");
+            }
+
+            String queryString = null;
+            int queryStart = path.indexOf('?');
+            if (queryStart >= 0) {
+                queryString = path.substring(queryStart + 1);
+                path = path.substring(0, queryStart);
+            }
+
+            if (!path.startsWith("/")) {
+                path = "/" + path;
+            }
+
+            var route = router.route(path);
+            if (route.error() != null) {
+                throw route.error();
+            }
+
+            if (HttpController.EXPORT_ACTION.equals(route.action())) {
+                throw EXPORT_IN_BATCH;
+            }
+
+            var controller = route.controller();
+            UUID id = route.id();
+            Map<String, String> query
+                    = ServletController.parseQuery(queryString);
+            String body = bodyJson == null ? null : bodyJson.toString();
+
+            String ifMatch = subRequest.getString("ifMatch", null);
+            Response response = switch (method) {
+                case "GET" -> route.action() != null
+                        ? controller.get(route.action(), query, authorization)
+                        : controller.get(id, query, authorization);
+                case "POST" -> controller.post(
+                        id,
+                        route.methodName(),
+                        body,
+                        null,
+                        authorization
+                );
+                case "PUT" -> controller.put(id, body, ifMatch, authorization);
+                case "DELETE" -> controller.delete(id, ifMatch, authorization);
+                default -> throw new BadRequest(
+                        "Unsupported method " + method
+                );
+            };
+
+            String responseBody = response.body();
+            if (response.bodyWriter() != null) {
+                try (response) {
+                    var out = new ByteArrayOutputStream();
+                    response.bodyWriter().write(out);
+                    responseBody = out.toString(StandardCharsets.UTF_8);
+                }
+            }
+
+            return new Result(response.statusCode(), bodyValue(responseBody));
+        }
+        catch (HttpErrorStatus errorStatus) {
+            ErrorLog.SHARED.log(errorStatus);
+            return new Result(
+                    errorStatus.statusCode(),
+                    Json.createValue(String.valueOf(errorStatus.getMessage()))
+            );
+        }
+        catch (IOException ex) {
+            ErrorLog.SHARED.log(ex);
+            return new Result(500, Json.createValue(String.valueOf(ex.getMessage())));
+        }
+    }
+
+    private static String method(JsonValue subRequest) {
+        if (subRequest instanceof JsonObject object) {
+            return object.getString("method", "GET").toUpperCase();
+        }
+        else {
+            return "";
+        }
+    }
+
+    /**
+     * Embeds a response body as JSON if it is valid JSON, or as a JSON string
+     * otherwise
+     */
+    private static JsonValue bodyValue(String responseContent) {
+        if (responseContent == null || responseContent.isEmpty()) {
+            return JsonValue.NULL;
+        }
+
+        try {
+            return Json.createReader(new StringReader(responseContent))
+                    .readValue();
+        }
+        catch (JsonException ex) {
+            return Json.createValue(responseContent);
+        }
+    }
+
+    /**
+     * The outcome of a single sub-request
+     *
+     * @param status The HTTP status code of the sub-request
+     * @param body The response body of the sub-request
+     */
+    private record Result(int status, JsonValue body) {
+        JsonObject json() {
+            return Json.createObjectBuilder()
+                    .add("status", status)
+                    .add("body", body)
+                    .build();
+        }
+    }
+}
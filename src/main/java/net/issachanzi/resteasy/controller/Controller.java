@@ -2,6 +2,9 @@ package net.issachanzi.resteasy.controller;
 
 import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
 
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -9,6 +12,14 @@ import java.util.UUID;
  * A mapping between HTTP requests and actions performed by the model
  */
 public interface Controller {
+    /**
+     * Gets the names of the custom methods which can be invoked with
+     * {@link #invoke(UUID, String, String, String, String)}
+     *
+     * @return The names of the custom methods
+     */
+    Collection<String> customMethodNames();
+
     /**
      * Handles an incoming GET request with no query parameters and no model
      * instance id given
@@ -40,6 +51,106 @@ public interface Controller {
      */
     String get(UUID id, String authorization) throws HttpErrorStatus;
 
+    /**
+     * Handles an incoming GET request with an id of a model instance and
+     * query parameters given
+     *
+     * @param id The id of the model instance requested
+     * @param params A map of the HTTP query parameters
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response get(UUID id, Map<String, String> params, String authorization)
+            throws HttpErrorStatus;
+
+    /**
+     * Handles an incoming conditional GET request with an id of a model
+     * instance and query parameters given
+     *
+     * <p>
+     *     If the client's copy of the model instance is still current, as
+     *     named by {@code ifNoneMatch}, a {@code 304 Not Modified} response
+     *     may be returned without reading or rendering the model instance.
+     * </p>
+     *
+     * @param id The id of the model instance requested
+     * @param params A map of the HTTP query parameters
+     * @param ifNoneMatch The value of the HTTP {@code If-None-Match} header,
+     *                    or {@code null} if the request is not conditional
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response get(
+            UUID id,
+            Map<String, String> params,
+            String ifNoneMatch,
+            String authorization
+    ) throws HttpErrorStatus;
+
+    /**
+     * Handles an incoming GET request with a list of ids of model instances
+     * given
+     *
+     * @param ids The ids of the model instances requested
+     * @param params A map of the HTTP query parameters
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response body to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    String get(
+            List<UUID> ids,
+            Map<String, String> params,
+            String authorization
+    ) throws HttpErrorStatus;
+
+    /**
+     * Handles an incoming GET request to count model instances
+     *
+     * <p>
+     *     If access to the model can only be checked for each model instance,
+     *     because the model overrides {@link
+     *     net.issachanzi.resteasy.model.EasyModel#authorize} but not {@link
+     *     net.issachanzi.resteasy.model.EasyModel#authorizeFilter}, every
+     *     matching model instance is loaded and checked, so counting costs as
+     *     much as listing them.
+     * </p>
+     *
+     * @param params A map of the HTTP query parameters, which filter the
+     *               model instances to count
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response count(Map<String, String> params, String authorization)
+            throws HttpErrorStatus;
+
+    /**
+     * Handles an incoming GET request to compute an aggregate function over
+     * model instances
+     *
+     * @param params A map of the HTTP query parameters, which select the
+     *               function and filter the model instances to aggregate
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response body to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    String aggregate(Map<String, String> params, String authorization)
+            throws HttpErrorStatus;
+
+    /**
+     * Handles an incoming GET request to export model instances
+     *
+     * @param params A map of the HTTP query parameters, which filter the
+     *               model instances to export
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client, with a streamed body
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response export(Map<String, String> params, String authorization)
+            throws HttpErrorStatus;
+
     /**
      * Handles an incoming POST request
      *
@@ -50,6 +161,32 @@ public interface Controller {
      */
     String post(String body, String authorization) throws HttpErrorStatus;
 
+    /**
+     * Handles an incoming POST request, reading the request body as it is
+     * needed
+     *
+     * @param body The request body
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response body to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    String post(InputStream body, String authorization) throws HttpErrorStatus;
+
+    /**
+     * Handles an incoming POST request to import many model instances
+     *
+     * @param body The request body, which is read as it is imported
+     * @param contentType The value of the HTTP {@code Content-Type} header
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response bulkImport(
+            InputStream body,
+            String contentType,
+            String authorization
+    ) throws HttpErrorStatus;
+
     /**
      * Handles an incoming POST request with an id and custom method name given
      *
@@ -63,6 +200,30 @@ public interface Controller {
     String post(UUID id, String methodName, String body, String authorization)
             throws HttpErrorStatus;
 
+    /**
+     * Handles an incoming POST request to invoke a custom method, which may
+     * run in the background
+     *
+     * @param id The id of the model instance to invoke a method on
+     * @param methodName The name of the custom method to invoke
+     * @param body The request body
+     * @param accept The value of the HTTP {@code Accept} header, which
+     *               selects newline delimited JSON for a method returning
+     *               many values, or {@code null} if there is none
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client, which is
+     *         {@code 202 Accepted} with the URL of a job to poll if the
+     *         method runs in the background
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response invoke(
+            UUID id,
+            String methodName,
+            String body,
+            String accept,
+            String authorization
+    ) throws HttpErrorStatus;
+
     /**
      * Handles an incoming PUT request
      *
@@ -73,6 +234,25 @@ public interface Controller {
      */
     void put(UUID id, String body, String authorization) throws HttpErrorStatus;
 
+    /**
+     * Handles an incoming PUT request, which may be conditional on the
+     * current version of the model instance
+     *
+     * @param id The id of the model instance to update
+     * @param body The request body
+     * @param ifMatch The value of the HTTP {@code If-Match} header, or
+     *                {@code null} if there is none
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response put(
+            UUID id,
+            String body,
+            String ifMatch,
+            String authorization
+    ) throws HttpErrorStatus;
+
     /**
      * Handles an incoming DELETE request
      *
@@ -81,5 +261,19 @@ public interface Controller {
      * @throws HttpErrorStatus If the request is not successful
      */
     void delete(UUID id, String authorization) throws HttpErrorStatus;
+
+    /**
+     * Handles an incoming DELETE request, which may be conditional on the
+     * current version of the model instance
+     *
+     * @param id The id of the model instance to delete
+     * @param ifMatch The value of the HTTP {@code If-Match} header, or
+     *                {@code null} if there is none
+     * @param authorization The value of the HTTP {@code Authorization} header
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    Response delete(UUID id, String ifMatch, String authorization)
+            throws HttpErrorStatus;
 }
 
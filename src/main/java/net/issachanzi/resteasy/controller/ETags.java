@@ -0,0 +1,162 @@
+package net.issachanzi.resteasy.controller;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Creates and compares HTTP entity tags, used by clients to make
+ * conditional requests
+ */
+public class ETags {
+    /**
+     * The response header holding the entity tag of the response body
+     */
+    public static final String ETAG_HEADER = "ETag";
+
+    /**
+     * The request header holding the entity tags of responses the client has
+     * already cached
+     */
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+    /**
+     * The request header holding the entity tags a change is conditional on
+     */
+    public static final String IF_MATCH_HEADER = "If-Match";
+
+    /**
+     * The number of bytes of the body's digest to use in its entity tag
+     */
+    private static final int DIGEST_LENGTH = 16;
+
+    /**
+     * Appended to the value of an entity tag to tag the same response body
+     * compressed with gzip
+     */
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private ETags() {}
+
+    /**
+     * Creates a strong entity tag from the content of a response body
+     *
+     * @param body The response body
+     * @return The entity tag, including its quotes
+     */
+    public static String of(byte[] body) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(body);
+
+            return quote(HexFormat.of().formatHex(digest, 0, DIGEST_LENGTH));
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Creates a strong entity tag from the version of a model instance
+     *
+     * @param version The value of the model instance's version field
+     * @return The entity tag, including its quotes
+     */
+    public static String ofVersion(long version) {
+        return quote(Long.toString(version));
+    }
+
+    /**
+     * Quotes an opaque value to make it an entity tag
+     *
+     * @param value The value of the entity tag
+     * @return The entity tag, including its quotes
+     */
+    public static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * Gets the entity tag of a response body compressed with gzip, given the
+     * entity tag of the uncompressed body
+     *
+     * <p>
+     *     The compressed body is a different sequence of bytes, so it can't
+     *     share the strong entity tag of the uncompressed body, or a cache
+     *     could combine ranges of the two.
+     * </p>
+     *
+     * @param etag The entity tag of the uncompressed body, including its
+     *             quotes
+     * @return The entity tag of the compressed body, including its quotes
+     */
+    public static String gzipped(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /**
+     * Checks whether an entity tag is listed in an {@code If-None-Match}
+     * header
+     *
+     * <p>
+     *     As required for {@code If-None-Match}, entity tags are compared
+     *     weakly, so a weak tag in the header matches the strong tag it was
+     *     made from.
+     * </p>
+     *
+     * @param ifNoneMatch The value of the {@code If-None-Match} header, or
+     *                    {@code null} if there is none
+     * @param etag The entity tag of the current response
+     * @return {@code true} if the client already has the current response
+     */
+    public static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether an entity tag is listed in an {@code If-Match} header
+     *
+     * <p>
+     *     As required for {@code If-Match}, entity tags are compared strongly,
+     *     so weak tags in the header never match. The tag of a compressed
+     *     body matches the tag of its uncompressed body, since both are
+     *     representations of the same model instance.
+     * </p>
+     *
+     * @param ifMatch The value of the {@code If-Match} header
+     * @param etag The entity tag of the current model instance
+     * @return {@code true} if the change can go ahead
+     */
+    public static boolean matchesStrongly(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.endsWith(GZIP_SUFFIX + "\"")) {
+                candidate = candidate.substring(
+                        0,
+                        candidate.length() - GZIP_SUFFIX.length() - 1
+                ) + "\"";
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
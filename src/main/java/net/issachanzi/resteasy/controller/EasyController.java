@@ -1,28 +1,110 @@
 package net.issachanzi.resteasy.controller;
 
 import jakarta.json.Json;
+import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
 import net.issachanzi.resteasy.controller.exception.*;
 import net.issachanzi.resteasy.model.AccessType;
+import net.issachanzi.resteasy.model.Aggregate;
+import net.issachanzi.resteasy.model.CustomMethodInvoker;
 import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.Filter;
+import net.issachanzi.resteasy.model.Importer;
 import net.issachanzi.resteasy.model.ModelType;
-import net.issachanzi.resteasy.model.SqlDatatypes;
+import net.issachanzi.resteasy.model.Projection;
+import net.issachanzi.resteasy.model.VersionConflictException;
+import net.issachanzi.resteasy.view.AggregateView;
 import net.issachanzi.resteasy.view.EasyView;
+import net.issachanzi.resteasy.view.StreamView;
+import net.issachanzi.resteasy.view.ViewCache;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * A controller for {@link EasyModel} models
  */
 public class EasyController implements Controller {
+    /**
+     * The query parameter used to select which fields of a model to return
+     */
+    public static final String FIELDS_PARAM = "fields";
+
+    /**
+     * The query parameter used to select which associations of a model to
+     * expand
+     */
+    public static final String INCLUDE_PARAM = "include";
+
+    /**
+     * The query parameter used to select the aggregate function to compute
+     */
+    public static final String FUNCTION_PARAM = "function";
+
+    /**
+     * The query parameter used to select the field to compute an aggregate
+     * function over
+     */
+    public static final String FIELD_PARAM = "field";
+
+    /**
+     * The query parameter used to select the field to group model instances
+     * by when computing an aggregate function
+     */
+    public static final String GROUP_BY_PARAM = "groupBy";
+
+    /**
+     * The query parameter used to request an approximate count, estimated
+     * from database statistics
+     */
+    public static final String ESTIMATE_PARAM = "estimate";
+
+    /**
+     * The response header set to {@code true} when a count is approximate
+     */
+    public static final String APPROXIMATE_HEADER = "X-Count-Approximate";
+
+    private static final String JSON = "application/json";
+
+    private static final BadRequest IMPORT_REJECTED = new BadRequest(
+            "Import was rejected by the database, such as because of a "
+            + "duplicate id"
+    );
+
+    private static final BadRequest IMPORT_UNREADABLE
+            = new BadRequest("Could not read import");
+
+    private static final List<String> AGGREGATE_PARAMS = List.of(
+            FUNCTION_PARAM,
+            FIELD_PARAM,
+            GROUP_BY_PARAM
+    );
+
+    private static final List<String> RESERVED_PARAMS = List.of(
+            HttpController.IDS_PARAM,
+            FIELDS_PARAM,
+            INCLUDE_PARAM
+    );
+
     /**
      * The type of model that this controller is for
      */
@@ -30,9 +112,34 @@ public class EasyController implements Controller {
 
     /**
      * The database connection to use
+     *
+     * <p>
+     *     The connection is shared by every controller, so all use of it,
+     *     including calls to {@link EasyModel#authorize}, is done while
+     *     holding its lock. A transaction opened on it, such as by an atomic
+     *     batch, is therefore never interleaved with another request.
+     * </p>
      */
     private final Connection db;
 
+    /**
+     * Views of single model instances already rendered, or {@code null} if
+     * they are not cached
+     */
+    private final ViewCache viewCache;
+
+    /**
+     * Runs asynchronous custom methods in the background, or {@code null} if
+     * they are run while the client waits
+     */
+    private final Jobs jobs;
+
+    /**
+     * Results of custom methods marked as cacheable, or {@code null} if this
+     * model has none
+     */
+    private final MethodResultCache resultCache;
+
     /**
      * Constructs an EasyController for a given model class
      *
@@ -42,36 +149,89 @@ public class EasyController implements Controller {
     public EasyController(
             Class<? extends EasyModel> modelClazz,
             Connection db
+    ) {
+        this (modelClazz, db, null);
+    }
+
+    /**
+     * Constructs an EasyController for a given model class, which caches the
+     * responses to requests for single model instances
+     *
+     * @param modelClazz The model class to create a controller for
+     * @param db The database connection to use
+     * @param viewCache The cache of rendered model instances, or
+     *                  {@code null} to render every response
+     */
+    public EasyController(
+            Class<? extends EasyModel> modelClazz,
+            Connection db,
+            ViewCache viewCache
+    ) {
+        this (modelClazz, db, viewCache, null);
+    }
+
+    /**
+     * Constructs an EasyController for a given model class, which caches the
+     * responses to requests for single model instances, and runs
+     * asynchronous custom methods in the background
+     *
+     * @param modelClazz The model class to create a controller for
+     * @param db The database connection to use
+     * @param viewCache The cache of rendered model instances, or
+     *                  {@code null} to render every response
+     * @param jobs Runs asynchronous custom methods, or {@code null} to run
+     *             them while the client waits
+     */
+    public EasyController(
+            Class<? extends EasyModel> modelClazz,
+            Connection db,
+            ViewCache viewCache,
+            Jobs jobs
     ) {
         this.modelType = ModelType.get (modelClazz);
         this.db = db;
+        this.viewCache = viewCache;
+        this.jobs = jobs;
+
+        boolean cacheable = modelType.customMethods()
+                .stream()
+                .map(method -> modelType.customMethodInvoker(method.getName()))
+                .anyMatch(invoker -> invoker.cacheTtl() > 0);
+        this.resultCache = cacheable
+                ? new MethodResultCache(modelClazz)
+                : null;
     }
 
 
+    @Override
+    public Collection<String> customMethodNames() {
+        return modelType.customMethods()
+                .stream()
+                .map(Method::getName)
+                .toList();
+    }
+
     @Override
     public String get(String authorization) throws HttpErrorStatus {
         try {
-            var models = EasyModel.all(db, modelType.modelClass())
-                    .stream().filter(model -> {
-                        try {
-                            return model.authorize(
-                                    db,
-                                    authorization,
-                                    AccessType.READ
-                            );
-                        } catch (HttpErrorStatus e) {
-                            return false;
-                        }
-                    }
-            ).collect(Collectors.toList());
+            var projection = projection(Map.of());
+            List<? extends EasyModel> models;
+            synchronized (db) {
+                models = readable(
+                        EasyModel.all(db, modelType.modelClass(), projection),
+                        authorization
+                );
+            }
 
-            return new EasyView(models).toString();
+            return new EasyView(
+                    models,
+                    projection,
+                    readableBy(authorization)
+            ).toString();
         } catch (SQLException ex) {
-            ex.printStackTrace();
             throw new InternalServerError (ex);
         }
         catch (Exception ex) {
-            ex.printStackTrace();
             throw new InternalServerError(ex);
         }
     }
@@ -82,54 +242,472 @@ public class EasyController implements Controller {
             String authorization
     ) throws HttpErrorStatus {
         try {
-            var models = EasyModel.where(db, params, modelType.modelClass())
-                    .stream().filter(model -> {
-                        try {
-                            return model.authorize(
-                                    db,
-                                    authorization,
-                                    AccessType.READ
-                            );
-                        } catch (HttpErrorStatus e) {
-                            return false;
-                        }
-                    }).collect(Collectors.toList());
+            var projection = projection(params);
+            List<? extends EasyModel> models;
+            synchronized (db) {
+                models = readable(
+                        EasyModel.where(
+                                db,
+                                Filter.parse(filterParams(params), modelType),
+                                modelType.modelClass(),
+                                loaded(projection)
+                        ),
+                        authorization
+                );
+            }
 
-            return new EasyView(models).toString();
+            return new EasyView(
+                    models,
+                    projection,
+                    readableBy(authorization)
+            ).toString();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
         } catch (SQLException e) {
-            e.printStackTrace();
             throw new InternalServerError(e);
         }
     }
 
     @Override
     public String get(UUID id, String authorization) throws HttpErrorStatus {
+        return get(id, Map.of(), authorization).body();
+    }
+
+    @Override
+    public Response get(
+            UUID id,
+            Map<String, String> params,
+            String authorization
+    ) throws HttpErrorStatus {
+        return get(id, params, null, authorization);
+    }
+
+    @Override
+    public Response get(
+            UUID id,
+            Map<String, String> params,
+            String ifNoneMatch,
+            String authorization
+    ) throws HttpErrorStatus {
+        var projection = projection(params);
+        String variant = cacheVariant(params);
+        boolean customAuthorization = modelType.hasCustomAuthorization();
+
+        if (variant != null && !customAuthorization) {
+            // Any client could read it, so there is no need to read the
+            // model instance to check access
+            var cached = viewCache.get(modelType.modelClass(), id, variant);
+            if (cached != null) {
+                return cachedResponse(cached);
+            }
+        }
+
+        boolean checkVersion = ifNoneMatch != null && taggedByVersion();
+
         try {
-            var model = EasyModel.byId(db, id, modelType.modelClass());
+            if (checkVersion && !customAuthorization) {
+                // Any client could read it, so only its version has to be
+                // read to tell whether the client's copy is current
+                Long version;
+                synchronized (db) {
+                    version = EasyModel.version(db, id, modelType.modelClass());
+                }
 
-            if (!model.authorize(db, authorization, AccessType.READ)) {
-                throw new Forbidden();
+                if (version == null) {
+                    throw NotFound.INSTANCE;
+                }
+                var notModified = notModified(version, ifNoneMatch);
+                if (notModified != null) {
+                    return notModified;
+                }
             }
 
-            return new EasyView(model).toString();
+            long generation = variant != null
+                    ? viewCache.generation(modelType.modelClass())
+                    : 0;
+            EasyModel model;
+            synchronized (db) {
+                model = EasyModel.byId(
+                        db,
+                        id,
+                        modelType.modelClass(),
+                        loaded(projection)
+                );
+
+                if (model == null) {
+                    throw NotFound.INSTANCE;
+                }
+                if (!model.authorize(db, authorization, AccessType.READ)) {
+                    throw Forbidden.INSTANCE;
+                }
+            }
+
+            if (checkVersion && customAuthorization) {
+                // Access had to be checked first, but the view still doesn't
+                // have to be rendered
+                var notModified = notModified(
+                        modelType.version(model),
+                        ifNoneMatch
+                );
+                if (notModified != null) {
+                    return notModified;
+                }
+            }
+
+            if (variant == null) {
+                var response = new Response(
+                        200,
+                        new EasyView(
+                                model,
+                                authorization,
+                                projection,
+                                readableBy(authorization)
+                        ).toBytes()
+                );
+
+                if (taggedByVersion()) {
+                    response.addHeader(
+                            ETags.ETAG_HEADER,
+                            ETags.ofVersion(modelType.version(model))
+                    );
+                }
+
+                return response;
+            }
+
+            var cached = viewCache.get(modelType.modelClass(), id, variant);
+            if (cached == null) {
+                byte[] json = new EasyView(
+                        model,
+                        authorization,
+                        projection,
+                        readableBy(authorization)
+                ).toBytes();
+                cached = new ViewCache.CachedView(json, etag(model, json));
+                viewCache.put(
+                        modelType.modelClass(),
+                        id,
+                        variant,
+                        generation,
+                        cached
+                );
+            }
+
+            return cachedResponse(cached);
+        } catch (SQLException e) {
+            throw new InternalServerError(e);
+        }
+    }
+
+    private static Response cachedResponse(ViewCache.CachedView cached) {
+        var response = new Response(200, cached.json());
+        response.addHeader(ETags.ETAG_HEADER, cached.etag());
+        response.setGzippedBody(cached::gzipped);
+
+        return response;
+    }
+
+    /**
+     * Gets the key of the cached view requested by some query parameters, or
+     * {@code null} if the view can't be cached
+     *
+     * <p>
+     *     Views with expanded associations are not cached, since they would
+     *     have to be dropped whenever any of the expanded model instances
+     *     changed.
+     * </p>
+     */
+    private String cacheVariant(Map<String, String> params) {
+        if (viewCache == null) {
+            return null;
+        }
+
+        for (var param : params.keySet()) {
+            if (!param.equals(FIELDS_PARAM)) {
+                return null;
+            }
+        }
+
+        return params.getOrDefault(FIELDS_PARAM, "");
+    }
+
+    @Override
+    public String get(
+            List<UUID> ids,
+            Map<String, String> params,
+            String authorization
+    ) throws HttpErrorStatus {
+        try {
+            var projection = projection(params);
+            List<? extends EasyModel> models;
+            synchronized (db) {
+                models = readable(
+                        EasyModel.byIds(
+                                db,
+                                ids,
+                                Filter.parse(filterParams(params), modelType),
+                                modelType.modelClass(),
+                                loaded(projection)
+                        ),
+                        authorization
+                );
+            }
+
+            return new EasyView(
+                    models,
+                    projection,
+                    readableBy(authorization)
+            ).toString();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
+        } catch (SQLException e) {
+            throw new InternalServerError(e);
+        }
+    }
+
+    @Override
+    public Response count(
+            Map<String, String> params,
+            String authorization
+    ) throws HttpErrorStatus {
+        try {
+            boolean estimate = Boolean.parseBoolean(params.get(ESTIMATE_PARAM));
+            Map<String, String> filterParams = filterParams(params);
+            filterParams.remove(ESTIMATE_PARAM);
+
+            var filter = Filter.parse(filterParams, modelType);
+
+            long count;
+            synchronized (db) {
+                var authorizedFilter = authorizeFilter(authorization);
+
+                if (estimate && authorizedFilter != null) {
+                    count = EasyModel.estimateCount(
+                            db,
+                            filter.and(authorizedFilter),
+                            modelType.modelClass()
+                    );
+
+                    var response = new Response(
+                            new AggregateView("count", count).toString()
+                    );
+                    response.addHeader(APPROXIMATE_HEADER, "true");
+
+                    return response;
+                }
+                else if (authorizedFilter != null) {
+                    count = EasyModel.count(
+                            db,
+                            filter.and(authorizedFilter),
+                            modelType.modelClass()
+                    );
+                }
+                else {
+                    // Access can only be checked for each model instance, so
+                    // every matching row is loaded in full, as documented on
+                    // Controller.count
+                    var models = EasyModel.where(
+                            db,
+                            filter,
+                            modelType.modelClass(),
+                            new Projection(null)
+                    );
+                    count = readable(models, authorization).size();
+                }
+            }
+
+            return new Response(new AggregateView("count", count).toString());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
+        } catch (SQLException e) {
+            throw new InternalServerError(e);
+        }
+    }
+
+    @Override
+    public String aggregate(
+            Map<String, String> params,
+            String authorization
+    ) throws HttpErrorStatus {
+        try {
+            var function = Aggregate.parse(params.get(FUNCTION_PARAM));
+            var fieldName = params.get(FIELD_PARAM);
+            var groupBy = params.get(GROUP_BY_PARAM);
+
+            Map<String, String> filterParams = filterParams(params);
+            for (var aggregateParam : AGGREGATE_PARAMS) {
+                filterParams.remove(aggregateParam);
+            }
+            var filter = Filter.parse(filterParams, modelType);
+
+            List<Map<String, Object>> rows;
+            synchronized (db) {
+                var authorizedFilter = authorizeFilter(authorization);
+                if (authorizedFilter == null) {
+                    // Values of model instances that can't be read would
+                    // leak into the result
+                    throw new Forbidden(
+                            "Aggregates are not available for this model"
+                    );
+                }
+
+                rows = EasyModel.aggregate(
+                        db,
+                        function,
+                        fieldName,
+                        groupBy,
+                        filter.and(authorizedFilter),
+                        modelType.modelClass()
+                );
+            }
+
+            return new AggregateView(rows, groupBy).toString();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
+        } catch (SQLException e) {
+            throw new InternalServerError(e);
+        }
+    }
+
+    @Override
+    public Response export(
+            Map<String, String> params,
+            String authorization
+    ) throws HttpErrorStatus {
+        var projection = projection(params);
+        Filter filter;
+        try {
+            filter = Filter.parse(filterParams(params), modelType);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
+        }
+
+        Filter authorizedFilter;
+        synchronized (db) {
+            authorizedFilter = authorizeFilter(authorization);
+        }
+        Filter exportFilter = authorizedFilter != null
+                ? filter.and(authorizedFilter)
+                : filter;
+
+        var response = new Response(200, out -> {
+            var writer = new BufferedOutputStream(out);
+
+            // Each batch is read while holding the connection's lock, but
+            // it is written to the client without it, so a slow client does
+            // not hold up other requests
+            try (var models = EasyModel.stream(
+                    db,
+                    exportFilter,
+                    modelType.modelClass(),
+                    loaded(projection)
+            )) {
+                var iterator = models.iterator();
+                while (iterator.hasNext()) {
+                    var model = iterator.next();
+                    if (authorizedFilter == null
+                            && !isReadable(model, authorization)) {
+                        continue;
+                    }
+
+                    writer.write(new EasyView(
+                            model,
+                            authorization,
+                            projection,
+                            readableBy(authorization)
+                    ).toBytes());
+                    writer.write('\n');
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+
+            writer.flush();
+        });
+        response.addHeader("Content-Type", "application/x-ndjson");
+
+        return response;
+    }
+
+    @Override
+    public Response bulkImport(
+            InputStream body,
+            String contentType,
+            String authorization
+    ) throws HttpErrorStatus {
+        var importer = new Importer(db, modelType.modelClass());
+        var reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+
+        try {
+            long count;
+            // COPY occupies the shared connection until it ends
+            synchronized (db) {
+                count = importer.importRows(reader, contentType, authorization);
+            }
+
+            return new Response(
+                    new AggregateView("imported", count).toString()
+            );
         } catch (SQLException e) {
-            e.printStackTrace();
+            // Usually a constraint violation, such as a duplicate id. The
+            // driver's message can reveal the schema, so it is only logged.
+            ErrorLog.SHARED.log(e);
+            throw IMPORT_REJECTED;
+        } catch (IOException e) {
+            ErrorLog.SHARED.log(e);
+            throw IMPORT_UNREADABLE;
+        }
+    }
+
+    /**
+     * Gets the filter selecting the model instances that can be read with a
+     * given authorization, or {@code null} if access has to be checked for
+     * each model instance
+     */
+    private Filter authorizeFilter(String authorization)
+            throws HttpErrorStatus {
+        try {
+            EasyModel model = modelType.modelClass()
+                    .getDeclaredConstructor()
+                    .newInstance();
+
+            return model.authorizeFilter(db, authorization, AccessType.READ);
+        } catch (
+                InvocationTargetException |
+                NoSuchMethodException |
+                InstantiationException |
+                IllegalAccessException e
+        ) {
             throw new InternalServerError(e);
         }
     }
 
     @Override
     public String post(String body, String authorization) throws HttpErrorStatus {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        return post(new ByteArrayInputStream(bytes), authorization);
+    }
+
+    @Override
+    public String post(InputStream body, String authorization)
+            throws HttpErrorStatus {
         try {
+            // Takes the connection's lock only while it looks up associated
+            // model instances, not while it reads the request body
             var model = modelType.fromJson(db, body);
 
-            if (!model.authorize(db, authorization, AccessType.CREATE)) {
-                throw new Forbidden();
-            }
+            synchronized (db) {
+                if (!model.authorize(db, authorization, AccessType.CREATE)) {
+                    throw Forbidden.INSTANCE;
+                }
 
-            model.save(db);
+                model.save(db);
+            }
 
             return new EasyView(model).toString();
+        } catch (JsonException | IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
         } catch (
                 NullPointerException |
                 SQLException |
@@ -138,7 +716,6 @@ public class EasyController implements Controller {
                 InstantiationException |
                 IllegalAccessException e
         ) {
-            e.printStackTrace();
             throw new InternalServerError(e);
         }
     }
@@ -149,104 +726,513 @@ public class EasyController implements Controller {
             String methodName,
             String body,
             String authorization
+    ) throws HttpErrorStatus {
+        try (var response = invoke(id, methodName, body, null, authorization)) {
+            if (response.bodyWriter() == null) {
+                return response.body();
+            }
+
+            var out = new ByteArrayOutputStream();
+            response.bodyWriter().write(out);
+
+            return out.toString(StandardCharsets.UTF_8);
+        }
+        catch (IOException ex) {
+            throw new InternalServerError(ex);
+        }
+    }
+
+    @Override
+    public Response invoke(
+            UUID id,
+            String methodName,
+            String body,
+            String accept,
+            String authorization
     ) throws HttpErrorStatus {
         try {
             var reader = Json.createReader (new StringReader(body));
             JsonObject bodyJson = reader.readObject();
-            Method customMethod = modelType.customMethod (methodName);
-            EasyModel modelInstance = EasyModel.byId(
-                    db,
-                    id,
-                    modelType.modelClass()
-            );
-
-            if (!modelInstance.authorize(
-                    db,
-                    authorization,
-                    AccessType.CUSTOM_METHOD
-            )) {
-                throw new Forbidden();
+            var invoker = modelType.customMethodInvoker (methodName);
+            if (invoker == null) {
+                throw NotFound.INSTANCE;
             }
 
-            var requiredParams = customMethod.getParameters();
-            var args = new LinkedList<Object>();
-
-            for (var param : requiredParams) {
-                if (param.getName().equals("authorization")
-                        && param.getType() == String.class) {
-                    args.add (authorization);
+            String variant = resultCache != null && invoker.cacheTtl() > 0
+                    ? invoker.cacheVariant(authorization, bodyJson)
+                    : null;
+            if (variant != null && !modelType.hasCustomAuthorization()) {
+                // Any client could call it, so there is no need to read the
+                // model instance to check access
+                String cached = resultCache.get(id, variant);
+                if (cached != null) {
+                    return new Response(cached);
                 }
-                else if (param.getType() == Connection.class) {
-                    args.add (db);
+            }
+            long generation = variant != null ? resultCache.generation() : 0;
+
+            EasyModel modelInstance;
+            Object[] args;
+            synchronized (db) {
+                modelInstance = EasyModel.byId(
+                        db,
+                        id,
+                        modelType.modelClass()
+                );
+                if (modelInstance == null) {
+                    throw NotFound.INSTANCE;
                 }
-                else if (!bodyJson.containsKey(param.getName())) {
-                    throw new BadRequest (param.getName() + " is required");
+
+                if (!modelInstance.authorize(
+                        db,
+                        authorization,
+                        AccessType.CUSTOM_METHOD
+                )) {
+                    throw Forbidden.INSTANCE;
                 }
-                else {
-                    try {
-                        args.add(SqlDatatypes.objectFromJson(
-                                param.getName(),
-                                param.getType(),
-                                db,
-                                bodyJson
-                        ));
-                    } catch (IllegalArgumentException ex) {
-                        throw new InternalServerError(ex);
+
+                if (variant != null) {
+                    String cached = resultCache.get(id, variant);
+                    if (cached != null) {
+                        return new Response(cached);
                     }
                 }
+
+                args = invoker.bind(db, authorization, bodyJson);
             }
+            if (invoker.async() && jobs != null) {
+                var job = jobs.submit(
+                        invoker.method(),
+                        invoker.concurrency(),
+                        authorization,
+                        () -> {
+                            Object result;
+                            synchronized (db) {
+                                result = call(invoker, modelInstance, args);
+                            }
 
-            var result = customMethod.invoke (modelInstance, args.toArray());
+                            return cache(
+                                    id,
+                                    variant,
+                                    generation,
+                                    invoker,
+                                    result,
+                                    authorization
+                            );
+                        }
+                );
+
+                var response = new Response(202, job.status().toString());
+                response.addHeader("Location", job.url());
 
-            if (result instanceof EasyModel) {
-                return new EasyView ((EasyModel) result).toString();
+                return response;
             }
-            else if (result != null) {
-                return result.toString();
+
+            Object result;
+            synchronized (db) {
+                result = call(invoker, modelInstance, args);
             }
-            else {
-                return "";
+            if (variant == null && StreamView.isStreamable(result)) {
+                return streamed(result, accept, authorization);
             }
 
+            return new Response(cache(
+                    id,
+                    variant,
+                    generation,
+                    invoker,
+                    result,
+                    authorization
+            ));
         }
-        catch (InvocationTargetException ex) {
-            if (ex.getCause() instanceof HttpErrorStatus) {
-                throw (HttpErrorStatus) ex.getCause();
-            }
-            else {
-                throw new BadRequest(ex.getCause());
-            }
+        catch (UncheckedIOException ex) {
+            throw new InternalServerError(ex.getCause());
         }
-        catch (
-                IllegalArgumentException |
-                IllegalAccessException |
-                SQLException ex
-        ) {
+        catch (IllegalArgumentException | SQLException ex) {
             throw new BadRequest(ex);
         }
     }
 
+    /**
+     * Calls a custom method, turning any exception it throws other than an
+     * {@link HttpErrorStatus} into a {@link BadRequest}
+     */
+    private static Object call(
+            CustomMethodInvoker invoker,
+            EasyModel model,
+            Object[] args
+    ) throws HttpErrorStatus {
+        try {
+            return invoker.call(model, args);
+        } catch (InvocationTargetException ex) {
+            throw new BadRequest(ex.getCause());
+        }
+    }
+
+    /**
+     * Renders the result of a custom method, and caches it if it is cacheable
+     *
+     * <p>
+     *     Results which left out model instances the client may not read
+     *     depend on the authorization, which may not be part of the variant,
+     *     so they aren't cached.
+     * </p>
+     */
+    private String cache(
+            UUID id,
+            String variant,
+            long generation,
+            CustomMethodInvoker invoker,
+            Object result,
+            String authorization
+    ) {
+        var personal = new AtomicBoolean(false);
+        String rendered = render(result, authorization, personal);
+
+        if (variant != null && !personal.get()) {
+            resultCache.put(
+                    id,
+                    variant,
+                    generation,
+                    rendered,
+                    invoker.cacheTtl()
+            );
+        }
+
+        return rendered;
+    }
+
+    /**
+     * Streams the many values returned by a custom method to the client,
+     * as newline delimited JSON if the client prefers it to JSON, or
+     * otherwise as a JSON array
+     *
+     * <p>
+     *     Each value is read from the result while holding the lock of the
+     *     database connection, in case the result reads from it, and model
+     *     instances which can't be read with the authorization are left out.
+     *     The result is closed once it has been written, or when the response
+     *     is closed without being written.
+     * </p>
+     */
+    private Response streamed(
+            Object result,
+            String accept,
+            String authorization
+    ) {
+        boolean ndjson = QualityValues.quality(accept, Importer.NDJSON)
+                > QualityValues.quality(accept, JSON);
+        var view = new StreamView(
+                result,
+                ndjson,
+                db,
+                readableBy(authorization)
+        );
+
+        var response = new Response(200, view::write);
+        response.setResource(view);
+        response.addHeader(
+                "Content-Type",
+                ndjson ? Importer.NDJSON : JSON
+        );
+
+        return response;
+    }
+
+    /**
+     * Renders the value returned by a custom method as a response body
+     *
+     * <p>
+     *     Many values are rendered as a JSON array, for when they can't be
+     *     streamed, such as when the result is cached or returned by a job.
+     *     Model instances among them which can't be read with the
+     *     authorization are left out, and {@code personal} is set if any
+     *     had to be checked.
+     * </p>
+     */
+    private String render(
+            Object result,
+            String authorization,
+            AtomicBoolean personal
+    ) {
+        if (result instanceof EasyModel) {
+            return new EasyView ((EasyModel) result).toString();
+        }
+        else if (StreamView.isStreamable(result)) {
+            Predicate<EasyModel> readable = model -> {
+                if (!ModelType.get(model.getClass()).hasCustomAuthorization()) {
+                    return true;
+                }
+
+                personal.set(true);
+                return isReadable(model, authorization);
+            };
+
+            return new StreamView(result, false, db, readable).toString();
+        }
+        else if (result != null) {
+            return result.toString();
+        }
+        else {
+            return "";
+        }
+    }
+
+    /**
+     * Filters a collection of model instances down to those that can be read
+     * with a given authorization
+     */
+    private <M extends EasyModel> List<M> readable(
+            Collection<M> models,
+            String authorization
+    ) {
+        return models.stream()
+                .filter(model -> isReadable(model, authorization))
+                .collect(Collectors.toList());
+    }
+
+    private boolean isReadable(EasyModel model, String authorization) {
+        try {
+            synchronized (db) {
+                return model.authorize(
+                        db,
+                        authorization,
+                        AccessType.READ
+                );
+            }
+        } catch (HttpErrorStatus e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether model instances can be read with a given authorization,
+     * such as those of an expanded association
+     */
+    private Predicate<EasyModel> readableBy(String authorization) {
+        return model -> isReadable(model, authorization);
+    }
+
+    /**
+     * Gets the fields of the model requested by the {@code fields} query
+     * parameter, and the associations to expand requested by the
+     * {@code include} query parameter
+     */
+    private Projection projection(Map<String, String> params)
+            throws BadRequest {
+        try {
+            return Projection.parse(
+                    params.get(FIELDS_PARAM),
+                    params.get(INCLUDE_PARAM),
+                    modelType
+            );
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequest(ex.getMessage());
+        }
+    }
+
+    /**
+     * Gets the projection to load model instances with before checking
+     * access to them
+     *
+     * <p>
+     *     A model with its own {@link EasyModel#authorize} may check fields
+     *     the client did not select, so its instances are loaded with every
+     *     field, and only the selected fields are displayed.
+     * </p>
+     */
+    private Projection loaded(Projection projection) {
+        return modelType.hasCustomAuthorization()
+                ? projection.allFields()
+                : projection;
+    }
+
+    /**
+     * Removes query parameters with a special meaning, leaving only those
+     * which filter model instances by field values
+     */
+    private static Map<String, String> filterParams(
+            Map<String, String> params
+    ) {
+        Map<String, String> result = new HashMap<>(params);
+        for (var reservedParam : RESERVED_PARAMS) {
+            result.remove(reservedParam);
+        }
+
+        return result;
+    }
+
     @Override
     public void put(UUID id, String body, String authorization) throws HttpErrorStatus {
-        // TODO
-        var ex = new UnsupportedOperationException("Put method not implemented");
-        ex.printStackTrace();
-        throw new InternalServerError(ex);
+        put(id, body, null, authorization);
+    }
+
+    @Override
+    public Response put(
+            UUID id,
+            String body,
+            String ifMatch,
+            String authorization
+    ) throws HttpErrorStatus {
+        if (body == null) {
+            throw new BadRequest("Missing request body");
+        }
+
+        try {
+            EasyModel model;
+            synchronized (db) {
+                model = EasyModel.byId(db, id, modelType.modelClass());
+
+                if (model == null) {
+                    throw NotFound.INSTANCE;
+                }
+                if (!model.authorize(db, authorization, AccessType.UPDATE)) {
+                    throw Forbidden.INSTANCE;
+                }
+                checkIfMatch(model, ifMatch);
+
+                var reader = Json.createReader(new StringReader(body));
+                model.update(db, reader.readObject());
+                model.save(db);
+            }
+
+            var response = new Response(null);
+            var version = modelType.version(model);
+            if (version != null) {
+                response.addHeader(ETags.ETAG_HEADER, ETags.ofVersion(version));
+            }
+
+            return response;
+        } catch (VersionConflictException e) {
+            throw new Conflict(e.getMessage());
+        } catch (JsonException | IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
+        } catch (SQLException e) {
+            throw new InternalServerError(e);
+        }
     }
 
     @Override
     public void delete(UUID id, String authorization) throws HttpErrorStatus {
+        delete(id, null, authorization);
+    }
+
+    @Override
+    public Response delete(UUID id, String ifMatch, String authorization)
+            throws HttpErrorStatus {
         try {
-            var model = EasyModel.byId(db, id, modelType.modelClass());
+            synchronized (db) {
+                var model = EasyModel.byId(db, id, modelType.modelClass());
 
-            if (!model.authorize(db, authorization, AccessType.DELETE)) {
-                throw new Forbidden();
+                if (model == null) {
+                    throw NotFound.INSTANCE;
+                }
+                if (!model.authorize(db, authorization, AccessType.DELETE)) {
+                    throw Forbidden.INSTANCE;
+                }
+                checkIfMatch(model, ifMatch);
+
+                model.delete(db);
             }
 
-            model.delete(db);
+            return new Response(null);
+        } catch (VersionConflictException e) {
+            throw new Conflict(e.getMessage());
         } catch (SQLException e) {
-            e.printStackTrace();
-            throw new InternalServerError();
+            throw new InternalServerError(e);
         }
     }
+
+    /**
+     * Checks whether views of this model can be tagged by their version
+     *
+     * <p>
+     *     Views list the ids of associated model instances, which can change
+     *     without the version changing, so only models without associations
+     *     can be.
+     * </p>
+     */
+    private boolean taggedByVersion() {
+        var associations = modelType.associations();
+
+        return modelType.versionField() != null
+                && (associations == null || associations.length == 0);
+    }
+
+    /**
+     * Gets a {@code 304 Not Modified} response if the client's copy of a
+     * model instance is still current, for models tagged by their version
+     *
+     * <p>
+     *     The client's copy may have been sent compressed, and so be named by
+     *     the entity tag of the compressed body, which is made from the same
+     *     version.
+     * </p>
+     *
+     * @param version The current version of the model instance
+     * @param ifNoneMatch The value of the HTTP {@code If-None-Match} header
+     * @return The response, or {@code null} if the client's copy is not
+     *         current
+     */
+    private static Response notModified(long version, String ifNoneMatch) {
+        String etag = ETags.ofVersion(version);
+        if (!ETags.matchesAny(ifNoneMatch, etag)) {
+            etag = ETags.gzipped(etag);
+            if (!ETags.matchesAny(ifNoneMatch, etag)) {
+                return null;
+            }
+        }
+
+        var response = new Response(304, (byte[]) null);
+        response.addHeader(ETags.ETAG_HEADER, etag);
+
+        return response;
+    }
+
+    /**
+     * Checks that a model instance is still the version the client expects
+     *
+     * <p>
+     *     For versioned models, the version is checked again when the change
+     *     is written, so a change made after this check still causes a
+     *     conflict. Otherwise, a change made after this check is not
+     *     detected.
+     * </p>
+     *
+     * @param model The model instance to change
+     * @param ifMatch The value of the HTTP {@code If-Match} header, or
+     *                {@code null} if the change is not conditional
+     * @throws Conflict If the model instance has changed
+     */
+    private void checkIfMatch(EasyModel model, String ifMatch)
+            throws Conflict {
+        if (ifMatch == null) {
+            return;
+        }
+
+        String etag = etag(model, null);
+        if (!ETags.matchesStrongly(ifMatch, etag)) {
+            throw new Conflict("Current ETag is " + etag);
+        }
+    }
+
+    /**
+     * Gets the entity tag of a model instance's view, from its version if
+     * possible, or from the content of the view otherwise
+     *
+     * @param model The model instance
+     * @param json The view of the model instance, or {@code null} to render
+     *             a view with all fields
+     */
+    private String etag(EasyModel model, byte[] json) {
+        if (taggedByVersion()) {
+            return ETags.ofVersion(modelType.version(model));
+        }
+
+        if (json == null) {
+            json = new EasyView(model).toBytes();
+        }
+
+        return ETags.of(json);
+    }
 }
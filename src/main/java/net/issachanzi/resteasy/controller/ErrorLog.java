@@ -0,0 +1,103 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+
+/**
+ * Logs errors which happened while handling requests, without letting a
+ * flood of failing requests flood the log
+ *
+ * <p>
+ *     At most a fixed number of errors are logged in each interval. Once the
+ *     limit is reached, further errors are only counted, and the count is
+ *     logged with the first error logged in a later interval.
+ * </p>
+ *
+ * <p>
+ *     Only server errors are logged. Client errors, such as
+ *     {@code 404 Not Found}, are the client's problem, and are cheap for a
+ *     client to cause in bulk.
+ * </p>
+ */
+class ErrorLog {
+    /**
+     * The maximum number of errors logged in each interval by default
+     */
+    static final int DEFAULT_LIMIT = 10;
+
+    /**
+     * The length of each interval by default, in milliseconds
+     */
+    static final long DEFAULT_INTERVAL = 10_000;
+
+    /**
+     * The log shared by every controller
+     */
+    static final ErrorLog SHARED
+            = new ErrorLog(DEFAULT_LIMIT, DEFAULT_INTERVAL);
+
+    private final int limit;
+    private final long interval;
+
+    private long intervalStart = 0;
+    private int logged = 0;
+    private int skipped = 0;
+
+    /**
+     * Constructs an {@code ErrorLog}
+     *
+     * @param limit The maximum number of errors logged in each interval
+     * @param interval The length of each interval, in milliseconds
+     */
+    ErrorLog(int limit, long interval) {
+        this.limit = limit;
+        this.interval = interval;
+    }
+
+    /**
+     * Logs the cause of an error status sent to a client, if it is a server
+     * error
+     *
+     * @param errorStatus The error status sent to the client
+     */
+    void log(HttpErrorStatus errorStatus) {
+        if (errorStatus.statusCode() < 500) {
+            return;
+        }
+
+        var cause = errorStatus.getCause();
+        log(cause == null ? errorStatus : cause);
+    }
+
+    /**
+     * Logs an error, unless too many have been logged recently
+     *
+     * @param error The error to log
+     */
+    void log(Throwable error) {
+        int skippedBefore;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - intervalStart >= interval || intervalStart > now) {
+                intervalStart = now;
+                logged = 0;
+            }
+
+            if (logged >= limit) {
+                skipped++;
+                return;
+            }
+
+            logged++;
+            skippedBefore = skipped;
+            skipped = 0;
+        }
+
+        if (skippedBefore > 0) {
+            System.err.println(
+                    skippedBefore + " errors were not logged, as too many "
+                    + "errors were happening"
+            );
+        }
+        error.printStackTrace();
+    }
+}
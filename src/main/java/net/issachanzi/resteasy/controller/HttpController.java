@@ -2,7 +2,12 @@ package net.issachanzi.resteasy.controller;
 
 import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
 import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.NotFound;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -11,6 +16,31 @@ import java.util.UUID;
  * specified by the {@link Controller} interface.
  */
 public class HttpController {
+    /**
+     * The query parameter used to request multiple model instances by id
+     */
+    public static final String IDS_PARAM = "ids";
+
+    /**
+     * The path used to count model instances
+     */
+    public static final String COUNT_ACTION = "_count";
+
+    /**
+     * The path used to compute aggregate functions over model instances
+     */
+    public static final String AGGREGATE_ACTION = "_aggregate";
+
+    /**
+     * The path used to export model instances
+     */
+    public static final String EXPORT_ACTION = "_export";
+
+    /**
+     * The path used to import model instances
+     */
+    public static final String IMPORT_ACTION = "_import";
+
     private final Controller controller;
 
     /**
@@ -22,32 +52,155 @@ public class HttpController {
         this.controller = controller;
     }
 
+    /**
+     * Gets the names of the custom methods of the controller's model
+     *
+     * @return The names of the custom methods
+     */
+    public Collection<String> customMethodNames() {
+        return controller.customMethodNames();
+    }
+
     /**
      * Handles all HTTP {@code GET} requests
      *
      * @param id The id of the model to get, or {@code null} if no id is given
      * @param query The query parameters, or {@code null} if none are given
      * @param authorization The value of the HTTP {@code Authorization header}
-     * @return The response body to return to the client
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    public Response get(
+            UUID id,
+            Map<String, String> query,
+            String authorization
+    ) throws HttpErrorStatus {
+        return get(id, query, null, authorization);
+    }
+
+    /**
+     * Handles all HTTP {@code GET} requests, which may be conditional
+     *
+     * @param id The id of the model to get, or {@code null} if no id is given
+     * @param query The query parameters, or {@code null} if none are given
+     * @param ifNoneMatch The value of the HTTP {@code If-None-Match} header,
+     *                    or {@code null} if the request is not conditional
+     * @param authorization The value of the HTTP {@code Authorization header}
+     * @return The response to return to the client
      * @throws HttpErrorStatus If the request is not successful
      */
-    public String get(
+    public Response get(
             UUID id,
             Map<String, String> query,
+            String ifNoneMatch,
             String authorization
     ) throws HttpErrorStatus {
         if (id == null && query == null) {
-            return controller.get(authorization);
+            return new Response(controller.get(authorization));
+        }
+        else if (id == null && query.containsKey(IDS_PARAM)) {
+            var ids = parseIds(query.get(IDS_PARAM));
+
+            return new Response(controller.get(ids, query, authorization));
         }
         else if (id == null) {
-            return controller.get(query, authorization);
+            return new Response(controller.get(query, authorization));
         }
         else if (query == null) {
-            return controller.get(id,authorization);
+            return controller.get(id, Map.of(), ifNoneMatch, authorization);
+        }
+        else {
+            return controller.get(id, query, ifNoneMatch, authorization);
+        }
+    }
+
+    /**
+     * Handles HTTP {@code GET} requests for an action on all model instances,
+     * such as {@code /ModelName/_count}
+     *
+     * @param action The name of the action, starting with {@code _}
+     * @param query The query parameters, or {@code null} if none are given
+     * @param authorization The value of the HTTP {@code Authorization header}
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    public Response get(
+            String action,
+            Map<String, String> query,
+            String authorization
+    ) throws HttpErrorStatus {
+        if (query == null) {
+            query = Map.of();
+        }
+
+        return switch (action) {
+            case COUNT_ACTION -> controller.count(query, authorization);
+            case AGGREGATE_ACTION -> new Response(
+                    controller.aggregate(query, authorization)
+            );
+            case EXPORT_ACTION -> controller.export(query, authorization);
+            default -> throw NotFound.INSTANCE;
+        };
+    }
+
+    /**
+     * Handles HTTP {@code POST} requests to create a model instance, reading
+     * the request body as it is needed
+     *
+     * @param body The request body
+     * @param authorization The value of the HTTP {@code Authorization header}
+     * @return The response body to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    public String post(
+            InputStream body,
+            String authorization
+    ) throws HttpErrorStatus {
+        return controller.post(body, authorization);
+    }
+
+    /**
+     * Handles HTTP {@code POST} requests for an action on all model instances,
+     * such as {@code /ModelName/_import}
+     *
+     * @param action The name of the action, starting with {@code _}
+     * @param body The request body, which is read as it is needed
+     * @param contentType The value of the HTTP {@code Content-Type} header
+     * @param authorization The value of the HTTP {@code Authorization header}
+     * @return The response to return to the client
+     * @throws HttpErrorStatus If the request is not successful
+     */
+    public Response post(
+            String action,
+            InputStream body,
+            String contentType,
+            String authorization
+    ) throws HttpErrorStatus {
+        if (action.equals(IMPORT_ACTION)) {
+            return controller.bulkImport(body, contentType, authorization);
         }
         else {
-            throw new BadRequest();
+            throw NotFound.INSTANCE;
+        }
+    }
+
+    private static List<UUID> parseIds(String idsParam) throws BadRequest {
+        List<UUID> ids = new ArrayList<>();
+
+        for (String idStr : idsParam.split(",")) {
+            if (idStr.isBlank()) {
+                continue;
+            }
+
+            idStr = idStr.trim();
+            UUID id = Router.parseUuid(idStr, 0, idStr.length());
+            if (id == null) {
+                throw new BadRequest("Invalid id " + idStr);
+            }
+            ids.add(id);
         }
+
+        return ids;
     }
 
     /**
@@ -58,24 +211,33 @@ public class HttpController {
      * @param methodName The name of the custom method to invoke on the model
      *                   instance
      * @param body The request body
+     * @param accept The value of the HTTP {@code Accept} header, or
+     *               {@code null} if there is none
      * @param authorization The value of the HTTP {@code Authorization header}
-     * @return The response body to return to the client
+     * @return The response to return to the client
      * @throws HttpErrorStatus If the request is not successful
      */
-    public String post(
+    public Response post(
             UUID id,
             String methodName,
             String body,
+            String accept,
             String authorization
     ) throws HttpErrorStatus {
         if(methodName != null && body != null) {
-            return controller.post(id, methodName, body, authorization);
+            return controller.invoke(
+                    id,
+                    methodName,
+                    body,
+                    accept,
+                    authorization
+            );
         }
         else if (body != null) {
-            return controller.post(body, authorization);
+            return new Response(controller.post(body, authorization));
         }
         else {
-            throw new BadRequest();
+            throw BadRequest.INSTANCE;
         }
     }
 
@@ -84,19 +246,20 @@ public class HttpController {
      *
      * @param id The id of the model instance to update
      * @param body The request body
+     * @param ifMatch The value of the HTTP {@code If-Match} header, or
+     *                {@code null} if there is none
      * @param authorization The value of the HTTP {@code Authorization header}
-     * @return The response body to return to the client
+     * @return The response to return to the client
      * @throws HttpErrorStatus If the request is not successful
      */
-    public String put(
+    public Response put(
             UUID id,
             String body,
+            String ifMatch,
             String authorization
     ) throws HttpErrorStatus {
         if (id != null) {
-            controller.put(id, body, authorization);
-
-            return null;
+            return controller.put(id, body, ifMatch, authorization);
         }
         else {
             throw new BadRequest("Missing ID in path");
@@ -107,15 +270,19 @@ public class HttpController {
      * Handles all HTTP {@code DELETE} requests
      *
      * @param id The id of the model instance to delete
+     * @param ifMatch The value of the HTTP {@code If-Match} header, or
+     *                {@code null} if there is none
      * @param authorization The value of the HTTP {@code Authorization header}
-     * @return The response body to return to the client
+     * @return The response to return to the client
      * @throws HttpErrorStatus If the request is not successful
      */
-    public String delete(UUID id, String authorization) throws HttpErrorStatus {
+    public Response delete(
+            UUID id,
+            String ifMatch,
+            String authorization
+    ) throws HttpErrorStatus {
         if(id != null) {
-            controller.delete(id, authorization);
-
-            return null;
+            return controller.delete(id, ifMatch, authorization);
         }
         else {
             throw new BadRequest("Missing ID in path");
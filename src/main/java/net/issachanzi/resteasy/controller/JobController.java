@@ -0,0 +1,196 @@
+package net.issachanzi.resteasy.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.NotFound;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A servlet for clients to poll the status of jobs started by asynchronous
+ * custom methods
+ *
+ * <p>
+ *     {@code GET /_jobs/<id>} returns the {@link Jobs.Job#status()} of the
+ *     job straight away. With a {@code wait} query parameter, such as
+ *     {@code ?wait=30}, a job which hasn't finished is waited on for up to
+ *     that many seconds before its status is returned, so the client learns
+ *     of the result as soon as it is ready. No thread is held while waiting.
+ * </p>
+ *
+ * <p>
+ *     A job can only be polled with the {@code Authorization} header it was
+ *     started with. Other requests get {@code 404 Not Found}, as if the job
+ *     didn't exist.
+ * </p>
+ */
+public class JobController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The longest a request can wait for a job to finish, in seconds
+     */
+    public static final int MAX_WAIT = 60;
+
+    private static final String WAIT_PARAM = "wait";
+
+    /**
+     * The longest a timed out request waits for a finished job's status to be
+     * sent by another thread, in seconds
+     */
+    private static final int SEND_TIMEOUT = 10;
+
+    private static final BadRequest INVALID_WAIT
+            = new BadRequest("wait must be a number of seconds");
+
+    private final Jobs jobs;
+
+    /**
+     * Constructs a {@code JobController}
+     *
+     * @param jobs The jobs to report the status of
+     */
+    public JobController(Jobs jobs) {
+        this.jobs = jobs;
+    }
+
+    @Override
+    public void doGet(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        var origin = request.getHeader("Origin");
+        response.addHeader("Access-Control-Allow-Origin", origin);
+
+        String path = request.getPathInfo();
+        var id = path == null
+                ? null
+                : Router.parseUuid(path, 1, path.length());
+        var job = id == null ? null : jobs.get(id);
+        // Jobs started by other clients are hidden, rather than forbidden,
+        // so their ids can't be confirmed
+        String authorization = request.getHeader("Authorization");
+        if (job == null || !job.readableBy(authorization)) {
+            ServletController.sendError(response, NotFound.INSTANCE);
+            return;
+        }
+
+        int wait;
+        try {
+            String waitParam = request.getParameter(WAIT_PARAM);
+            wait = waitParam == null
+                    ? 0
+                    : Math.min(Integer.parseInt(waitParam), MAX_WAIT);
+        } catch (NumberFormatException ex) {
+            ServletController.sendError(response, INVALID_WAIT);
+            return;
+        }
+
+        if (wait <= 0 || job.result().isDone()) {
+            sendStatus(response, job);
+            return;
+        }
+
+        // Whichever of the job finishing and the wait timing out happens
+        // first sends the response
+        var async = request.startAsync();
+        var poll = new Poll(async, job);
+        async.setTimeout(wait * 1000L);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                if (poll.claim()) {
+                    poll.send();
+                }
+                else {
+                    // The container fails the request if it isn't complete
+                    // once the timeout has been handled
+                    poll.awaitSent();
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {}
+
+            @Override
+            public void onError(AsyncEvent event) {}
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {}
+        });
+        job.result().whenComplete((result, error) -> {
+            if (poll.claim()) {
+                async.start(poll::send);
+            }
+        });
+    }
+
+    /**
+     * A request waiting for a job, whose response is sent exactly once, by
+     * whichever of the job finishing and the wait timing out claims it first
+     */
+    private static class Poll {
+        private final AsyncContext async;
+        private final Jobs.Job job;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final CountDownLatch sent = new CountDownLatch(1);
+
+        Poll(AsyncContext async, Jobs.Job job) {
+            this.async = async;
+            this.job = job;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void send() {
+            try {
+                sendStatus((HttpServletResponse) async.getResponse(), job);
+                async.complete();
+            } finally {
+                sent.countDown();
+            }
+        }
+
+        void awaitSent() {
+            try {
+                sent.await(SEND_TIMEOUT, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sendStatus(
+            HttpServletResponse response,
+            Jobs.Job job
+    ) {
+        byte[] body = job.status()
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+
+        response.setStatus(200);
+        response.setContentType("application/json");
+        response.setContentLength(body.length);
+        try {
+            response.getOutputStream().write(body);
+        } catch (IOException e) {
+            // The client has gone, so there is no one to tell
+        }
+    }
+
+    @Override
+    public void destroy() {
+        jobs.shutdown();
+    }
+}
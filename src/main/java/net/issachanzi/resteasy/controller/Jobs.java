@@ -0,0 +1,379 @@
+package net.issachanzi.resteasy.controller;
+
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+import net.issachanzi.resteasy.controller.exception.InternalServerError;
+import net.issachanzi.resteasy.controller.exception.ServiceUnavailable;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs calls to asynchronous custom methods in the background, and keeps
+ * track of them as jobs the client can poll for the result
+ *
+ * <p>
+ *     Each custom method has its own executor, running as many calls at once
+ *     as its concurrency allows, with a bounded queue of calls waiting to
+ *     run. Calls made once the queue is full are rejected with
+ *     {@code 503 Service Unavailable}.
+ * </p>
+ *
+ * <p>
+ *     Finished jobs are kept for a while so their result can be fetched,
+ *     then dropped. Each job records the authorization it was started with,
+ *     and can only be read with the same authorization.
+ * </p>
+ *
+ * <p>
+ *     Tasks which use the shared database connection must hold its lock
+ *     while doing so, like every other user of the connection.
+ * </p>
+ */
+public class Jobs {
+    /**
+     * The default number of calls to each custom method which can wait to
+     * run
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 100;
+
+    /**
+     * The default time a finished job is kept, in milliseconds
+     */
+    public static final long DEFAULT_RETENTION = 10 * 60 * 1000;
+
+    private final String path;
+    private final int queueSize;
+    private final long retention;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Method, ExecutorService> executors
+            = new ConcurrentHashMap<>();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    /**
+     * Constructs a {@code Jobs} with the default queue size and retention
+     *
+     * @param path The path jobs can be polled at, which is followed by the
+     *             id of a job
+     */
+    public Jobs(String path) {
+        this(path, DEFAULT_QUEUE_SIZE, DEFAULT_RETENTION);
+    }
+
+    /**
+     * Constructs a {@code Jobs}
+     *
+     * @param path The path jobs can be polled at, which is followed by the
+     *             id of a job
+     * @param queueSize The number of calls to each custom method which can
+     *                  wait to run
+     * @param retention The time a finished job is kept, in milliseconds
+     */
+    public Jobs(String path, int queueSize, long retention) {
+        this.path = path;
+        this.queueSize = queueSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Starts a job running in the background
+     *
+     * @param method The custom method the job calls, which has its own
+     *               executor
+     * @param concurrency The maximum number of calls to the custom method
+     *                    running at once
+     * @param authorization The value of the HTTP {@code Authorization}
+     *                      header the job was started with, which is needed
+     *                      to read it
+     * @param task Calls the custom method
+     * @return The new job
+     * @throws ServiceUnavailable If too many calls to the custom method are
+     *                            already waiting to run
+     */
+    public Job submit(
+            Method method,
+            int concurrency,
+            String authorization,
+            Task task
+    ) throws ServiceUnavailable {
+        sweep();
+
+        var job = new Job(UUID.randomUUID(), authorization);
+        var executor = executors.computeIfAbsent(
+                method,
+                m -> newExecutor(m, concurrency)
+        );
+
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> job.run(task));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id());
+            throw new ServiceUnavailable(
+                    "Too many calls to " + method.getName() + " are waiting"
+            );
+        }
+
+        return job;
+    }
+
+    /**
+     * Gets a job
+     *
+     * @param id The id of the job
+     * @return The job, or {@code null} if there is no job with that id, or it
+     *         finished too long ago
+     */
+    public Job get(UUID id) {
+        var job = jobs.get(id);
+        if (job != null && job.expired(System.currentTimeMillis())) {
+            jobs.remove(id);
+            return null;
+        }
+
+        return job;
+    }
+
+    /**
+     * Stops running jobs, interrupting those already running
+     */
+    public void shutdown() {
+        for (var executor : executors.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService newExecutor(Method method, int concurrency) {
+        var threadNumber = new AtomicInteger();
+        var executor = new ThreadPoolExecutor(
+                concurrency,
+                concurrency,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    var thread = new Thread(
+                            runnable,
+                            "job-" + method.getDeclaringClass().getSimpleName()
+                                    + "." + method.getName()
+                                    + "-" + threadNumber.incrementAndGet()
+                    );
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Drops finished jobs which have expired, at most once a minute
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < 60_000) {
+            return;
+        }
+
+        lastSweep = now;
+        jobs.values().removeIf(job -> job.expired(now));
+    }
+
+    /**
+     * The work done by a job
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Does the work of a job
+         *
+         * @return The response body, or {@code null} if there is none
+         * @throws HttpErrorStatus If the work fails
+         */
+        String run() throws HttpErrorStatus;
+    }
+
+    /**
+     * A call to an asynchronous custom method, which may not have finished
+     */
+    public class Job {
+        private final UUID id;
+        private final byte[] authorization;
+        private final CompletableFuture<String> result
+                = new CompletableFuture<>();
+        private volatile boolean running = false;
+        private volatile long finishedAt;
+
+        private Job(UUID id, String authorization) {
+            this.id = id;
+            this.authorization = bytes(authorization);
+        }
+
+        private void run(Task task) {
+            running = true;
+            String body = null;
+            HttpErrorStatus error = null;
+            Error fatal = null;
+            try {
+                body = task.run();
+            } catch (HttpErrorStatus errorStatus) {
+                error = errorStatus;
+            } catch (Error ex) {
+                // Still finish the job, so nobody polls it forever
+                error = new InternalServerError(ex);
+                fatal = ex;
+            } catch (Throwable ex) {
+                error = new InternalServerError(ex);
+            }
+
+            // Set before completing, so a finished job is never seen without
+            // the time it finished
+            finishedAt = System.currentTimeMillis();
+            if (error == null) {
+                result.complete(body);
+            }
+            else {
+                ErrorLog.SHARED.log(error);
+                result.completeExceptionally(error);
+            }
+
+            if (fatal != null) {
+                throw fatal;
+            }
+        }
+
+        private boolean expired(long now) {
+            return result.isDone() && now - finishedAt > retention;
+        }
+
+        /**
+         * Checks whether this job can be read with an authorization
+         *
+         * @param authorization The value of the HTTP {@code Authorization}
+         *                      header of the request to read this job
+         * @return {@code true} if it is the authorization this job was
+         *         started with
+         */
+        public boolean readableBy(String authorization) {
+            // Compared in constant time, so the authorization can't be
+            // guessed a byte at a time
+            return MessageDigest.isEqual(
+                    this.authorization,
+                    bytes(authorization)
+            );
+        }
+
+        /**
+         * Gets the id of this job
+         *
+         * @return The id
+         */
+        public UUID id() {
+            return id;
+        }
+
+        /**
+         * Gets the URL this job can be polled at
+         *
+         * @return The URL, relative to the server
+         */
+        public String url() {
+            return path + "/" + id;
+        }
+
+        /**
+         * Gets a future which completes when this job finishes
+         *
+         * @return The future, which completes with the response body, or
+         *         exceptionally with an {@link HttpErrorStatus}
+         */
+        public CompletableFuture<String> result() {
+            return result;
+        }
+
+        /**
+         * Describes the state of this job, such as
+         * {@code {"id":"...","status":"succeeded","result":{...}}}
+         *
+         * <p>
+         *     The status is one of {@code pending}, {@code running},
+         *     {@code succeeded} or {@code failed}. A job which succeeded has
+         *     the result of the custom method, and a job which failed has the
+         *     error status.
+         * </p>
+         *
+         * @return The JSON object describing this job
+         */
+        public JsonObject status() {
+            var json = Json.createObjectBuilder()
+                    .add("id", id.toString())
+                    .add("url", url());
+
+            if (!result.isDone()) {
+                return json.add("status", running ? "running" : "pending")
+                        .build();
+            }
+
+            String body;
+            try {
+                body = result.join();
+            } catch (CompletionException ex) {
+                var errorStatus = (HttpErrorStatus) ex.getCause();
+                return json.add("status", "failed")
+                        .add("error", Json.createObjectBuilder()
+                                .add("status", errorStatus.statusCode())
+                                .add(
+                                        "error",
+                                        String.valueOf(errorStatus.getMessage())
+                                )
+                        )
+                        .build();
+            }
+
+            return json.add("status", "succeeded")
+                    .add("result", bodyValue(body))
+                    .build();
+        }
+    }
+
+    private static byte[] bytes(String authorization) {
+        return authorization == null
+                ? new byte[0]
+                : authorization.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a response body into a JSON value, so it can be embedded in the
+     * status of a job
+     */
+    private static JsonValue bodyValue(String body) {
+        if (body == null || body.isEmpty()) {
+            return JsonValue.NULL;
+        }
+
+        try {
+            return Json.createReader(new StringReader(body)).readValue();
+        }
+        catch (JsonException ex) {
+            return Json.createValue(body);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.annotation.CustomMethod;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A cache of the rendered results of custom methods marked with a
+ * {@link CustomMethod#cacheTtl()}, for the instances of one model
+ *
+ * <p>
+ *     Results are kept for each model instance, with a separate result for
+ *     each custom method and set of arguments. A result is dropped once its
+ *     time to live has passed, or as soon as its model instance is saved or
+ *     deleted. Every result is dropped when instances of the model are
+ *     imported. Changes to other model instances, including associated ones,
+ *     are not seen, so only methods which depend on nothing but their own
+ *     model instance and their arguments should be cached.
+ * </p>
+ *
+ * <p>
+ *     The least recently used model instances are evicted once the cache is
+ *     full.
+ * </p>
+ */
+public class MethodResultCache {
+    /**
+     * The default number of model instances to keep results for
+     */
+    public static final int DEFAULT_CAPACITY = 1_000;
+
+    private final Class<? extends EasyModel> clazz;
+    private final int capacity;
+    private final LinkedHashMap<UUID, Map<String, CachedResult>> entries;
+
+    /**
+     * Incremented whenever an entry is invalidated, so results computed from
+     * model instances read before the change are not cached
+     */
+    private long generation = 0;
+
+    /**
+     * Constructs a {@code MethodResultCache} with the default capacity
+     *
+     * @param clazz The model class whose custom methods' results are cached
+     */
+    public MethodResultCache(Class<? extends EasyModel> clazz) {
+        this(clazz, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a {@code MethodResultCache}
+     *
+     * @param clazz The model class whose custom methods' results are cached
+     * @param capacity The maximum number of model instances to keep results
+     *                 for
+     */
+    public MethodResultCache(
+            Class<? extends EasyModel> clazz,
+            int capacity
+    ) {
+        this.clazz = clazz;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<UUID, Map<String, CachedResult>> eldest
+            ) {
+                return size() > MethodResultCache.this.capacity;
+            }
+        };
+
+        EasyModel.addChangeListener((changed, id) -> {
+            if (changed == this.clazz) {
+                invalidate(id);
+            }
+        });
+    }
+
+    /**
+     * Gets the current generation of this cache, to be passed to
+     * {@link #put(UUID, String, long, String, long)}
+     *
+     * <p>
+     *     This must be read before the model instance the custom method is
+     *     called on is read from the database.
+     * </p>
+     *
+     * @return The current generation
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Gets a cached result of a custom method
+     *
+     * @param id The id of the model instance the custom method was called on
+     * @param variant Identifies the custom method and its arguments
+     * @return The rendered result, or {@code null} if it is not cached or has
+     *         expired
+     */
+    public synchronized String get(UUID id, String variant) {
+        var variants = entries.get(id);
+        var cached = variants == null ? null : variants.get(variant);
+        if (cached == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() >= cached.expiresAt()) {
+            variants.remove(variant);
+            return null;
+        }
+
+        return cached.body();
+    }
+
+    /**
+     * Caches a result of a custom method
+     *
+     * <p>
+     *     The result is not cached if anything has been invalidated since
+     *     {@code generation} was read, as it may have been computed from a
+     *     model instance that has since changed.
+     * </p>
+     *
+     * @param id The id of the model instance the custom method was called on
+     * @param variant Identifies the custom method and its arguments
+     * @param generation The generation of this cache read before the model
+     *                   instance was read
+     * @param body The rendered result
+     * @param ttl How long to keep the result, in milliseconds
+     */
+    public synchronized void put(
+            UUID id,
+            String variant,
+            long generation,
+            String body,
+            long ttl
+    ) {
+        if (generation != this.generation || capacity <= 0) {
+            return;
+        }
+
+        entries.computeIfAbsent(id, k -> new HashMap<>())
+                .put(variant, new CachedResult(
+                        body,
+                        System.currentTimeMillis() + ttl
+                ));
+    }
+
+    /**
+     * Drops the cached results of a model instance
+     *
+     * @param id The id of the model instance that changed, or {@code null} to
+     *           drop the results of every model instance
+     */
+    public synchronized void invalidate(UUID id) {
+        generation++;
+
+        if (id == null) {
+            entries.clear();
+        }
+        else {
+            entries.remove(id);
+        }
+    }
+
+    private record CachedResult(String body, long expiresAt) {}
+}
@@ -0,0 +1,110 @@
+package net.issachanzi.resteasy.controller;
+
+/**
+ * Reads the preferences listed in HTTP headers such as {@code Accept} and
+ * {@code Accept-Encoding}, each of which may be given a quality value
+ *
+ * <p>
+ *     Each element of the header is a value, such as {@code gzip} or
+ *     {@code application/json}, optionally followed by parameters, one of
+ *     which may be a quality value such as {@code q=0.5}. A quality value of
+ *     {@code 0} means the value is not acceptable at all. Elements without a
+ *     quality value have a quality of {@code 1}.
+ * </p>
+ *
+ * <p>
+ *     Values are matched case insensitively. Wildcards such as {@code *},
+ *     {@code *}{@code /*} and {@code text/*} are matched too, but the most
+ *     specific element matching a value decides its quality, so
+ *     {@code gzip;q=0, *} doesn't accept {@code gzip}.
+ * </p>
+ */
+final class QualityValues {
+    private QualityValues() {}
+
+    /**
+     * Checks whether a header accepts a value
+     *
+     * @param header The value of the header, or {@code null} if there is none
+     * @param value The value to check, such as a content coding or media type
+     * @return {@code true} if the value is listed, directly or by a wildcard,
+     *         with a quality above {@code 0}
+     */
+    static boolean accepts(String header, String value) {
+        return quality(header, value) > 0;
+    }
+
+    /**
+     * Gets the quality a header gives to a value
+     *
+     * @param header The value of the header, or {@code null} if there is none
+     * @param value The value to check, such as a content coding or media type
+     * @return The quality of the most specific element matching the value,
+     *         from {@code 0} to {@code 1}, or {@code 0} if none match
+     */
+    static double quality(String header, String value) {
+        if (header == null) {
+            return 0;
+        }
+
+        int bestSpecificity = -1;
+        double bestQuality = 0;
+        for (String element : header.split(",")) {
+            String[] parts = element.split(";");
+            int specificity = specificity(parts[0].trim(), value);
+            if (specificity <= bestSpecificity) {
+                continue;
+            }
+
+            bestSpecificity = specificity;
+            bestQuality = quality(parts);
+        }
+
+        return bestQuality;
+    }
+
+    /**
+     * Gets how specifically an element of a header matches a value, from
+     * {@code 2} for an exact match to {@code 0} for a full wildcard, or
+     * {@code -1} if it doesn't match
+     */
+    private static int specificity(String range, String value) {
+        if (range.equalsIgnoreCase(value)) {
+            return 2;
+        }
+        else if (range.endsWith("/*")
+                && !range.equals("*/*")
+                && value.regionMatches(
+                        true,
+                        0,
+                        range,
+                        0,
+                        range.length() - 1
+                )) {
+            return 1;
+        }
+        else if (range.equals("*") || range.equals("*/*")) {
+            return 0;
+        }
+        else {
+            return -1;
+        }
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String[] param = parts[i].split("=", 2);
+            if (param.length == 2 && param[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    double quality = Double.parseDouble(param[1].trim());
+
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+}
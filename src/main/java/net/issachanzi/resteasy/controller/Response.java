@@ -0,0 +1,198 @@
+package net.issachanzi.resteasy.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A successful response to an HTTP request, for controller methods which need
+ * to set headers or a status code other than the default
+ *
+ * <p>
+ *     A streamed body may hold a resource open until it has been written,
+ *     such as a stream of query results. Whoever sends the response must
+ *     {@link #close()} it once it has been sent, or once it won't be sent
+ *     after all.
+ * </p>
+ */
+public class Response implements Closeable {
+    private final int statusCode;
+    private final byte[] body;
+    private final BodyWriter bodyWriter;
+    private Supplier<byte[]> gzippedBody;
+    private Closeable resource;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * Constructs a {@code Response} with a status code of 200, or 204 if the
+     * body is empty
+     *
+     * @param body The response body, or {@code null} if there is none
+     */
+    public Response(String body) {
+        this(body == null || body.isEmpty() ? 204 : 200, body);
+    }
+
+    /**
+     * Constructs a {@code Response} with a given status code
+     *
+     * @param statusCode The status code to return to the client
+     * @param body The response body, or {@code null} if there is none
+     */
+    public Response(int statusCode, String body) {
+        this(
+                statusCode,
+                body == null ? null : body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Constructs a {@code Response} with a body that is already encoded
+     *
+     * @param statusCode The status code to return to the client
+     * @param body The response body encoded as UTF-8, or {@code null} if
+     *             there is none
+     */
+    public Response(int statusCode, byte[] body) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.bodyWriter = null;
+    }
+
+    /**
+     * Constructs a {@code Response} with a body which is streamed to the
+     * client as it is written, rather than held in memory
+     *
+     * @param statusCode The status code to return to the client
+     * @param bodyWriter Writes the response body
+     */
+    public Response(int statusCode, BodyWriter bodyWriter) {
+        this.statusCode = statusCode;
+        this.body = null;
+        this.bodyWriter = bodyWriter;
+    }
+
+    /**
+     * Adds a header to this response, replacing any existing value
+     *
+     * @param name The name of the header
+     * @param value The value of the header
+     */
+    public void addHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    /**
+     * Gets the status code to return to the client
+     *
+     * @return The HTTP status code
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Gets the response body
+     *
+     * @return The response body, or {@code null} if there is none
+     */
+    public String body() {
+        return body == null ? null : new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the response body, encoded as UTF-8
+     *
+     * @return The response body, or {@code null} if there is none
+     */
+    public byte[] bodyBytes() {
+        return body;
+    }
+
+    /**
+     * Sets the response body already compressed with gzip, to be sent to
+     * clients which accept it instead of compressing the body again
+     *
+     * @param gzippedBody Gets the compressed response body, only called if
+     *                    it is needed
+     */
+    public void setGzippedBody(Supplier<byte[]> gzippedBody) {
+        this.gzippedBody = gzippedBody;
+    }
+
+    /**
+     * Gets the response body already compressed with gzip
+     *
+     * @return Gets the compressed response body, or {@code null} if it
+     *         hasn't been compressed in advance
+     */
+    public Supplier<byte[]> gzippedBody() {
+        return gzippedBody;
+    }
+
+    /**
+     * Sets a resource held open by the streamed response body, to be closed
+     * when this response is closed
+     *
+     * @param resource The resource, which must allow being closed more than
+     *                 once
+     */
+    public void setResource(Closeable resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Closes the resource held open by the streamed response body, if there
+     * is one, whether or not the body has been written
+     *
+     * @throws IOException If closing the resource fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (resource != null) {
+            resource.close();
+        }
+    }
+
+    /**
+     * Gets the writer of a streamed response body
+     *
+     * @return The body writer, or {@code null} if the body is not streamed
+     */
+    public BodyWriter bodyWriter() {
+        return bodyWriter;
+    }
+
+    /**
+     * Gets the headers to return to the client
+     *
+     * @return A map with a key of each header name, with a value of that
+     *         header's value
+     */
+    public Map<String, String> headers() {
+        return headers;
+    }
+
+    /**
+     * Writes a streamed response body
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        /**
+         * Writes the response body to a stream
+         *
+         * <p>
+         *     Writes block while the client is not keeping up, so the body
+         *     can be generated as it is written without buffering it.
+         * </p>
+         *
+         * @param out The stream to write the response body to
+         * @throws IOException If writing to the stream fails
+         */
+        void write(OutputStream out) throws IOException;
+    }
+}
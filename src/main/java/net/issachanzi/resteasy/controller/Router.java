@@ -0,0 +1,261 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+import net.issachanzi.resteasy.controller.exception.NotFound;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Matches request paths, such as {@code /ModelName/id/method}, to the
+ * controller of a model and the parameters of the request
+ *
+ * <p>
+ *     Model names, action names and custom method names are compiled into
+ *     tries when the router is constructed. A path is matched in a single
+ *     pass over its characters, without splitting it into substrings, and
+ *     ids are parsed without throwing exceptions for invalid ones.
+ * </p>
+ */
+class Router {
+    private static final List<String> ACTIONS = List.of(
+            HttpController.COUNT_ACTION,
+            HttpController.AGGREGATE_ACTION,
+            HttpController.EXPORT_ACTION,
+            HttpController.IMPORT_ACTION
+    );
+
+    private static final Route NOT_FOUND
+            = new Route(NotFound.INSTANCE, null, null, null, null);
+    private static final Route BAD_REQUEST
+            = new Route(new BadRequest("Invalid id"), null, null, null, null);
+
+    private static final int UUID_LENGTH = 36;
+
+    private final Trie<ModelRoutes> models = new Trie<>();
+    private final Trie<String> actions = new Trie<>();
+
+    /**
+     * Compiles a router for some models
+     *
+     * @param controllers A map with a key of each model name, with a value of
+     *                    the controller to pass requests for that model to
+     */
+    Router(Map<String, HttpController> controllers) {
+        for (var entry : controllers.entrySet()) {
+            var controller = entry.getValue();
+            var methods = new Trie<String>();
+            for (String methodName : controller.customMethodNames()) {
+                methods.put(methodName, methodName);
+            }
+
+            models.put(entry.getKey(), new ModelRoutes(controller, methods));
+        }
+
+        for (String action : ACTIONS) {
+            actions.put(action, action);
+        }
+    }
+
+    /**
+     * Matches a request path
+     *
+     * @param path The path relative to the API root, such as
+     *             {@code /ModelName/id/method}
+     * @return The matched route, with a {@link NotFound} error if nothing
+     *         matches the path, or a {@link BadRequest} error if the id in the
+     *         path is invalid
+     */
+    Route route(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return NOT_FOUND;
+        }
+
+        int modelEnd = segmentEnd(path, 1);
+        var model = models.get(path, 1, modelEnd);
+        if (model == null) {
+            return NOT_FOUND;
+        }
+        if (isEnd(path, modelEnd)) {
+            return new Route(null, model.controller(), null, null, null);
+        }
+
+        int idStart = modelEnd + 1;
+        int idEnd = segmentEnd(path, idStart);
+        if (path.charAt(idStart) == '_') {
+            String action = actions.get(path, idStart, idEnd);
+            if (action == null || !isEnd(path, idEnd)) {
+                return NOT_FOUND;
+            }
+
+            return new Route(null, model.controller(), action, null, null);
+        }
+
+        UUID id = parseUuid(path, idStart, idEnd);
+        if (id == null) {
+            return BAD_REQUEST;
+        }
+        if (isEnd(path, idEnd)) {
+            return new Route(null, model.controller(), null, id, null);
+        }
+
+        int methodStart = idEnd + 1;
+        int methodEnd = segmentEnd(path, methodStart);
+        String methodName = model.methods().get(path, methodStart, methodEnd);
+        if (methodName == null || !isEnd(path, methodEnd)) {
+            return NOT_FOUND;
+        }
+
+        return new Route(null, model.controller(), null, id, methodName);
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int slash = path.indexOf('/', start);
+
+        return slash < 0 ? path.length() : slash;
+    }
+
+    /**
+     * Checks whether a segment ending at an index is the last in a path,
+     * allowing for a trailing slash
+     */
+    private static boolean isEnd(String path, int segmentEnd) {
+        return segmentEnd >= path.length() - 1;
+    }
+
+    /**
+     * Parses a UUID in its canonical form, such as
+     * {@code 123e4567-e89b-12d3-a456-426614174000}
+     *
+     * @param s The string containing the UUID
+     * @param start The index of the first character of the UUID
+     * @param end The index after the last character of the UUID
+     * @return The UUID, or {@code null} if it is not valid
+     */
+    static UUID parseUuid(String s, int start, int end) {
+        if (end - start != UUID_LENGTH) {
+            return null;
+        }
+
+        long mostSig = 0;
+        long leastSig = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            int offset = i - start;
+            if (offset == 8 || offset == 13 || offset == 18 || offset == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+
+            int digit = hexDigit(c);
+            if (digit < 0) {
+                return null;
+            }
+
+            if (digits < 16) {
+                mostSig = (mostSig << 4) | digit;
+            }
+            else {
+                leastSig = (leastSig << 4) | digit;
+            }
+            digits++;
+        }
+
+        return new UUID(mostSig, leastSig);
+    }
+
+    /**
+     * Gets the value of an ASCII hexadecimal digit
+     *
+     * <p>
+     *     Unlike {@link Character#digit(char, int)}, digits from other
+     *     scripts, such as fullwidth or Arabic-Indic digits, are not
+     *     accepted.
+     * </p>
+     *
+     * @return The value of the digit, or {@code -1} if it is not one
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        else {
+            return -1;
+        }
+    }
+
+    /**
+     * The result of matching a request path
+     *
+     * @param error {@code null} if the path matched, or the error to send if
+     *              it did not
+     * @param controller The controller of the model named in the path
+     * @param action The action named in the path, such as {@code _count}, or
+     *               {@code null} if there is none
+     * @param id The id in the path, or {@code null} if there is none
+     * @param methodName The custom method named in the path, or {@code null}
+     *                   if there is none
+     */
+    record Route(
+            HttpErrorStatus error,
+            HttpController controller,
+            String action,
+            UUID id,
+            String methodName
+    ) {}
+
+    private record ModelRoutes(
+            HttpController controller,
+            Trie<String> methods
+    ) {}
+
+    /**
+     * A map from strings to values, which can look up a region of a string
+     * without creating a substring
+     *
+     * @param <V> The type of the values
+     */
+    private static class Trie<V> {
+        private final Node<V> root = new Node<>();
+
+        void put(String key, V value) {
+            var node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(
+                        key.charAt(i),
+                        c -> new Node<>()
+                );
+            }
+
+            node.value = value;
+        }
+
+        V get(String s, int start, int end) {
+            var node = root;
+            for (int i = start; i < end && node != null; i++) {
+                node = node.children.get(s.charAt(i));
+            }
+
+            return node == null ? null : node.value;
+        }
+
+        private static class Node<V> {
+            // Boxing a char below 128 doesn't allocate, and names are
+            // usually ASCII
+            private final Map<Character, Node<V>> children = new HashMap<>();
+            private V value;
+        }
+    }
+}
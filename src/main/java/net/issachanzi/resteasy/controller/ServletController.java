@@ -6,35 +6,71 @@ import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
- * A servlet to pass requests to a {@link HttpController}
+ * A servlet to pass requests for every model to the {@link HttpController}
+ * of that model
+ *
+ * <p>
+ *     Request paths are matched by a {@link Router}, compiled once from the
+ *     names of the models and their custom methods, rather than registering a
+ *     servlet for each model. Paths which don't match a model, action or
+ *     custom method get a 404 response, and invalid ids get a 400 response,
+ *     without reaching a controller.
+ * </p>
  */
 public class ServletController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    private static final String VARY_HEADER = "Vary";
+
     // https://app.example.com/api/ModelName/id/method
 
-    private HttpController controller;
+    private final Router router;
+
+    /**
+     * The size of the smallest response body to send compressed, if it has
+     * been compressed in advance, or -1 to never send compressed bodies
+     */
+    private final int gzipMinSize;
 
     /**
-     * Constructs a {@code ServletController} given a {@link HttpController}
+     * Constructs a {@code ServletController} for some models
      *
-     * @param controller The controller to pass requests to
+     * @param controllers A map with a key of each model name, with a value of
+     *                    the controller to pass requests for that model to
      */
-    public ServletController (HttpController controller) {
-        this.controller = controller;
+    public ServletController (Map<String, HttpController> controllers) {
+        this (controllers, -1);
     }
 
     /**
-     * Constructs a {@code ServletController} given a {@link Controller}
+     * Constructs a {@code ServletController} for some models, which sends
+     * response bodies already compressed by the controllers to clients which
+     * accept gzip
+     *
+     * <p>
+     *     Other responses are left to be compressed by the server's
+     *     compression handler, if there is one.
+     * </p>
      *
-     * @param controller The controller to pass requests to
+     * @param controllers A map with a key of each model name, with a value of
+     *                    the controller to pass requests for that model to
+     * @param gzipMinSize The size of the smallest response body to send
+     *                    compressed, or -1 to never send compressed bodies
      */
-    public ServletController (Controller controller) {
-        this.controller = new HttpController (controller);
+    public ServletController (
+            Map<String, HttpController> controllers,
+            int gzipMinSize
+    ) {
+        this.router = new Router(controllers);
+        this.gzipMinSize = gzipMinSize;
     }
 
     @Override
@@ -42,17 +78,36 @@ public class ServletController extends HttpServlet {
             HttpServletRequest request,
             HttpServletResponse response
     ) {
-        UUID id = getId(request);
-        Map<String, String> query = getQuery(request);
-
         var origin = request.getHeader("Origin");
         response.addHeader("Access-Control-Allow-Origin", origin);
 
+        var route = route(request, response);
+        if (route == null) {
+            return;
+        }
+        Map<String, String> query = getQuery(request);
+
         try {
             String authorization = request.getHeader("Authorization");
-            String responseContent = controller.get(id, query, authorization);
+            Response controllerResponse;
+            if (route.action() != null) {
+                controllerResponse = route.controller()
+                        .get(route.action(), query, authorization);
+            }
+            else {
+                controllerResponse = route.controller().get(
+                        route.id(),
+                        query,
+                        request.getHeader(ETags.IF_NONE_MATCH_HEADER),
+                        authorization
+                );
+            }
 
-            sendResponse(response, responseContent);
+            sendResponse(
+                    request,
+                    response,
+                    conditional(request, controllerResponse)
+            );
         } catch (HttpErrorStatus errorStatus) {
             sendError(response, errorStatus);
         }
@@ -63,19 +118,51 @@ public class ServletController extends HttpServlet {
             HttpServletRequest request,
             HttpServletResponse response
     ) {
-        UUID id = getId(request);
-        String methodName = getPathParam(request, 1);
-        String body = getBody(request);
-
         var origin = request.getHeader("Origin");
         response.addHeader("Access-Control-Allow-Origin", origin);
 
+        var route = route(request, response);
+        if (route == null) {
+            return;
+        }
+
+        if (route.action() != null) {
+            postAction(request, response, route);
+            return;
+        }
+        if (route.id() == null) {
+            postCreate(request, response, route);
+            return;
+        }
+
+        String body = getBody(request);
+
         try {
             String authorization = request.getHeader("Authorization");
-            String responseContent = controller.post(
-                    id,
-                    methodName,
+            Response controllerResponse = route.controller().post(
+                    route.id(),
+                    route.methodName(),
                     body,
+                    request.getHeader("Accept"),
+                    authorization
+            );
+
+            sendResponse(request, response, controllerResponse);
+        }
+        catch (HttpErrorStatus errorStatus) {
+            sendError(response, errorStatus);
+        }
+    }
+
+    private void postCreate(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Router.Route route
+    ) {
+        try {
+            String authorization = request.getHeader("Authorization");
+            String responseContent = route.controller().post(
+                    request.getInputStream(),
                     authorization
             );
 
@@ -84,6 +171,33 @@ public class ServletController extends HttpServlet {
         catch (HttpErrorStatus errorStatus) {
             sendError(response, errorStatus);
         }
+        catch (IOException e) {
+            response.setStatus(500);
+        }
+    }
+
+    private void postAction(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Router.Route route
+    ) {
+        try {
+            String authorization = request.getHeader("Authorization");
+            Response controllerResponse = route.controller().post(
+                    route.action(),
+                    request.getInputStream(),
+                    request.getContentType(),
+                    authorization
+            );
+
+            sendResponse(request, response, controllerResponse);
+        }
+        catch (HttpErrorStatus errorStatus) {
+            sendError(response, errorStatus);
+        }
+        catch (IOException e) {
+            response.setStatus(500);
+        }
     }
 
     @Override
@@ -91,17 +205,24 @@ public class ServletController extends HttpServlet {
             HttpServletRequest request,
             HttpServletResponse response
     ) {
-        UUID id = getId(request);
-        String body = getBody(request);
-
         var origin = request.getHeader("Origin");
         response.addHeader("Access-Control-Allow-Origin", origin);
 
+        var route = route(request, response);
+        if (route == null) {
+            return;
+        }
+        String body = getBody(request);
+
         try {
             String authorization = request.getHeader("Authorization");
-            controller.put(id, body, authorization);
+            String ifMatch = request.getHeader(ETags.IF_MATCH_HEADER);
 
-            sendResponse(response, null);
+            sendResponse(
+                    response,
+                    route.controller()
+                            .put(route.id(), body, ifMatch, authorization)
+            );
         }
         catch (HttpErrorStatus errorStatus) {
             sendError(response, errorStatus);
@@ -113,22 +234,49 @@ public class ServletController extends HttpServlet {
             HttpServletRequest request,
             HttpServletResponse response
     ) {
-        UUID id = getId(request);
-
         var origin = request.getHeader("Origin");
         response.addHeader("Access-Control-Allow-Origin", origin);
 
+        var route = route(request, response);
+        if (route == null) {
+            return;
+        }
+
         try {
             String authorization = request.getHeader("Authorization");
-            controller.delete(id, authorization);
+            String ifMatch = request.getHeader(ETags.IF_MATCH_HEADER);
 
-            sendResponse(response, null);
+            sendResponse(
+                    response,
+                    route.controller()
+                            .delete(route.id(), ifMatch, authorization)
+            );
         } catch (HttpErrorStatus errorStatus) {
             sendError(response, errorStatus);
         }
 
     }
 
+    /**
+     * Matches the path of a request, sending an error response if it doesn't
+     * match
+     *
+     * @return The matched route, or {@code null} if an error response has
+     *         been sent
+     */
+    private Router.Route route(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        var route = router.route(request.getPathInfo());
+        if (route.error() != null) {
+            sendError(response, route.error());
+            return null;
+        }
+
+        return route;
+    }
+
     @Override
     public void doOptions (
             HttpServletRequest request,
@@ -148,37 +296,203 @@ public class ServletController extends HttpServlet {
         response.setStatus(204);
     }
 
-    private static void sendError(
+    /**
+     * Sends an error status to the client, with a JSON body describing it
+     *
+     * <p>
+     *     The body is written directly, rather than with
+     *     {@link HttpServletResponse#sendError}, which would have the server
+     *     render an HTML error page. The cause of a server error is logged,
+     *     unless too many have been logged recently.
+     * </p>
+     *
+     * @param response The response to send the error status with
+     * @param errorStatus The error status to send
+     */
+    static void sendError(
             HttpServletResponse response,
             HttpErrorStatus errorStatus
     ) {
-        int statusCode = errorStatus.statusCode();
-        String message = errorStatus.getMessage();
+        ErrorLog.SHARED.log(errorStatus);
+        if (response.isCommitted()) {
+            return;
+        }
 
+        byte[] body = errorStatus.body();
+        response.resetBuffer();
+        response.setStatus(errorStatus.statusCode());
+        response.setContentType("application/json");
+        response.setContentLength(body.length);
         try {
-            response.sendError(statusCode, message);
+            response.getOutputStream().write(body);
         } catch (IOException e) {
-            response.setStatus(500);
+            // The client has gone, so there is no one to tell
         }
     }
 
+    /**
+     * Tags a response to a GET request with an entity tag, replacing it with
+     * a {@code 304 Not Modified} response if the client already has a copy
+     * with the same tag
+     *
+     * <p>
+     *     Responses which don't already have an entity tag are given one made
+     *     from their body. Streamed responses are left as they are, since
+     *     their body isn't known until it has been sent.
+     * </p>
+     *
+     * <p>
+     *     If the body will be sent compressed, it is given the entity tag of
+     *     the compressed body instead. Responses which have a compressed
+     *     body vary by {@code Accept-Encoding}, whichever body is sent.
+     * </p>
+     */
+    private Response conditional(
+            HttpServletRequest request,
+            Response controllerResponse
+    ) {
+        byte[] body = controllerResponse.bodyBytes();
+        if (controllerResponse.statusCode() != 200 || body == null) {
+            return controllerResponse;
+        }
+
+        String etag = controllerResponse.headers().get(ETags.ETAG_HEADER);
+        if (etag == null) {
+            etag = ETags.of(body);
+        }
+        if (acceptsGzipped(request, controllerResponse)) {
+            etag = ETags.gzipped(etag);
+        }
+        controllerResponse.addHeader(ETags.ETAG_HEADER, etag);
+
+        if (controllerResponse.gzippedBody() != null) {
+            controllerResponse.addHeader(VARY_HEADER, ACCEPT_ENCODING_HEADER);
+        }
+
+        var ifNoneMatch = request.getHeader(ETags.IF_NONE_MATCH_HEADER);
+        if (ETags.matchesAny(ifNoneMatch, etag)) {
+            var notModified = new Response(304, (byte[]) null);
+            for (var header : controllerResponse.headers().entrySet()) {
+                notModified.addHeader(header.getKey(), header.getValue());
+            }
+
+            return notModified;
+        }
+
+        return controllerResponse;
+    }
+
     private void sendResponse(
+            HttpServletRequest request,
             HttpServletResponse response,
-            String responseContent
+            Response controllerResponse
     ) {
-        try {
-            if(responseContent != null && !responseContent.isEmpty()) {
-                response.setStatus(200);
-                response.getOutputStream().print(responseContent);
+        if (controllerResponse.bodyWriter() == null) {
+            if (acceptsGzipped(request, controllerResponse)) {
+                sendGzipped(response, controllerResponse);
             }
             else {
-                response.setStatus(204); // No content
+                sendResponse(response, controllerResponse);
             }
+            return;
+        }
+
+        setHeaders(response, controllerResponse);
+        response.setStatus(controllerResponse.statusCode());
+
+        try (controllerResponse) {
+            OutputStream out = response.getOutputStream();
+
+            controllerResponse.bodyWriter().write(out);
+            out.close();
+        } catch (IOException | RuntimeException e) {
+            // The status can't be changed once the body has started
+            ErrorLog.SHARED.log(e);
+            if (!response.isCommitted()) {
+                response.setStatus(500);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a response body compressed in advance should be sent
+     * instead of the uncompressed body
+     */
+    private boolean acceptsGzipped(
+            HttpServletRequest request,
+            Response controllerResponse
+    ) {
+        var acceptEncoding = request.getHeader(ACCEPT_ENCODING_HEADER);
+
+        return gzipMinSize >= 0
+                && controllerResponse.statusCode() == 200
+                && controllerResponse.gzippedBody() != null
+                && controllerResponse.bodyBytes().length >= gzipMinSize
+                && QualityValues.accepts(acceptEncoding, "gzip");
+    }
+
+    private void sendGzipped(
+            HttpServletResponse response,
+            Response controllerResponse
+    ) {
+        setHeaders(response, controllerResponse);
+        // The compression handler leaves bodies with an encoding as they are
+        response.setHeader("Content-Encoding", "gzip");
+        response.setHeader(VARY_HEADER, ACCEPT_ENCODING_HEADER);
+
+        try {
+            byte[] body = controllerResponse.gzippedBody().get();
+
+            response.setStatus(controllerResponse.statusCode());
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
         } catch (IOException e) {
             response.setStatus(500);
         }
     }
 
+    private static void setHeaders(
+            HttpServletResponse response,
+            Response controllerResponse
+    ) {
+        for (var header : controllerResponse.headers().entrySet()) {
+            response.setHeader(header.getKey(), header.getValue());
+        }
+        if (!controllerResponse.headers().isEmpty()) {
+            // Allow browser clients to read the headers
+            response.setHeader(
+                    "Access-Control-Expose-Headers",
+                    String.join(", ", controllerResponse.headers().keySet())
+            );
+        }
+    }
+
+    private void sendResponse(
+            HttpServletResponse response,
+            Response controllerResponse
+    ) {
+        setHeaders(response, controllerResponse);
+
+        try {
+            response.setStatus(controllerResponse.statusCode());
+
+            byte[] body = controllerResponse.bodyBytes();
+            if (controllerResponse.statusCode() != 204 && body != null) {
+                response.setContentLength(body.length);
+                response.getOutputStream().write(body);
+            }
+        } catch (IOException e) {
+            response.setStatus(500);
+        }
+    }
+
+    private void sendResponse(
+            HttpServletResponse response,
+            String responseContent
+    ) {
+        sendResponse(response, new Response(responseContent));
+    }
+
     private String getBody(HttpServletRequest request) {
         try {
             var stream = request.getInputStream();
@@ -192,33 +506,27 @@ public class ServletController extends HttpServlet {
         }
     }
 
-    private String getPathParam(HttpServletRequest request, int index) {
-        String pathInfo = request.getPathInfo();
-        if(pathInfo == null) {
-            return null;
-        }
-
-        String[] path = pathInfo.split("/");
-        if(path.length < index + 1) {
-            return null;
-        }
-
-        return path[index + 1];
+    private Map<String, String> getQuery(HttpServletRequest request) {
+        return parseQuery(request.getQueryString());
     }
 
-    private UUID getId(HttpServletRequest request) {
-        String uuid = getPathParam(request, 0);
-
-        if (uuid == null) {
-            return null;
-        }
-        else {
-            return UUID.fromString(uuid);
+    private static String decode(String component) {
+        try {
+            return URLDecoder.decode(component, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            // Malformed escape sequences are left as they are
+            return component;
         }
     }
 
-    private Map<String, String> getQuery(HttpServletRequest request) {
-        String queryString = request.getQueryString();
+    /**
+     * Parses a query string into a map of query parameters
+     *
+     * @param queryString The query string, or {@code null} if there is none
+     * @return A map of query parameters, or {@code null} if
+     *         {@code queryString} is {@code null}
+     */
+    static Map<String, String> parseQuery(String queryString) {
         if(queryString == null) {
             return null;
         }
@@ -227,10 +535,10 @@ public class ServletController extends HttpServlet {
         String[] queries = queryString.split("&");
         for (String query : queries) {
             if (query.contains("=")) {
-                String[] splitQuery = query.split("=");
+                String[] splitQuery = query.split("=", 2);
 
-                String key = splitQuery[0];
-                String value = splitQuery[1];
+                String key = decode(splitQuery[0]);
+                String value = decode(splitQuery[1]);
 
                 result.put(key, value);
             }
@@ -4,13 +4,22 @@ package net.issachanzi.resteasy.controller.exception;
  * The 400 Bad Request HTTP error status
  */
 public class BadRequest extends HttpErrorStatus {
+    private static final long serialVersionUID = 1L;
+
     private static final int STATUS_CODE = 400;
+    public static final String DEFAULT_MESSAGE = "Bad request";
+
+    /**
+     * A shared {@code BadRequest} with the default message, which can be thrown
+     * without allocating a new exception
+     */
+    public static final BadRequest INSTANCE = new BadRequest();
 
     /**
      * Constructs a {@code BadRequest} with default message
      */
     public BadRequest() {
-        super(STATUS_CODE, "Bad request");
+        super(STATUS_CODE, DEFAULT_MESSAGE);
     }
 
     /**
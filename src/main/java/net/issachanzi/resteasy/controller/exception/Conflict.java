@@ -4,6 +4,8 @@ package net.issachanzi.resteasy.controller.exception;
  * The 409 Conflict HTTP error status
  */
 public class Conflict extends HttpErrorStatus {
+    private static final long serialVersionUID = 1L;
+
     private static final int STATUS_CODE = 409;
     private static final String DEFAULT_MESSAGE = "Conflict";
 
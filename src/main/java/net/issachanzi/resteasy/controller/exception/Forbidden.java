@@ -4,9 +4,17 @@ package net.issachanzi.resteasy.controller.exception;
  * The 403 Forbidden HTTP error status
  */
 public class Forbidden extends HttpErrorStatus {
+    private static final long serialVersionUID = 1L;
+
     private static final int STATUS_CODE = 403;
     public static final String DEFAULT_MESSAGE = "Forbidden";
 
+    /**
+     * A shared {@code Forbidden} with the default message, which can be thrown
+     * without allocating a new exception
+     */
+    public static final Forbidden INSTANCE = new Forbidden();
+
     /**
      * Constructs a {@code Forbidden} with default message
      */
@@ -1,9 +1,23 @@
 package net.issachanzi.resteasy.controller.exception;
 
+import jakarta.json.Json;
+
+import java.nio.charset.StandardCharsets;
+
 /**
  * An error in an HTTP request, as represented by a 4xx or 5xx status code
+ *
+ * <p>
+ *     These are thrown for every rejected request, so unless
+ *     {@code writableStackTrace} is passed, they don't capture a stack trace.
+ *     The stack trace of their cause, if any, is still captured. Errors with
+ *     no cause are immutable, so a single instance, such as
+ *     {@link NotFound#INSTANCE}, can be thrown for every request.
+ * </p>
  */
 public abstract class HttpErrorStatus extends Exception {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The status code to return to the client
      *
@@ -16,13 +30,15 @@ public abstract class HttpErrorStatus extends Exception {
      */
     protected int statusCode;
 
+    private volatile byte[] body;
+
     /**
      * Constructs a {@code HttpErrorStatus} with no message
      *
      * @param statusCode The status code to return to the client
      */
     public HttpErrorStatus(int statusCode) {
-        this.statusCode = statusCode;
+        this(statusCode, null, null, false, false);
     }
 
     /**
@@ -32,8 +48,7 @@ public abstract class HttpErrorStatus extends Exception {
      * @param message The custom message to use
      */
     public HttpErrorStatus(int statusCode, String message) {
-        super(message);
-        this.statusCode = statusCode;
+        this(statusCode, message, null, false, false);
     }
 
     /**
@@ -44,10 +59,7 @@ public abstract class HttpErrorStatus extends Exception {
      * @param cause The exception that caused this request to fail
      */
     public HttpErrorStatus(int statusCode, String message, Throwable cause) {
-        super(message, cause);
-        this.statusCode = statusCode;
-
-        cause.printStackTrace();
+        this(statusCode, message, cause, false, false);
     }
 
     /**
@@ -57,10 +69,13 @@ public abstract class HttpErrorStatus extends Exception {
      * @param cause The exception that caused this request to fail
      */
     public HttpErrorStatus(int statusCode, Throwable cause) {
-        super(cause);
-        this.statusCode = statusCode;
-
-        cause.printStackTrace();
+        this(
+                statusCode,
+                cause == null ? null : cause.toString(),
+                cause,
+                false,
+                false
+        );
     }
 
     /**
@@ -81,11 +96,36 @@ public abstract class HttpErrorStatus extends Exception {
     ) {
         super(message, cause, enableSuppression, writableStackTrace);
         this.statusCode = statusCode;
-
-        cause.printStackTrace();
     }
 
     public int statusCode() {
         return this.statusCode;
     }
+
+    /**
+     * Gets the body of the response to send to the client, such as
+     * {@code {"status":404,"error":"Not found"}}
+     *
+     * <p>
+     *     The body is only rendered once, so shared instances are not
+     *     rendered again for every request.
+     * </p>
+     *
+     * @return The UTF-8 encoded JSON object
+     */
+    public byte[] body() {
+        byte[] result = body;
+        if (result == null) {
+            var json = Json.createObjectBuilder()
+                    .add("status", statusCode);
+            if (getMessage() != null) {
+                json.add("error", getMessage());
+            }
+
+            result = json.build().toString().getBytes(StandardCharsets.UTF_8);
+            body = result;
+        }
+
+        return result;
+    }
 }
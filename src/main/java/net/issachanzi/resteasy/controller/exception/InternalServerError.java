@@ -4,9 +4,18 @@ package net.issachanzi.resteasy.controller.exception;
  * The 500 Internal Server Error HTTP error status
  */
 public class InternalServerError extends HttpErrorStatus {
+    private static final long serialVersionUID = 1L;
+
     private static final int STATUS_CODE = 500;
     private static final String DEFAULT_MESSAGE = "Internal server error";
 
+    /**
+     * A shared {@code InternalServerError} with the default message, which
+     * can be thrown without allocating a new exception
+     */
+    public static final InternalServerError INSTANCE
+            = new InternalServerError();
+
     /**
      * Constructs an {@code InternalServerError} with default message
      */
@@ -4,9 +4,17 @@ package net.issachanzi.resteasy.controller.exception;
  * The 404 Not Found HTTP error status
  */
 public class NotFound extends HttpErrorStatus {
+    private static final long serialVersionUID = 1L;
+
     private static final int STATUS_CODE = 404;
     public static final String DEFAULT_MESSAGE = "Not found";
 
+    /**
+     * A shared {@code NotFound} with the default message, which can be thrown
+     * without allocating a new exception
+     */
+    public static final NotFound INSTANCE = new NotFound();
+
 
     /**
      * Constructs a {@code NotFound} with default message
@@ -0,0 +1,69 @@
+package net.issachanzi.resteasy.controller.exception;
+
+/**
+ * The 503 Service Unavailable HTTP error status
+ */
+public class ServiceUnavailable extends HttpErrorStatus {
+    private static final long serialVersionUID = 1L;
+
+    private static final int STATUS_CODE = 503;
+    private static final String DEFAULT_MESSAGE = "Service unavailable";
+
+    /**
+     * Constructs a {@code ServiceUnavailable} with default message
+     */
+    public ServiceUnavailable() {
+        this(DEFAULT_MESSAGE);
+    }
+
+    /**
+     * Constructs a {@code ServiceUnavailable} with a custom message
+     *
+     * @param message The custom message to use
+     */
+    public ServiceUnavailable(String message) {
+        super(STATUS_CODE, message);
+    }
+
+    /**
+     * Constructs a {@code ServiceUnavailable} with a custom message and cause
+     *
+     * @param message The custom message to use
+     * @param cause The exception that caused this request to fail
+     */
+    public ServiceUnavailable(String message, Throwable cause) {
+        super(STATUS_CODE, message, cause);
+    }
+
+    /**
+     * Constructs a {@code ServiceUnavailable} with a given cause
+     *
+     * @param cause The exception that caused this request to fail
+     */
+    public ServiceUnavailable(Throwable cause) {
+        this(DEFAULT_MESSAGE, cause);
+    }
+
+    /**
+     * Constructs a {@code ServiceUnavailable} with a custom message and cause
+     *
+     * @param message The custom message to use
+     * @param cause The exception that caused this request to fail
+     * @param enableSuppression Whether suppression is enabled
+     * @param writableStackTrace Whether the stack trace should be writable
+     */
+    public ServiceUnavailable(
+        String message,
+        Throwable cause,
+        boolean enableSuppression,
+        boolean writableStackTrace
+    ) {
+        super(
+            STATUS_CODE,
+            message,
+            cause,
+            enableSuppression,
+            writableStackTrace
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package net.issachanzi.resteasy.model;
+
+/**
+ * An aggregate function computed by the database over the rows of a model's
+ * table
+ */
+public enum Aggregate {
+    /** The number of rows with a non-null value */
+    COUNT,
+    /** The sum of the values */
+    SUM,
+    /** The smallest value */
+    MIN,
+    /** The largest value */
+    MAX,
+    /** The mean of the values */
+    AVG;
+
+    /**
+     * Parses an aggregate function from its name, ignoring case
+     *
+     * @param name The name of the function, such as {@code sum}
+     * @return The aggregate function
+     * @throws IllegalArgumentException If there is no function with that name
+     */
+    public static Aggregate parse(String name) throws IllegalArgumentException {
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new IllegalArgumentException(
+                    "Unknown aggregate function " + name
+            );
+        }
+    }
+
+    /**
+     * Checks whether this function can be computed over values of a type
+     *
+     * @param type The type of the values
+     * @return {@code true} if the function is supported for the type,
+     *         {@code false} if it is not
+     */
+    boolean supports(Class<?> type) {
+        return switch (this) {
+            case SUM, AVG -> type == int.class || type == Integer.class
+                    || type == long.class || type == Long.class
+                    || type == float.class || type == Float.class
+                    || type == double.class || type == Double.class;
+            default -> true;
+        };
+    }
+}
@@ -1,11 +1,21 @@
 package net.issachanzi.resteasy.model;
 
+import jakarta.json.Json;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A data access object for a table representing an EasyModel class
@@ -93,6 +103,119 @@ public class BasicDao {
             .orElseThrow(NoSuchElementException::new);
     }
 
+    /**
+     * Executes a query to select multiple rows by their id columns in a single
+     * round trip
+     *
+     * <p>
+     *     Rows are returned in no particular order. Ids that do not match a
+     *     row are ignored.
+     * </p>
+     *
+     * @param ids The ids of the rows to select
+     * @return  The selected rows in a Collection. Each row is returned as a
+     *          Map containing a key of each column name with the value of
+     *          that column's value.
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public Collection<Map<String, Object>> select (
+            Collection<UUID> ids
+    ) throws SQLException {
+        return this.select(ids, columnTypes.keySet());
+    }
+
+    /**
+     * Executes a query to select some columns of multiple rows by their id
+     * columns in a single round trip
+     *
+     * @param ids The ids of the rows to select
+     * @param columns The names of the columns to select
+     * @return  The selected rows in a Collection. Each row is returned as a
+     *          Map containing a key of each selected column name with the
+     *          value of that column's value.
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public Collection<Map<String, Object>> select (
+            Collection<UUID> ids,
+            Collection<String> columns
+    ) throws SQLException {
+        if (ids.isEmpty()) {
+            return new LinkedList<>();
+        }
+
+        String whereSql = "id = ANY (?)";
+        var params = new Object[] {idArray(db, ids)};
+
+        return this.where(whereSql, params, columns);
+    }
+
+    /**
+     * Executes a query to select some columns of multiple rows by their id
+     * columns in a single round trip, converting each row with a
+     * {@link RowMapper}
+     *
+     * @param ids The ids of the rows to select
+     * @param columns The names of the columns to select
+     * @param mapper Converts each row. The columns are in the order given by
+     *               {@link #selectedColumns(Collection)}.
+     * @return The converted rows, in no particular order
+     * @param <T> The type to convert rows to
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public <T> List<T> select (
+            Collection<UUID> ids,
+            Collection<String> columns,
+            RowMapper<T> mapper
+    ) throws SQLException {
+        return select(ids, Filter.NONE, columns, mapper);
+    }
+
+    /**
+     * Executes a query to select some columns of the rows with certain ids
+     * which also match a {@link Filter}, in a single round trip, converting
+     * each row with a {@link RowMapper}
+     *
+     * @param ids The ids of the rows to select
+     * @param filter The conditions rows must also match, and the order to
+     *               sort them in
+     * @param columns The names of the columns to select
+     * @param mapper Converts each row. The columns are in the order given by
+     *               {@link #selectedColumns(Collection)}.
+     * @return The converted rows, in the filter's order, or in no particular
+     *         order if it has none
+     * @param <T> The type to convert rows to
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public <T> List<T> select (
+            Collection<UUID> ids,
+            Filter filter,
+            Collection<String> columns,
+            RowMapper<T> mapper
+    ) throws SQLException {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object> params = new ArrayList<>();
+        params.add(idArray(db, ids));
+        String whereSql = "id = ANY (?)";
+        if (!filter.conditions().isEmpty()) {
+            whereSql += " AND (" + whereSql(filter, params) + ")";
+        }
+
+        return select(
+                whereSql,
+                params.toArray(),
+                orderSql(filter),
+                columns,
+                mapper
+        );
+    }
+
     /**
      * Executes a query to select rows from this table by the values of certain
      * columns.
@@ -114,18 +237,79 @@ public class BasicDao {
     public Collection<Map<String, Object>> where (
             Map<String, Object> filter
     ) throws SQLException {
-        List<String> columns = filter
-                .keySet()
-                .stream()
-                .toList();
-        String whereSql = mapJoin(
-                columns,
-                colName -> escape (colName) + " = ?",
-                " AND "
-        );
-        Object[] params = map(columns, filter::get).toArray();
+        return where(filter, columnTypes.keySet());
+    }
 
-        return where(whereSql, params);
+    /**
+     * Executes a query to select some columns of rows from this table by the
+     * values of certain columns.
+     *
+     * @param filter A map containing a key of the name of each column to
+     *               filter on, with the value that must match for a row to be
+     *               selected
+     * @param columns The names of the columns to select
+     * @return  Selected rows in a Collection. Each row is returned as a Map
+     *          containing a key of each selected column name with the value
+     *          of that column's value.
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public Collection<Map<String, Object>> where (
+            Map<String, Object> filter,
+            Collection<String> columns
+    ) throws SQLException {
+        return where(Filter.equal(filter), columns);
+    }
+
+    /**
+     * Executes a query to select some columns of rows from this table which
+     * match a {@link Filter}, sorted by the filter's order.
+     *
+     * @param filter The conditions rows must match, and the order to sort
+     *               them in
+     * @param columns The names of the columns to select
+     * @return  Selected rows in a Collection. Each row is returned as a Map
+     *          containing a key of each selected column name with the value
+     *          of that column's value.
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public Collection<Map<String, Object>> where (
+            Filter filter,
+            Collection<String> columns
+    ) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String whereSql = whereSql(filter, params);
+        String orderSql = orderSql(filter);
+
+        return select(whereSql, params.toArray(), orderSql, columns);
+    }
+
+    /**
+     * Executes a query to select some columns of rows from this table which
+     * match a {@link Filter}, sorted by the filter's order, converting each
+     * row with a {@link RowMapper}
+     *
+     * @param filter The conditions rows must match, and the order to sort
+     *               them in
+     * @param columns The names of the columns to select
+     * @param mapper Converts each row. The columns are in the order given by
+     *               {@link #selectedColumns(Collection)}.
+     * @return The converted rows
+     * @param <T> The type to convert rows to
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public <T> List<T> where (
+            Filter filter,
+            Collection<String> columns,
+            RowMapper<T> mapper
+    ) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String whereSql = whereSql(filter, params);
+        String orderSql = orderSql(filter);
+
+        return select(whereSql, params.toArray(), orderSql, columns, mapper);
     }
 
     /**
@@ -157,26 +341,581 @@ public class BasicDao {
             String whereSql,
             Object[] params
     ) throws SQLException {
-        String sql = "SELECT * FROM " + tableName + " WHERE " + whereSql + ";";
+        return where(whereSql, params, columnTypes.keySet());
+    }
+
+    /**
+     * Executes a query to select some columns of rows from this table based
+     * on an arbitrary SQL {@code WHERE} clause
+     *
+     * <p>
+     *     <b>Never</b> interpolate user input or untrusted data of any kind
+     *     into SQL queries (such as the {@code whereSql} param). Always use
+     *     parameterised queries, which should be hard coded wherever possible.
+     *</p>
+     *
+     * @param whereSql The SQL {@code WHERE} clause. {@code ?} characters can
+     *                 be used for parameter placeholders. This parameter must
+     *                 never contain untrusted data such as user input.
+     * @param columns The names of the columns to select. The {@code id}
+     *                column is always selected.
+     * @return  Selected rows in a Collection. Each row is returned as a Map
+     *          containing a key of each selected column name with the value
+     *          of that column's value.
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public Collection<Map<String, Object>> where (
+            String whereSql,
+            Object[] params,
+            Collection<String> columns
+    ) throws SQLException {
+        return select(whereSql, params, null, columns);
+    }
+
+    private Collection<Map<String, Object>> select (
+            String whereSql,
+            Object[] params,
+            String orderSql,
+            Collection<String> columns
+    ) throws SQLException {
+        List<String> selected = selectedColumns(columns);
+
+        return select(
+                whereSql,
+                params,
+                orderSql,
+                columns,
+                rs -> readRow(rs, selected)
+        );
+    }
+
+    private <T> List<T> select (
+            String whereSql,
+            Object[] params,
+            String orderSql,
+            Collection<String> columns,
+            RowMapper<T> mapper
+    ) throws SQLException {
+        PreparedStatement query = prepareSelect(
+                whereSql,
+                params,
+                orderSql,
+                selectedColumns(columns)
+        );
+
+        List<T> results = new ArrayList<>();
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                results.add(mapper.map(rs));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Executes a query to select some columns of the rows in this table which
+     * match a {@link Filter}, reading them from the database in batches as
+     * they are consumed
+     *
+     * <p>
+     *     Unlike {@link #where(Filter, Collection)}, the rows are not all held
+     *     in memory at once. Each batch is read by a separate query, which
+     *     continues after the last row of the previous batch, so no cursor or
+     *     transaction is held open between batches. Each query is run while
+     *     holding the lock of the connection, which is free for other users
+     *     in between.
+     * </p>
+     *
+     * <p>
+     *     As the batches are separate queries, the rows are not a consistent
+     *     snapshot: rows changed while the stream is read may or may not be
+     *     included. The rows are always sorted by the filter's order, then by
+     *     id.
+     * </p>
+     *
+     * @param filter The conditions rows must match to be selected
+     * @param columns The names of the columns to select. The {@code id}
+     *                column is always selected.
+     * @param fetchSize The number of rows to read from the database at a time
+     * @return A stream of the selected rows, sorted by the filter's order.
+     *         Each row is a Map containing a key of each selected column name
+     *         with the value of that column's value.
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public Stream<Map<String, Object>> stream (
+            Filter filter,
+            Collection<String> columns,
+            int fetchSize
+    ) throws SQLException {
+        List<String> selected = selectedColumns(columns);
+
+        return stream(filter, columns, fetchSize, rs -> readRow(rs, selected));
+    }
+
+    /**
+     * Executes a query to select some columns of the rows in this table which
+     * match a {@link Filter}, reading them from the database in batches as
+     * they are consumed, and converting each row with a {@link RowMapper}
+     *
+     * <p>
+     *     The rows are read as described for
+     *     {@link #stream(Filter, Collection, int)}.
+     * </p>
+     *
+     * @param filter The conditions rows must match to be selected
+     * @param columns The names of the columns to select
+     * @param fetchSize The number of rows to read from the database at a time
+     * @param mapper Converts each row. The columns are in the order given by
+     *               {@link #selectedColumns(Collection)}.
+     * @return A stream of the converted rows, sorted by the filter's order
+     * @param <T> The type to convert rows to
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public <T> Stream<T> stream (
+            Filter filter,
+            Collection<String> columns,
+            int fetchSize,
+            RowMapper<T> mapper
+    ) throws SQLException {
+        // Rows are sorted by id last, so each row has a unique position to
+        // continue after
+        List<Filter.Order> keys = new ArrayList<>(filter.order());
+        if (keys.stream().noneMatch(key -> key.column().equals("id"))) {
+            keys.add(new Filter.Order("id", false));
+        }
+        String orderSql = orderSql(new Filter(filter.conditions(), keys));
+
+        // Sort keys which aren't selected are queried after the selected
+        // columns, so the mapper doesn't see them
+        List<String> queried = new ArrayList<>(selectedColumns(columns));
+        int[] keyIndexes = new int[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            String column = keys.get(i).column();
+            if (!queried.contains(column)) {
+                queried.add(column);
+            }
+            keyIndexes[i] = queried.indexOf(column) + 1;
+        }
+
+        Iterator<T> rows = new Iterator<>() {
+            private Iterator<T> batch = Collections.emptyIterator();
+            private Object[] lastKey = null;
+            private boolean done = false;
+
+            @Override
+            public boolean hasNext() {
+                if (!batch.hasNext() && !done) {
+                    try {
+                        batch = nextBatch();
+                    } catch (SQLException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+
+                return batch.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return batch.next();
+            }
+
+            private Iterator<T> nextBatch() throws SQLException {
+                List<Object> params = new ArrayList<>();
+                String whereSql = whereSql(filter, params);
+                if (lastKey != null) {
+                    whereSql = "(" + whereSql + ") AND ("
+                            + afterSql(keys, lastKey, params) + ")";
+                }
+
+                List<T> results = new ArrayList<>(fetchSize);
+                synchronized (db) {
+                    PreparedStatement query = prepareSelect(
+                            whereSql,
+                            params.toArray(),
+                            orderSql,
+                            queried,
+                            fetchSize
+                    );
+
+                    try (query; ResultSet rs = query.executeQuery()) {
+                        while (rs.next()) {
+                            results.add(mapper.map(rs));
+
+                            lastKey = new Object[keyIndexes.length];
+                            for (int i = 0; i < keyIndexes.length; i++) {
+                                lastKey[i] = rs.getObject(keyIndexes[i]);
+                            }
+                        }
+                    }
+                }
+
+                done = results.size() < fetchSize;
+                return results.iterator();
+            }
+        };
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED),
+                false
+        );
+    }
+
+    /**
+     * Builds a condition selecting the rows which come after a given row, in
+     * the order of some sort keys
+     *
+     * <p>
+     *     As in PostgreSQL's default order, {@code NULL} comes after every
+     *     other value.
+     * </p>
+     *
+     * @param keys The columns the rows are sorted by
+     * @param row The values of the sort keys in the given row
+     * @param params The list to add the values of the parameters to
+     */
+    private static String afterSql (
+            List<Filter.Order> keys,
+            Object[] row,
+            List<Object> params
+    ) {
+        List<String> alternatives = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            boolean descending = keys.get(i).descending();
+            if (row[i] == null && !descending) {
+                // Nothing comes after NULL
+                continue;
+            }
+
+            List<String> clauses = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                String column = escape(keys.get(j).column());
+                if (row[j] == null) {
+                    clauses.add(column + " IS NULL");
+                }
+                else {
+                    clauses.add(column + " = ?");
+                    params.add(row[j]);
+                }
+            }
+
+            String column = escape(keys.get(i).column());
+            if (row[i] == null) {
+                clauses.add(column + " IS NOT NULL");
+            }
+            else if (descending) {
+                clauses.add(column + " < ?");
+                params.add(row[i]);
+            }
+            else {
+                clauses.add("(" + column + " > ? OR " + column + " IS NULL)");
+                params.add(row[i]);
+            }
+
+            alternatives.add("(" + String.join(" AND ", clauses) + ")");
+        }
+
+        if (alternatives.isEmpty()) {
+            return "FALSE";
+        }
+
+        return String.join(" OR ", alternatives);
+    }
+
+    /**
+     * Gets the columns selected by queries for some columns of this table,
+     * in the order they appear in each row
+     *
+     * @param columns The names of the columns requested
+     * @return The {@code id} column, followed by each other requested column
+     */
+    public static List<String> selectedColumns (Collection<String> columns) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        selected.addAll(columns);
+
+        return List.copyOf(selected);
+    }
+
+    private PreparedStatement prepareSelect (
+            String whereSql,
+            Object[] params,
+            String orderSql,
+            List<String> selected
+    ) throws SQLException {
+        return prepareSelect(whereSql, params, orderSql, selected, 0);
+    }
+
+    private PreparedStatement prepareSelect (
+            String whereSql,
+            Object[] params,
+            String orderSql,
+            List<String> selected,
+            int limit
+    ) throws SQLException {
+        String columnsSql = mapJoin(selected, BasicDao::escape, ", ");
+        String sql  = "SELECT " + columnsSql + " FROM " + tableName + " "
+                    + "WHERE " + whereSql
+                    + (orderSql != null ? " ORDER BY " + orderSql : "")
+                    + (limit > 0 ? " LIMIT " + limit : "")
+                    + ";";
         PreparedStatement query = db.prepareStatement(sql);
         for (int i = 0; i < params.length; i++) {
             query.setObject(i + 1, params[i]);
         }
 
         System.out.println(sql);
-        ResultSet rs = query.executeQuery();
-        Collection<Map<String, Object>> results = new LinkedList<>();
-        while (rs.next()) {
-            Map<String, Object> resultMap = new HashMap<>();
-            for (var colName : columnTypes.keySet()) {
-                resultMap.put(colName, rs.getObject(colName));
+        return query;
+    }
+
+    private static Map<String, Object> readRow (
+            ResultSet rs,
+            List<String> selected
+    ) throws SQLException {
+        Map<String, Object> resultMap = new HashMap<>();
+        for (int i = 0; i < selected.size(); i++) {
+            resultMap.put(selected.get(i), rs.getObject(i + 1));
+        }
+
+        return resultMap;
+    }
+
+    /**
+     * Converts a row of a {@link ResultSet} to an object
+     *
+     * @param <T> The type to convert rows to
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        /**
+         * Converts the current row of a result set
+         *
+         * @param rs The result set, positioned at the row to convert
+         * @return The converted row
+         * @throws SQLException If reading the row fails
+         */
+        T map (ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Executes a query to count the rows in this table which match a
+     * {@link Filter}
+     *
+     * @param filter The conditions rows must match to be counted
+     * @return The number of matching rows
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public long count (Filter filter) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql  = "SELECT COUNT(*) FROM " + tableName + " "
+                    + "WHERE " + whereSql(filter, params) + ";";
+
+        PreparedStatement query = db.prepareStatement(sql);
+        for (int i = 0; i < params.size(); i++) {
+            query.setObject(i + 1, params.get(i));
+        }
+
+        System.out.println(sql);
+        try (ResultSet rs = query.executeQuery()) {
+            rs.next();
+
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Estimates the number of rows in this table which match a
+     * {@link Filter}, from PostgreSQL's statistics rather than by scanning
+     * the table
+     *
+     * <p>
+     *     With no conditions, the estimate is read from {@code pg_class}.
+     *     Otherwise, or if the table has never been analysed, it is the
+     *     number of rows the query planner expects the filter to match.
+     * </p>
+     *
+     * @param filter The conditions rows must match to be counted
+     * @return The estimated number of matching rows
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public long estimateCount (Filter filter) throws SQLException {
+        if (filter.conditions().isEmpty()) {
+            String sql  = "SELECT reltuples::bigint FROM pg_class "
+                        + "WHERE oid = to_regclass(?);";
+
+            PreparedStatement query = db.prepareStatement(sql);
+            query.setString(1, tableName);
+
+            System.out.println(sql);
+            try (ResultSet rs = query.executeQuery()) {
+                // reltuples is -1 if the table has never been analysed
+                if (rs.next() && rs.getLong(1) >= 0) {
+                    return rs.getLong(1);
+                }
+            }
+        }
+
+        List<Object> params = new ArrayList<>();
+        String sql  = "EXPLAIN (FORMAT JSON) SELECT 1 FROM " + tableName + " "
+                    + "WHERE " + whereSql(filter, params) + ";";
+
+        PreparedStatement query = db.prepareStatement(sql);
+        for (int i = 0; i < params.size(); i++) {
+            query.setObject(i + 1, params.get(i));
+        }
+
+        System.out.println(sql);
+        try (ResultSet rs = query.executeQuery()) {
+            rs.next();
+
+            var plan = Json.createReader(new StringReader(rs.getString(1)))
+                    .readArray()
+                    .getJsonObject(0)
+                    .getJsonObject("Plan");
+
+            return plan.getJsonNumber("Plan Rows").longValue();
+        }
+    }
+
+    /**
+     * Executes a query to compute an aggregate function over a column of the
+     * rows in this table which match a {@link Filter}, optionally grouped by
+     * another column
+     *
+     * @param function The aggregate function to compute
+     * @param column The name of the column to compute the function over, or
+     *               {@code null} to count rows
+     * @param groupColumn The name of the column to group rows by, or
+     *                    {@code null} to aggregate all matching rows together
+     * @param filter The conditions rows must match to be aggregated
+     * @return A row for each group, as a Map containing a key of the group
+     *         column name with the value of the group, and a key of
+     *         {@code value} with the value of the aggregate function. If
+     *         {@code groupColumn} is {@code null}, a single row with only the
+     *         {@code value} key.
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public List<Map<String, Object>> aggregate (
+            Aggregate function,
+            String column,
+            String groupColumn,
+            Filter filter
+    ) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String valueSql = function.name() + "("
+                        + (column != null ? escape(column) : "*")
+                        + ") AS value";
+        String sql;
+        if (groupColumn != null) {
+            sql = "SELECT " + escape(groupColumn) + ", " + valueSql + " "
+                + "FROM " + tableName + " "
+                + "WHERE " + whereSql(filter, params) + " "
+                + "GROUP BY " + escape(groupColumn) + " "
+                + "ORDER BY " + escape(groupColumn) + ";";
+        }
+        else {
+            sql = "SELECT " + valueSql + " "
+                + "FROM " + tableName + " "
+                + "WHERE " + whereSql(filter, params) + ";";
+        }
+
+        PreparedStatement query = db.prepareStatement(sql);
+        for (int i = 0; i < params.size(); i++) {
+            query.setObject(i + 1, params.get(i));
+        }
+
+        System.out.println(sql);
+        List<Map<String, Object>> results = new ArrayList<>();
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                Map<String, Object> resultMap = new HashMap<>();
+                if (groupColumn != null) {
+                    resultMap.put(groupColumn, rs.getObject(1));
+                }
+                resultMap.put("value", rs.getObject("value"));
+
+                results.add(resultMap);
             }
-            results.add(resultMap);
         }
 
         return results;
     }
 
+    /**
+     * Adds many rows to this table with a single {@code COPY} command
+     *
+     * <p>
+     *     Rows are sent to the database in CSV format as they are taken from
+     *     {@code rows}, so they are never all held in memory. If taking a row
+     *     throws an exception, the command is cancelled and no rows are
+     *     added.
+     * </p>
+     *
+     * @param columns The names of the columns to set
+     * @param rows The rows to add, each with a value for each column in the
+     *             same order as {@code columns}
+     * @return The number of rows added
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public long copyIn (
+            List<String> columns,
+            Iterator<List<Object>> rows
+    ) throws SQLException {
+        String columnsSql = mapJoin(columns, BasicDao::escape, ", ");
+        String sql  = "COPY " + tableName + " (" + columnsSql + ") "
+                    + "FROM STDIN WITH (FORMAT csv);";
+
+        CopyManager copyManager = db.unwrap(PGConnection.class).getCopyAPI();
+
+        System.out.println(sql);
+        CopyIn copy = copyManager.copyIn(sql);
+        try {
+            while (rows.hasNext()) {
+                byte[] line = csvLine(rows.next())
+                        .getBytes(StandardCharsets.UTF_8);
+                copy.writeToCopy(line, 0, line.length);
+            }
+
+            return copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static String csvLine (List<Object> values) {
+        StringBuilder line = new StringBuilder();
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+
+            // Unquoted empty values are null, so every other value is quoted
+            Object value = values.get(i);
+            if (value != null) {
+                line.append('"')
+                    .append(value.toString().replace("\"", "\"\""))
+                    .append('"');
+            }
+        }
+
+        return line.append('\n').toString();
+    }
+
     /**
      * Executes a query to add a row to this table
      *
@@ -233,6 +972,49 @@ public class BasicDao {
         query.execute();
     }
 
+    /**
+     * Executes a query to update a row in this table by its id column, only
+     * if its version column still has an expected value
+     *
+     * @param id The value of the id column for the row to update
+     * @param values The values to update in the row, as a map with keys of
+     *               column names with the value to be set in that column
+     * @param versionColumn The name of the version column
+     * @param version The expected value of the version column
+     * @return {@code true} if the row was updated, {@code false} if there is
+     *         no row with the given id and version
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public boolean update (
+            UUID id,
+            Map<String, Object> values,
+            String versionColumn,
+            long version
+    ) throws SQLException {
+        List<String> columns = values.keySet().stream().toList();
+        String setSql = mapJoin(
+                columns,
+                colName -> escape (colName) + " = ?",
+                ", "
+        );
+        // Rows inserted without a version, such as by COPY, are version 0
+        String sql  = "UPDATE " + tableName + " "
+                    + "SET " + setSql + " WHERE id = ? "
+                    + "AND COALESCE(" + escape(versionColumn) + ", 0) = ?;";
+
+        System.out.println(sql);
+        PreparedStatement query = db.prepareStatement(sql);
+        for(int i = 0; i < columns.size(); i++) {
+            var colName = columns.get(i);
+            query.setObject(i + 1, values.get(colName));
+        }
+        query.setString(columns.size() + 1, id.toString());
+        query.setLong(columns.size() + 2, version);
+
+        return query.executeUpdate() == 1;
+    }
+
     /**
      * Executes a query to delete a row from this table by its id column
      *
@@ -241,7 +1023,7 @@ public class BasicDao {
      *                      error
      */
     public void delete (UUID id) throws SQLException {
-        String sql = "DELETE FROM " + tableName + "WHERE id = ?;";
+        String sql = "DELETE FROM " + tableName + " WHERE id = ?;";
 
         PreparedStatement query = db.prepareStatement(sql);
         query.setString(1, id.toString());
@@ -249,6 +1031,115 @@ public class BasicDao {
         query.execute();
     }
 
+    /**
+     * Executes a query to delete a row from this table by its id column, only
+     * if its version column still has an expected value
+     *
+     * @param id The value of the id column for the row to delete
+     * @param versionColumn The name of the version column
+     * @param version The expected value of the version column
+     * @return {@code true} if the row was deleted, {@code false} if there is
+     *         no row with the given id and version
+     * @throws SQLException if the underlying database query encounters an
+     *                      error
+     */
+    public boolean delete (
+            UUID id,
+            String versionColumn,
+            long version
+    ) throws SQLException {
+        String sql = "DELETE FROM " + tableName + " WHERE id = ? "
+                   + "AND COALESCE(" + escape(versionColumn) + ", 0) = ?;";
+
+        System.out.println(sql);
+        PreparedStatement query = db.prepareStatement(sql);
+        query.setString(1, id.toString());
+        query.setLong(2, version);
+
+        return query.executeUpdate() == 1;
+    }
+
+    /**
+     * Compiles the conditions of a filter to a SQL {@code WHERE} clause
+     *
+     * @param filter The filter to compile
+     * @param params A list to add the values of the clause's parameter
+     *               placeholders to
+     * @return The SQL {@code WHERE} clause
+     */
+    private String whereSql(Filter filter, List<Object> params) {
+        if (filter.conditions().isEmpty()) {
+            return "TRUE";
+        }
+
+        List<String> clauses = new ArrayList<>();
+        for (var condition : filter.conditions()) {
+            String column = escape(condition.column());
+            Object value = condition.value();
+
+            String clause = switch (condition.operator()) {
+                case EQ -> column + " = ?";
+                case NE -> column + " <> ?";
+                case GT -> column + " > ?";
+                case GTE -> column + " >= ?";
+                case LT -> column + " < ?";
+                case LTE -> column + " <= ?";
+                case IN -> {
+                    var values = (List<?>) value;
+                    if (values.isEmpty()) {
+                        yield "FALSE";
+                    }
+                    params.addAll(values);
+                    yield column + " IN ("
+                            + mapJoin(values, v -> "?", ", ")
+                            + ")";
+                }
+                case PREFIX -> {
+                    params.add(escapeLike((String) value) + "%");
+                    yield column + " LIKE ? ESCAPE '\\'";
+                }
+                case NULL -> (Boolean) value
+                        ? column + " IS NULL"
+                        : column + " IS NOT NULL";
+            };
+
+            switch (condition.operator()) {
+                case IN, PREFIX, NULL -> {}
+                default -> params.add(value);
+            }
+            clauses.add(clause);
+        }
+
+        return String.join(" AND ", clauses);
+    }
+
+    /**
+     * Compiles the order of a filter to a SQL {@code ORDER BY} clause
+     *
+     * @param filter The filter to compile
+     * @return The SQL {@code ORDER BY} clause, or {@code null} if the filter
+     *         does not specify an order
+     */
+    private String orderSql(Filter filter) {
+        if (filter.order().isEmpty()) {
+            return null;
+        }
+
+        return mapJoin(
+                filter.order(),
+                order -> escape(order.column())
+                        + (order.descending() ? " DESC" : " ASC"),
+                ", "
+        );
+    }
+
+    private static String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     @FunctionalInterface
     interface MapFunc<I, O> {
 
@@ -283,6 +1174,24 @@ public class BasicDao {
 
         return mapJoin(columnNames, mapFunc, separator);
     }
+    /**
+     * Converts a collection of ids to a SQL array, for use with
+     * {@code = ANY (?)} query parameters
+     *
+     * @param db The database connection to create the array with
+     * @param ids The ids to convert
+     * @return The ids as a SQL {@code text[]} array
+     * @throws SQLException if the array cannot be created
+     */
+    public static java.sql.Array idArray (
+            Connection db,
+            Collection<UUID> ids
+    ) throws SQLException {
+        Object[] idStrings = ids.stream().map(UUID::toString).toArray();
+
+        return db.createArrayOf("text", idStrings);
+    }
+
     public static String escape(String identifier) {
         return "\"" + identifier + "\"";
     }
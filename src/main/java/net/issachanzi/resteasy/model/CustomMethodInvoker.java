@@ -0,0 +1,341 @@
+package net.issachanzi.resteasy.model;
+
+import jakarta.json.Json;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+import net.issachanzi.resteasy.model.annotation.CustomMethod;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Calls a custom method of a model with arguments taken from a request
+ *
+ * <p>
+ *     An invoker is compiled once for each custom method, and cached by its
+ *     {@link ModelType}. Each parameter gets a binder chosen from its name
+ *     and type, and the method is called through a {@link MethodHandle}, so
+ *     calling a custom method involves no reflection and no inspection of
+ *     its parameters.
+ * </p>
+ *
+ * <p>
+ *     A parameter named {@code authorization} of type {@code String} is
+ *     given the request's {@code Authorization} header, and a parameter of
+ *     type {@link Connection} is given the database connection. Every other
+ *     parameter is given the value of the same name in the request body.
+ * </p>
+ */
+public class CustomMethodInvoker {
+    private final Method method;
+    private final MethodHandle handle;
+    private final ArgumentBinder[] binders;
+    private final boolean async;
+    private final int concurrency;
+    private final long cacheTtl;
+    private final boolean takesAuthorization;
+    private final String[] bodyParams;
+
+    /**
+     * Compiles an invoker for a custom method
+     *
+     * @param method The custom method to call
+     * @throws IllegalArgumentException If the method can't be accessed, or
+     *                                  its {@link CustomMethod#concurrency()}
+     *                                  is less than 1
+     */
+    CustomMethodInvoker(Method method) {
+        this.method = method;
+
+        var annotation = method.getAnnotation(CustomMethod.class);
+        this.async = annotation != null && annotation.async();
+        this.concurrency = annotation == null ? 1 : annotation.concurrency();
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(
+                    "Custom method " + method.getName()
+                    + " must have a concurrency of at least 1"
+            );
+        }
+
+        this.cacheTtl = annotation == null
+                ? 0
+                : annotation.cacheTtl() * 1000L;
+
+        var params = method.getParameters();
+        this.binders = new ArgumentBinder[params.length];
+        for (int i = 0; i < params.length; i++) {
+            binders[i] = argumentBinder(params[i]);
+        }
+
+        this.takesAuthorization = Arrays.stream(params)
+                .anyMatch(CustomMethodInvoker::isAuthorization);
+        this.bodyParams = Arrays.stream(params)
+                .filter(param -> !isAuthorization(param)
+                        && param.getType() != Connection.class)
+                .map(Parameter::getName)
+                .toArray(String[]::new);
+
+        try {
+            method.trySetAccessible();
+            var target = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                target = MethodHandles.dropArguments(
+                        target,
+                        0,
+                        method.getDeclaringClass()
+                );
+            }
+
+            this.handle = target
+                    .asSpreader(Object[].class, params.length)
+                    .asType(MethodType.methodType(
+                            Object.class,
+                            EasyModel.class,
+                            Object[].class
+                    ));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException(
+                    "Custom method " + method.getName() + " is not accessible",
+                    ex
+            );
+        }
+    }
+
+    /**
+     * Gets the custom method this invoker calls
+     *
+     * @return The custom method
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Checks whether the custom method runs in the background, as set by
+     * {@link CustomMethod#async()}
+     *
+     * @return {@code true} if the custom method runs in the background
+     */
+    public boolean async() {
+        return async;
+    }
+
+    /**
+     * Gets the maximum number of calls to the custom method which can run in
+     * the background at once, as set by {@link CustomMethod#concurrency()}
+     *
+     * @return The maximum number of calls running at once
+     */
+    public int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Gets how long the result of the custom method is cached for, as set by
+     * {@link CustomMethod#cacheTtl()}
+     *
+     * @return The time to live of cached results in milliseconds, or 0 if
+     *         they aren't cached
+     */
+    public long cacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * Identifies a call to the custom method by its name and its arguments,
+     * so its result can be cached
+     *
+     * <p>
+     *     The arguments from the request body are written in a canonical
+     *     form, so bodies which differ only in the order of their keys, in
+     *     whitespace, or in how their numbers are written give the same
+     *     variant. The {@code Authorization} header is included only if the
+     *     custom method takes it.
+     * </p>
+     *
+     * @param authorization The request's {@code Authorization} header
+     * @param body The request body
+     * @return The variant, or {@code null} if an argument is missing
+     */
+    public String cacheVariant(String authorization, JsonObject body) {
+        var variant = new StringBuilder(method.getName());
+        if (takesAuthorization) {
+            variant.append('\n').append(authorization);
+        }
+
+        for (String name : bodyParams) {
+            var value = body.get(name);
+            if (value == null) {
+                return null;
+            }
+
+            variant.append('\n');
+            canonicalize(value, variant);
+        }
+
+        return variant.toString();
+    }
+
+    private static void canonicalize(JsonValue value, StringBuilder out) {
+        switch (value.getValueType()) {
+            case OBJECT -> {
+                var object = value.asJsonObject();
+                var names = new ArrayList<>(object.keySet());
+                Collections.sort(names);
+
+                out.append('{');
+                for (int i = 0; i < names.size(); i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    out.append(Json.createValue(names.get(i))).append(':');
+                    canonicalize(object.get(names.get(i)), out);
+                }
+                out.append('}');
+            }
+            case ARRAY -> {
+                var array = value.asJsonArray();
+
+                out.append('[');
+                for (int i = 0; i < array.size(); i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    canonicalize(array.get(i), out);
+                }
+                out.append(']');
+            }
+            case NUMBER -> out.append(
+                    ((JsonNumber) value).bigDecimalValue()
+                            .stripTrailingZeros()
+                            .toString()
+            );
+            default -> out.append(value);
+        }
+    }
+
+    private static boolean isAuthorization(Parameter param) {
+        return param.getName().equals("authorization")
+                && param.getType() == String.class;
+    }
+
+    /**
+     * Calls the custom method
+     *
+     * @param model The model instance to call the custom method on
+     * @param db The database connection, to pass to a {@link Connection}
+     *           parameter and to look up associated model instances
+     * @param authorization The request's {@code Authorization} header
+     * @param body The request body, holding the other arguments by name
+     * @return The value returned by the custom method, or {@code null} if it
+     *         returns {@code void}
+     * @throws HttpErrorStatus If an argument is missing, or the custom method
+     *                         throws an {@code HttpErrorStatus}
+     * @throws SQLException If looking up an associated model instance fails
+     * @throws InvocationTargetException If the custom method throws any other
+     *                                   exception
+     */
+    public Object invoke(
+            EasyModel model,
+            Connection db,
+            String authorization,
+            JsonObject body
+    ) throws HttpErrorStatus, SQLException, InvocationTargetException {
+        return call(model, bind(db, authorization, body));
+    }
+
+    /**
+     * Gets the arguments for a call to the custom method, so they can be
+     * checked before it is called
+     *
+     * @param db The database connection, to pass to a {@link Connection}
+     *           parameter and to look up associated model instances
+     * @param authorization The request's {@code Authorization} header
+     * @param body The request body, holding the other arguments by name
+     * @return The arguments, to pass to {@link #call(EasyModel, Object[])}
+     * @throws HttpErrorStatus If an argument is missing
+     * @throws SQLException If looking up an associated model instance fails
+     */
+    public Object[] bind(
+            Connection db,
+            String authorization,
+            JsonObject body
+    ) throws HttpErrorStatus, SQLException {
+        var args = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            args[i] = binders[i].bind(db, authorization, body);
+        }
+
+        return args;
+    }
+
+    /**
+     * Calls the custom method with arguments already bound
+     *
+     * @param model The model instance to call the custom method on
+     * @param args The arguments from {@link #bind}
+     * @return The value returned by the custom method, or {@code null} if it
+     *         returns {@code void}
+     * @throws HttpErrorStatus If the custom method throws an
+     *                         {@code HttpErrorStatus}
+     * @throws InvocationTargetException If the custom method throws any other
+     *                                   exception
+     */
+    public Object call(EasyModel model, Object[] args)
+            throws HttpErrorStatus, InvocationTargetException {
+        try {
+            return (Object) handle.invokeExact(model, args);
+        } catch (HttpErrorStatus | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    private static ArgumentBinder argumentBinder(Parameter param) {
+        String name = param.getName();
+        Class<?> type = param.getType();
+
+        if (isAuthorization(param)) {
+            return (db, authorization, body) -> authorization;
+        }
+        else if (type == Connection.class) {
+            return (db, authorization, body) -> db;
+        }
+
+        var converter = SqlDatatypes.jsonConverter(name, type);
+        return (db, authorization, body) -> {
+            if (!body.containsKey(name)) {
+                throw new BadRequest (name + " is required");
+            }
+
+            try {
+                return converter.convert(db, body.get(name));
+            } catch (IllegalArgumentException ex) {
+                throw new BadRequest(ex.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Gets the argument for one parameter of a custom method
+     */
+    @FunctionalInterface
+    private interface ArgumentBinder {
+        Object bind(Connection db, String authorization, JsonObject body)
+                throws HttpErrorStatus, SQLException;
+    }
+}
@@ -4,6 +4,9 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
 import net.issachanzi.resteasy.model.annotation.NoHttp;
@@ -44,6 +47,15 @@ public abstract class EasyModel {
 //    private static Map <Class <? extends EasyModel>, Map <Field, HttpField <?>>>
 //            httpFields = new HashMap<>();
 
+    /**
+     * The number of rows read from the database at a time by
+     * {@link #stream(Connection, Filter, Class, Projection)}
+     */
+    public static final int STREAM_BATCH_SIZE = 500;
+
+    private static final List<ChangeListener> changeListeners
+            = new CopyOnWriteArrayList<>();
+
     private ModelType modelType;
 
     /**
@@ -80,6 +92,40 @@ public abstract class EasyModel {
             Connection db,
             JsonObject jsonObject
     ) throws SQLException, HttpErrorStatus {
+        setFields(db, jsonObject);
+    }
+
+    /**
+     * Updates this model instance with values from a request body
+     *
+     * <p>
+     *     Fields which can be set via the REST API are set if they are
+     *     present in the request body, and the rest are left as they are. The
+     *     id of the model instance can't be changed. The changes are not saved
+     *     until {@link #save(Connection)} is called.
+     * </p>
+     *
+     * @param db Database connection to use to look up associated model
+     *           instances
+     * @param jsonObject Request body parsed as JSON
+     * @throws SQLException If a query fails
+     * @throws IllegalArgumentException If a value is not valid for its field
+     */
+    public void update(
+            Connection db,
+            JsonObject jsonObject
+    ) throws SQLException {
+        UUID id = this.id;
+
+        setFields(db, jsonObject);
+
+        this.id = id;
+    }
+
+    private void setFields(
+            Connection db,
+            JsonObject jsonObject
+    ) throws SQLException {
         List<HttpField<?>> initFields = this.modelType
                 .httpFields()
                 .stream()
@@ -158,15 +204,37 @@ public abstract class EasyModel {
                 modelType.columnTypes()
         );
 
+        Field versionField = modelType.versionField();
+
         if (this.id == null) {
             this.id = UUID.randomUUID();
+            if (versionField != null) {
+                setVersion(versionField, 1);
+            }
 
             dao.insert(primitivePersistentFieldValues());
+        } else if (versionField != null) {
+            long version = modelType.version(this);
+            var values = primitivePersistentFieldValues();
+            values.put(
+                    versionField.getName(),
+                    versionValue(versionField, version + 1)
+            );
+
+            if (!dao.update(id, values, versionField.getName(), version)) {
+                throw new VersionConflictException(
+                        "Version " + version + " of " + id
+                        + " is no longer current"
+                );
+            }
+            setVersion(versionField, version + 1);
         } else {
             dao.update(id, primitivePersistentFieldValues());
         }
 
         saveAssociations (db);
+
+        fireChanged(this.getClass(), this.id);
     }
 
     private void saveAssociations(Connection db) throws SQLException {
@@ -188,7 +256,92 @@ public abstract class EasyModel {
                 modelType.columnTypes()
         );
 
-        dao.delete(this.id);
+        Field versionField = modelType.versionField();
+        if (versionField != null) {
+            long version = modelType.version(this);
+
+            if (!dao.delete(this.id, versionField.getName(), version)) {
+                throw new VersionConflictException(
+                        "Version " + version + " of " + id
+                        + " is no longer current"
+                );
+            }
+        }
+        else {
+            dao.delete(this.id);
+        }
+
+        fireChanged(this.getClass(), this.id);
+    }
+
+    private void setVersion(Field versionField, long version) {
+        try {
+            versionField.set(this, versionValue(versionField, version));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object versionValue(Field versionField, long version) {
+        if (versionField.getType() == int.class) {
+            return (int) version;
+        }
+        else {
+            return version;
+        }
+    }
+
+    /**
+     * Registers a listener to be notified whenever a model instance is saved
+     * or deleted
+     *
+     * <p>
+     *     Listeners are called after the change has been written, on the
+     *     thread that made it. Imports through {@link Importer} are seen as a
+     *     change to every instance of the model. Other changes made directly
+     *     to the database, without going through {@link #save(Connection)}
+     *     or {@link #delete(Connection)}, are not seen.
+     * </p>
+     *
+     * @param listener The listener to notify
+     */
+    public static void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Notifies the change listeners that a model instance, or every instance
+     * of a model, has changed
+     *
+     * @param clazz The class of the model that changed
+     * @param id The id of the model instance that changed, or {@code null}
+     *           if any instance of the model may have changed, such as after
+     *           an import
+     */
+    static void fireChanged(
+            Class<? extends EasyModel> clazz,
+            UUID id
+    ) {
+        for (var listener : changeListeners) {
+            listener.changed(clazz, id);
+        }
+    }
+
+    /**
+     * Notified when a model instance is saved or deleted
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * Called after a model instance has been saved or deleted, or after
+         * many instances of a model have been imported
+         *
+         * @param clazz The class of the model instance that changed
+         * @param id The id of the model instance that changed, or
+         *           {@code null} if any instance of the model may have
+         *           changed
+         */
+        void changed(Class<? extends EasyModel> clazz, UUID id);
     }
 
     /**
@@ -262,6 +415,318 @@ public abstract class EasyModel {
         }
     }
 
+    /**
+     * Retrieves some fields of a model instance from the database based on its
+     * id
+     *
+     * @param db Database connection to use
+     * @param id The id of the model instance to find
+     * @param clazz The class of the model instance to find
+     * @param projection The fields of the model instance to retrieve. Fields
+     *                   not selected are left with their default values.
+     *
+     * @return The model instance with the specified id, or {@code null} if
+     *         there is none
+     * @param <M> The class of the model instance to find
+     * @throws SQLException If a database query fails
+     */
+    public static <M extends EasyModel> M byId(
+            Connection db,
+            UUID id,
+            Class<M> clazz,
+            Projection projection
+    ) throws SQLException {
+        return byIds(db, List.of(id), clazz, projection)
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Retrieves only the version of a model instance from the database,
+     * without loading any of its other fields
+     *
+     * <p>
+     *     This is enough to tell whether a client's copy of a versioned model
+     *     instance is still current.
+     * </p>
+     *
+     * @param db Database connection to use
+     * @param id The id of the model instance
+     * @param clazz The class of the model instance, which must have a field
+     *              annotated with
+     *              {@link net.issachanzi.resteasy.model.annotation.Version}
+     *
+     * @return The version of the model instance, or {@code null} if there is
+     *         no model instance with the specified id
+     * @throws SQLException If a database query fails
+     * @throws IllegalArgumentException If the model isn't versioned
+     */
+    public static Long version(
+            Connection db,
+            UUID id,
+            Class<? extends EasyModel> clazz
+    ) throws SQLException {
+        var modelType = ModelType.get(clazz);
+        Field versionField = modelType.versionField();
+        if (versionField == null) {
+            throw new IllegalArgumentException(
+                    clazz.getSimpleName() + " is not versioned"
+            );
+        }
+
+        BasicDao dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                modelType.columnTypes()
+        );
+        String column = versionField.getName();
+        var rows = dao.select(List.of(id), List.of(column));
+
+        return rows.stream()
+                .findFirst()
+                .map(row -> ((Number) row.get(column)).longValue())
+                .orElse(null);
+    }
+
+    /**
+     * Retrieves multiple model instances from the database based on their ids
+     *
+     * <p>
+     *     All the model instances are retrieved in a single query, and their
+     *     associations are loaded in batches rather than one model instance
+     *     at a time.
+     * </p>
+     *
+     * @param db Database connection to use
+     * @param ids The ids of the model instances to find
+     * @param clazz The class of the model instances to find
+     *
+     * @return The model instances found, in the same order as {@code ids}.
+     *         Ids which do not match a model instance are skipped.
+     * @param <M> The class of the model instances to find
+     * @throws SQLException If a database query fails
+     */
+    public static <M extends EasyModel> List<M> byIds(
+            Connection db,
+            List<UUID> ids,
+            Class<M> clazz
+    ) throws SQLException {
+        return byIds(db, ids, clazz, Projection.ALL, new Stack<>());
+    }
+
+    /**
+     * Retrieves some fields of multiple model instances from the database
+     * based on their ids
+     *
+     * @param db Database connection to use
+     * @param ids The ids of the model instances to find
+     * @param clazz The class of the model instances to find
+     * @param projection The fields of the model instances to retrieve
+     *
+     * @return The model instances found, in the same order as {@code ids}.
+     *         Ids which do not match a model instance are skipped.
+     * @param <M> The class of the model instances to find
+     * @throws SQLException If a database query fails
+     */
+    public static <M extends EasyModel> List<M> byIds(
+            Connection db,
+            List<UUID> ids,
+            Class<M> clazz,
+            Projection projection
+    ) throws SQLException {
+        return byIds(db, ids, clazz, projection, new Stack<>());
+    }
+
+    /**
+     * Retrieves some fields of the model instances with certain ids which
+     * also match a {@link Filter}
+     *
+     * @param db Database connection to use
+     * @param ids The ids of the model instances to find
+     * @param filter The conditions the model instances must also match, and
+     *               the order to sort them in
+     * @param clazz The class of the model instances to find
+     * @param projection The fields of the model instances to retrieve
+     *
+     * @return The model instances found, in the filter's order, or in the
+     *         same order as {@code ids} if it has none. Ids which do not
+     *         match a model instance are skipped.
+     * @param <M> The class of the model instances to find
+     * @throws SQLException If a database query fails
+     */
+    public static <M extends EasyModel> List<M> byIds(
+            Connection db,
+            List<UUID> ids,
+            Filter filter,
+            Class<M> clazz,
+            Projection projection
+    ) throws SQLException {
+        if (filter.conditions().isEmpty() && filter.order().isEmpty()) {
+            return byIds(db, ids, clazz, projection);
+        }
+
+        var modelType = ModelType.get(clazz);
+        BasicDao dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                modelType.columnTypes()
+        );
+        var columns = projection.columns(modelType);
+        List<M> models = dao.select(
+                new LinkedHashSet<>(ids),
+                filter,
+                columns,
+                modelType.rowMapper(columns)
+        );
+        loadAllAssociations(clazz, models, db, projection, new Stack<>());
+
+        if (!filter.order().isEmpty()) {
+            return models;
+        }
+
+        Map<UUID, M> found = new HashMap<>();
+        for (var model : models) {
+            found.put(model.id, model);
+        }
+        List<M> results = new ArrayList<>(ids.size());
+        for (var id : ids) {
+            var model = found.get(id);
+            if (model != null) {
+                results.add(model);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Retrieves multiple model instances from the database based on their ids
+     *
+     * <p>
+     *     Any model instances in {@code chain} with a matching id are returned
+     *     as they are, without querying the database, to break recursion
+     *     loops caused by fetching associations.
+     * </p>
+     *
+     * @param db Database connection to use
+     * @param ids The ids of the model instances to find
+     * @param clazz The class of the model instances to find
+     * @param chain Model instances to break recursion on
+     *
+     * @return The model instances found, in the same order as {@code ids}.
+     *         Ids which do not match a model instance are skipped.
+     * @param <M> The class of the model instances to find
+     * @throws SQLException If a database query fails
+     */
+    public static <M extends EasyModel> List<M> byIds(
+            Connection db,
+            List<UUID> ids,
+            Class<M> clazz,
+            Stack <EasyModel> chain
+    ) throws SQLException {
+        return byIds(db, ids, clazz, Projection.ALL, chain);
+    }
+
+    /**
+     * Retrieves some fields of multiple model instances from the database
+     * based on their ids
+     *
+     * <p>
+     *     Any model instances in {@code chain} with a matching id are returned
+     *     as they are, without querying the database, to break recursion
+     *     loops caused by fetching associations.
+     * </p>
+     *
+     * @param db Database connection to use
+     * @param ids The ids of the model instances to find
+     * @param clazz The class of the model instances to find
+     * @param projection The fields of the model instances to retrieve
+     * @param chain Model instances to break recursion on
+     *
+     * @return The model instances found, in the same order as {@code ids}.
+     *         Ids which do not match a model instance are skipped.
+     * @param <M> The class of the model instances to find
+     * @throws SQLException If a database query fails
+     */
+    @SuppressWarnings("unchecked")
+    public static <M extends EasyModel> List<M> byIds(
+            Connection db,
+            List<UUID> ids,
+            Class<M> clazz,
+            Projection projection,
+            Stack <EasyModel> chain
+    ) throws SQLException {
+        Map<UUID, M> found = new HashMap<>();
+        for (var model : chain) {
+            if (model.getClass() == clazz) {
+                found.put(model.id, (M) model);
+            }
+        }
+
+        Set<UUID> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(found.keySet());
+
+        if (!missing.isEmpty()) {
+            var modelType = ModelType.get(clazz);
+            BasicDao dao = new BasicDao(
+                    db,
+                    clazz.getSimpleName(),
+                    modelType.columnTypes()
+            );
+            var columns = projection.columns(modelType);
+            List<M> models = dao.select(
+                    missing,
+                    columns,
+                    modelType.rowMapper(columns)
+            );
+            loadAllAssociations(clazz, models, db, projection, chain);
+
+            for (var model : models) {
+                found.put(model.id, model);
+            }
+        }
+
+        List<M> results = new ArrayList<>(ids.size());
+        for (var id : ids) {
+            var model = found.get(id);
+            if (model != null) {
+                results.add(model);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Creates model instances with only their ids set, without querying the
+     * database
+     *
+     * <p>
+     *     Used to populate associations which have not been expanded, where
+     *     only the ids of the associated model instances are needed.
+     * </p>
+     *
+     * @param ids The ids of the model instances to create
+     * @param clazz The class of the model instances to create
+     * @return The model instances, in the same order as {@code ids}
+     * @param <M> The class of the model instances to create
+     */
+    public static <M extends EasyModel> List<M> references(
+            List<UUID> ids,
+            Class<M> clazz
+    ) {
+        List<M> results = new ArrayList<>(ids.size());
+        for (var id : ids) {
+            M model = unfreezeFields(clazz, Map.of());
+            model.id = id;
+
+            results.add(model);
+        }
+
+        return results;
+    }
+
     /**
      * Retrieves all instances of a model from the database
      *
@@ -276,20 +741,41 @@ public abstract class EasyModel {
             Connection db,
             Class<M> clazz
     ) throws SQLException {
+        return all(db, clazz, Projection.ALL);
+    }
+
+    /**
+     * Retrieves some fields of all instances of a model from the database
+     *
+     * @param db The database connection to use
+     * @param clazz The model class to return instances of
+     * @param projection The fields of the model instances to retrieve
+     *
+     * @return A collection of all instances of the specified model
+     * @param <M> The model class to return instances of
+     * @throws SQLException If a query fails
+     */
+    public static <M extends EasyModel> Collection<M> all(
+            Connection db,
+            Class<M> clazz,
+            Projection projection
+    ) throws SQLException {
+        var modelType = ModelType.get(clazz);
         BasicDao dao = new BasicDao(
                 db,
                 clazz.getSimpleName(),
-                ModelType.get(clazz).columnTypes()
+                modelType.columnTypes()
         );
 
-        Collection<M> results = new LinkedList<>();
-        var rows = dao.select();
-        for (var row : rows) {
-            var model = unfreezeModel(clazz, row, db);
-            results.add(model);
-        }
+        var columns = projection.columns(modelType);
+        List<M> models = dao.where(
+                Filter.NONE,
+                columns,
+                modelType.rowMapper(columns)
+        );
+        loadAllAssociations(clazz, models, db, projection, new Stack<>());
 
-        return results;
+        return models;
     }
 
     /**
@@ -298,7 +784,10 @@ public abstract class EasyModel {
      *
      * <p>
      *     Models will be returned if, for each specified filter key, the
-     *     corresponding model attribute matches the value given,
+     *     corresponding model attribute matches the value given. Any field
+     *     can be filtered on, including those not exposed via the REST API.
+     *     To filter with the comparisons and sort order allowed in query
+     *     parameters, use {@link Filter#parse(Map, ModelType)}.
      * </p>
      *
      * @param db The database connection to use
@@ -307,24 +796,42 @@ public abstract class EasyModel {
      * @return A collection of model instances matching the filter criteria
      * @param <M> The model class to return instances of
      * @throws SQLException If a database query fails
+     * @throws IllegalArgumentException If a filter key is not a field of the
+     *                                  model
      */
     public static <M extends EasyModel> Collection<M> where(
             Connection db,
             Map<String, String> strFilter,
             Class<M> clazz
     ) throws SQLException {
-        BasicDao dao = new BasicDao(
-                db,
-                clazz.getSimpleName(),
-                ModelType.get(clazz).columnTypes()
-        );
+        return where(db, strFilter, clazz, Projection.ALL);
+    }
 
+    /**
+     * Retrieves from the database some fields of instances of a specified
+     * model that match specified filter conditions
+     *
+     * @param db The database connection to use
+     * @param strFilter The map of filter conditions to apply
+     * @param clazz The model class to return instances of
+     * @param projection The fields of the model instances to retrieve
+     * @return A collection of model instances matching the filter criteria
+     * @param <M> The model class to return instances of
+     * @throws SQLException If a database query fails
+     * @throws IllegalArgumentException If a filter key is not a field of the
+     *                                  model
+     */
+    public static <M extends EasyModel> Collection<M> where(
+            Connection db,
+            Map<String, String> strFilter,
+            Class<M> clazz,
+            Projection projection
+    ) throws SQLException {
         Map<String, Object> filter = new HashMap<>();
-        for(String key : strFilter.keySet()) {
+        for (String key : strFilter.keySet()) {
             Field field = findField(clazz, key);
             if (field == null) {
-                // TODO not sure what to do here
-                throw new RuntimeException();
+                throw new IllegalArgumentException("Unknown field " + key);
             }
             Class<?> type = field.getType();
             String valueStr = strFilter.get(key);
@@ -339,14 +846,255 @@ public abstract class EasyModel {
             filter.put(key, value);
         }
 
-        Collection<M> results = new LinkedList<>();
-        var rows = dao.where(filter);
-        for (var row : rows) {
-            var model = unfreezeModel(clazz, row, db);
-            results.add(model);
+        return where(db, Filter.equal(filter), clazz, projection);
+    }
+
+    /**
+     * Retrieves from the database some fields of instances of a specified
+     * model that match a {@link Filter}, sorted by the filter's order
+     *
+     * @param db The database connection to use
+     * @param filter The filter conditions to apply
+     * @param clazz The model class to return instances of
+     * @param projection The fields of the model instances to retrieve
+     * @return A list of model instances matching the filter criteria
+     * @param <M> The model class to return instances of
+     * @throws SQLException If a database query fails
+     */
+    public static <M extends EasyModel> List<M> where(
+            Connection db,
+            Filter filter,
+            Class<M> clazz,
+            Projection projection
+    ) throws SQLException {
+        var modelType = ModelType.get(clazz);
+        BasicDao dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                modelType.columnTypes()
+        );
+
+        var columns = projection.columns(modelType);
+        List<M> models = dao.where(
+                filter,
+                columns,
+                modelType.rowMapper(columns)
+        );
+        loadAllAssociations(clazz, models, db, projection, new Stack<>());
+
+        return models;
+    }
+
+    /**
+     * Retrieves from the database some fields of instances of a specified
+     * model that match a {@link Filter}, as a stream which is read from the
+     * database as it is consumed
+     *
+     * <p>
+     *     Rows are fetched {@value #STREAM_BATCH_SIZE} at a time, and the
+     *     associations of each batch are loaded together, so any number of
+     *     model instances can be processed in constant memory. Each batch is
+     *     read while holding the lock of the connection, which is released
+     *     while the batch is consumed, so the stream can be written to a slow
+     *     client without blocking other requests. The model instances are not
+     *     a consistent snapshot, as described for
+     *     {@link BasicDao#stream(Filter, Collection, int)}.
+     * </p>
+     *
+     * @param db The database connection to use
+     * @param filter The filter conditions to apply
+     * @param clazz The model class to return instances of
+     * @param projection The fields of the model instances to retrieve
+     * @return A stream of model instances matching the filter criteria,
+     *         sorted by the filter's order
+     * @param <M> The model class to return instances of
+     * @throws SQLException If a database query fails
+     */
+    public static <M extends EasyModel> Stream<M> stream(
+            Connection db,
+            Filter filter,
+            Class<M> clazz,
+            Projection projection
+    ) throws SQLException {
+        var modelType = ModelType.get(clazz);
+        BasicDao dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                modelType.columnTypes()
+        );
+
+        var columns = projection.columns(modelType);
+        Stream<M> rowStream = dao.stream(
+                filter,
+                columns,
+                STREAM_BATCH_SIZE,
+                modelType.rowMapper(columns)
+        );
+        var rows = rowStream.iterator();
+
+        Iterator<M> models = new Iterator<>() {
+            private Iterator<M> batch = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!batch.hasNext()) {
+                    // Reading a batch and its associations is one use of the
+                    // connection, so it is not interleaved with other users
+                    synchronized (db) {
+                        batch = nextBatch();
+                    }
+                }
+
+                return batch.hasNext();
+            }
+
+            @Override
+            public M next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return batch.next();
+            }
+
+            private Iterator<M> nextBatch() {
+                List<M> batchModels = new ArrayList<>(STREAM_BATCH_SIZE);
+                while (batchModels.size() < STREAM_BATCH_SIZE
+                        && rows.hasNext()) {
+                    batchModels.add(rows.next());
+                }
+
+                try {
+                    loadAllAssociations(
+                            clazz,
+                            batchModels,
+                            db,
+                            projection,
+                            new Stack<>()
+                    );
+                } catch (SQLException ex) {
+                    throw new RuntimeException(ex);
+                }
+
+                return batchModels.iterator();
+            }
+        };
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(models, Spliterator.ORDERED),
+                false
+        );
+    }
+
+    /**
+     * Counts the instances of a specified model in the database that match a
+     * {@link Filter}, without retrieving them
+     *
+     * @param db The database connection to use
+     * @param filter The filter conditions to apply
+     * @param clazz The model class to count instances of
+     * @return The number of model instances matching the filter criteria
+     * @throws SQLException If a database query fails
+     */
+    public static long count(
+            Connection db,
+            Filter filter,
+            Class<? extends EasyModel> clazz
+    ) throws SQLException {
+        BasicDao dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                ModelType.get(clazz).columnTypes()
+        );
+
+        return dao.count(filter);
+    }
+
+    /**
+     * Estimates the number of instances of a specified model in the database
+     * that match a {@link Filter}, from the database's statistics
+     *
+     * <p>
+     *     This is much faster than {@link #count(Connection, Filter, Class)}
+     *     for large tables, as no rows are scanned, but the estimate is only as
+     *     accurate as the statistics last gathered by the database.
+     * </p>
+     *
+     * @param db The database connection to use
+     * @param filter The filter conditions to apply
+     * @param clazz The model class to count instances of
+     * @return The estimated number of model instances matching the filter
+     *         criteria
+     * @throws SQLException If a database query fails
+     */
+    public static long estimateCount(
+            Connection db,
+            Filter filter,
+            Class<? extends EasyModel> clazz
+    ) throws SQLException {
+        BasicDao dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                ModelType.get(clazz).columnTypes()
+        );
+
+        return dao.estimateCount(filter);
+    }
+
+    /**
+     * Computes an aggregate function in the database over a field of the
+     * instances of a specified model that match a {@link Filter}, without
+     * retrieving them
+     *
+     * @param db The database connection to use
+     * @param function The aggregate function to compute
+     * @param fieldName The name of the field to compute the function over,
+     *                  or {@code null} to count model instances
+     * @param groupBy The name of the field to group model instances by, or
+     *                {@code null} to aggregate them all together
+     * @param filter The filter conditions to apply
+     * @param clazz The model class to aggregate instances of
+     * @return A row for each group, as a Map containing a key of
+     *         {@code groupBy} with the value of the group, and a key of
+     *         {@code value} with the value of the aggregate function
+     * @throws SQLException If a database query fails
+     * @throws IllegalArgumentException If a field cannot be aggregated
+     */
+    public static List<Map<String, Object>> aggregate(
+            Connection db,
+            Aggregate function,
+            String fieldName,
+            String groupBy,
+            Filter filter,
+            Class<? extends EasyModel> clazz
+    ) throws SQLException {
+        var modelType = ModelType.get(clazz);
+        var columns = Filter.filterableColumns(modelType);
+
+        if (fieldName == null && function != Aggregate.COUNT) {
+            throw new IllegalArgumentException(
+                    "A field is required for " + function
+            );
+        }
+        if (fieldName != null && !columns.containsKey(fieldName)) {
+            throw new IllegalArgumentException("Unknown field " + fieldName);
+        }
+        if (fieldName != null && !function.supports(columns.get(fieldName))) {
+            throw new IllegalArgumentException(
+                    "Cannot compute " + function + " of " + fieldName
+            );
+        }
+        if (groupBy != null && !columns.containsKey(groupBy)) {
+            throw new IllegalArgumentException("Unknown field " + groupBy);
         }
 
-        return results;
+        BasicDao dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                modelType.columnTypes()
+        );
+
+        return dao.aggregate(function, fieldName, groupBy, filter);
     }
 
     /**
@@ -386,31 +1134,81 @@ public abstract class EasyModel {
                 ModelType.get(clazz).columnTypes()
         );
 
-        Collection<M> results = new LinkedList<>();
         var rows = dao.where(whereSql, params);
-        for (var row : rows) {
-            var model = unfreezeModel(clazz, row, db);
-            results.add(model);
-        }
 
-        return results;
+        return unfreezeModels(clazz, rows, db, Projection.ALL, new Stack<>());
     }
 
 
-    private static <M extends EasyModel> M unfreezeModel (
-            Class <M> clazz,
-            Map <String, Object> fieldValues,
-            Connection db
+    private static <M extends EasyModel> M unfreezeModel(
+            Class<M> clazz,
+            Map<String, Object> fieldValues,
+            Connection db,
+            Stack <EasyModel> chain
     ) throws SQLException {
-        return unfreezeModel(clazz, fieldValues, db, new Stack<>());
+        M model = unfreezeFields(clazz, fieldValues);
+
+        // chainSource is required to avoid an infinite recursion loop
+        //      with two models associated with each other
+        chain.push (model);
+        loadAssociations(db, model, chain);
+        chain.pop();
+
+        return model;
     }
 
-    private static <M extends EasyModel> M unfreezeModel(
+    /**
+     * Instantiates a model instance for each row given, then loads the
+     * associations selected by {@code projection} of all of them together in
+     * batches
+     */
+    private static <M extends EasyModel> List<M> unfreezeModels(
             Class<M> clazz,
-            Map<String, Object> fieldValues,
+            Collection<Map<String, Object>> rows,
+            Connection db,
+            Projection projection,
+            Stack <EasyModel> chain
+    ) throws SQLException {
+        List<M> models = new ArrayList<>(rows.size());
+        for (var row : rows) {
+            models.add(unfreezeFields(clazz, row));
+        }
+        loadAllAssociations(clazz, models, db, projection, chain);
+
+        return models;
+    }
+
+    /**
+     * Loads the associations selected by {@code projection} of model
+     * instances, for all of them together in batches
+     */
+    private static <M extends EasyModel> void loadAllAssociations(
+            Class<M> clazz,
+            List<M> models,
             Connection db,
+            Projection projection,
             Stack <EasyModel> chain
     ) throws SQLException {
+        int chainSize = chain.size();
+        chain.addAll(models);
+        for (var association : ModelType.get(clazz).associations()) {
+            String name = association.name();
+            if (projection.includes(name)) {
+                association.loadAll(
+                        db,
+                        models,
+                        projection.association(name),
+                        chain
+                );
+            }
+        }
+        chain.setSize(chainSize);
+    }
+
+    static <M extends EasyModel> M unfreezeFields(
+            Class<M> clazz,
+            Map<String, Object> fieldValues
+    ) {
         try {
             M model = clazz.getDeclaredConstructor().newInstance();
 
@@ -432,12 +1230,6 @@ public abstract class EasyModel {
                 field.setAccessible(false);
             }
 
-            // chainSource is required to avoid an infinite recursion loop
-            //      with two models associated with each other
-            chain.push (model);
-            loadAssociations(db, model, chain);
-            chain.pop();
-
             return model;
         } catch (
                 InstantiationException |
@@ -503,11 +1295,26 @@ public abstract class EasyModel {
      * @return A Map of fields in this model with their values
      */
     public Map <String, Object> httpFieldValues (String authorization) {
+        return httpFieldValues(authorization, Projection.ALL);
+    }
+
+    /**
+     * Gets a Map of the fields in this model that can be exposed via the REST
+     * API and are selected by a projection
+     *
+     * @param authorization The value of the {@code Authorization} HTTP header
+     * @param projection The fields to include
+     * @return A Map of selected fields in this model with their values
+     */
+    public Map <String, Object> httpFieldValues (
+            String authorization,
+            Projection projection
+    ) {
         Map<String, Object> result = new HashMap<>();
 
         // TODO implement authorisation
         for (var field : modelType.httpFields()) {
-            if (field.canGet()) {
+            if (field.canGet() && projection.includes(field.name())) {
                 try {
 
                     var fieldValue = field.get(this);
@@ -578,6 +1385,49 @@ public abstract class EasyModel {
         return true;
     }
 
+    /**
+     * Gets a filter selecting the model instances that can be accessed with a
+     * given authorisation, so that access checks can be done by the database
+     * without retrieving each model instance
+     *
+     * <p>
+     *     This method is called on a new model instance with no fields set.
+     *     It should be overridden along with
+     *     {@link #authorize(Connection, String, AccessType)}, if checks are
+     *     needed for operations on many model instances, such as counting.
+     * </p>
+     *
+     * <p>
+     *     The default implementation returns {@link Filter#NONE} if
+     *     {@code authorize} is not overridden, as any access is allowed.
+     *     Otherwise, it returns {@code null}, meaning access can only be
+     *     checked for each model instance individually. Counting then loads
+     *     every matching model instance with all of its fields, and
+     *     aggregates are refused, so models with many instances should
+     *     override this method.
+     * </p>
+     *
+     * @param db The database connection to use
+     * @param authorization The value of the {@code Authorization} HTTP header
+     * @param accessType The type of operation requested
+     * @return A filter matching only the model instances that can be
+     *         accessed, or {@code null} if this cannot be expressed as a
+     *         filter
+     * @throws HttpErrorStatus If access to all model instances is denied
+     */
+    public Filter authorizeFilter (
+            Connection db,
+            String authorization,
+            AccessType accessType
+    ) throws HttpErrorStatus {
+        if (modelType.hasCustomAuthorization()) {
+            return null;
+        }
+        else {
+            return Filter.NONE;
+        }
+    }
+
     @Override
     public boolean equals (Object obj) {
         if (obj instanceof EasyModel) {
@@ -0,0 +1,309 @@
+package net.issachanzi.resteasy.model;
+
+import net.issachanzi.resteasy.model.association.BelongsTo;
+
+import java.util.*;
+
+/**
+ * Conditions which rows of a model's table must match to be selected, and
+ * the order to sort them in
+ *
+ * <p>
+ *     Filters are compiled to parameterised SQL by {@link BasicDao}, so rows
+ *     are filtered and sorted by the database.
+ * </p>
+ *
+ * <p>
+ *     When parsed from query parameters, each parameter is a condition of the
+ *     form {@code field=value} or {@code field[operator]=value}, where the
+ *     operator is one of those in {@link Operator}. A {@code sort} parameter
+ *     gives a comma separated list of fields to sort by, each prefixed with
+ *     {@code -} for descending order.
+ * </p>
+ *
+ * <pre><code>
+ *     ?done=false&amp;priority[gte]=3&amp;text[prefix]=Buy&amp;sort=-priority,text
+ * </code></pre>
+ */
+public class Filter {
+    /**
+     * The query parameter used to sort results
+     */
+    public static final String SORT_PARAM = "sort";
+
+    /**
+     * A filter matching every row, in no particular order
+     */
+    public static final Filter NONE = new Filter(List.of(), List.of());
+
+    private final List<Condition> conditions;
+    private final List<Order> order;
+
+    /**
+     * Constructs a filter
+     *
+     * @param conditions The conditions rows must all match to be selected
+     * @param order The columns to sort rows by, in order of priority
+     */
+    public Filter(List<Condition> conditions, List<Order> order) {
+        this.conditions = List.copyOf(conditions);
+        this.order = List.copyOf(order);
+    }
+
+    /**
+     * Constructs a filter from a map of column names to values which rows
+     * must be equal to
+     *
+     * @param values The column names and values to match
+     * @return The new filter
+     */
+    public static Filter equal(Map<String, Object> values) {
+        List<Condition> conditions = new ArrayList<>();
+        for (var column : values.keySet()) {
+            conditions.add(new Condition(
+                    column,
+                    Operator.EQ,
+                    values.get(column)
+            ));
+        }
+
+        return new Filter(conditions, List.of());
+    }
+
+    /**
+     * Parses a filter from query parameters
+     *
+     * <p>
+     *     Only fields which are stored in a column of the model's table, and
+     *     which are exposed via the REST API, can be filtered or sorted on.
+     * </p>
+     *
+     * @param params The query parameters to parse
+     * @param modelType The type of model to filter
+     * @return The parsed filter
+     * @throws IllegalArgumentException If a parameter refers to an unknown
+     *                                  field or operator, or a value cannot
+     *                                  be converted to the field's type
+     */
+    public static Filter parse(
+            Map<String, String> params,
+            ModelType modelType
+    ) throws IllegalArgumentException {
+        Map<String, Class<?>> columns = filterableColumns(modelType);
+        List<Condition> conditions = new ArrayList<>();
+        List<Order> order = new ArrayList<>();
+
+        for (var key : params.keySet()) {
+            String value = params.get(key);
+
+            if (key.equals(SORT_PARAM)) {
+                order.addAll(parseOrder(value, columns));
+                continue;
+            }
+
+            String column = key;
+            Operator operator = Operator.EQ;
+
+            int operatorStart = key.indexOf('[');
+            if (operatorStart >= 0 && key.endsWith("]")) {
+                column = key.substring(0, operatorStart);
+                operator = Operator.parse(
+                        key.substring(operatorStart + 1, key.length() - 1)
+                );
+            }
+
+            Class<?> type = columns.get(column);
+            if (type == null) {
+                throw new IllegalArgumentException("Unknown field " + column);
+            }
+
+            conditions.add(new Condition(
+                    column,
+                    operator,
+                    operator.convert(value, type)
+            ));
+        }
+
+        return new Filter(conditions, order);
+    }
+
+    private static List<Order> parseOrder(
+            String sort,
+            Map<String, Class<?>> columns
+    ) {
+        List<Order> order = new ArrayList<>();
+
+        for (String column : sort.split(",")) {
+            column = column.trim();
+            boolean descending = column.startsWith("-");
+            if (descending) {
+                column = column.substring(1);
+            }
+            if (column.isEmpty()) {
+                continue;
+            }
+
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Unknown field " + column);
+            }
+            order.add(new Order(column, descending));
+        }
+
+        return order;
+    }
+
+    /**
+     * Gets the columns of a model's table which can be filtered on by
+     * clients, with the type of value stored in each
+     */
+    static Map<String, Class<?>> filterableColumns(
+            ModelType modelType
+    ) {
+        Set<String> httpFieldNames = new HashSet<>();
+        for (var httpField : modelType.httpFields()) {
+            if (httpField.canGet()) {
+                httpFieldNames.add(httpField.name());
+            }
+        }
+        httpFieldNames.add("id");
+
+        Map<String, Class<?>> result = new HashMap<>();
+        for (var field : modelType.primitivePersistentFields()) {
+            if (httpFieldNames.contains(field.getName())) {
+                result.put(field.getName(), field.getType());
+            }
+        }
+
+        // Foreign keys are stored as ids
+        var associations = modelType.associations();
+        if (associations != null) {
+            for (var association : associations) {
+                if (association instanceof BelongsTo
+                        && httpFieldNames.contains(association.name())) {
+                    result.put(association.name(), UUID.class);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the conditions rows must match to be selected
+     *
+     * @return The conditions of this filter
+     */
+    public List<Condition> conditions() {
+        return conditions;
+    }
+
+    /**
+     * Gets the columns to sort rows by
+     *
+     * @return The columns to sort by, in order of priority
+     */
+    public List<Order> order() {
+        return order;
+    }
+
+    /**
+     * Creates a filter which rows must match both this filter and another
+     * filter to be selected
+     *
+     * @param other The other filter
+     * @return The combined filter, sorted by this filter's order and then by
+     *         the other filter's order
+     */
+    public Filter and(Filter other) {
+        List<Condition> combinedConditions = new ArrayList<>(conditions);
+        combinedConditions.addAll(other.conditions);
+        List<Order> combinedOrder = new ArrayList<>(order);
+        combinedOrder.addAll(other.order);
+
+        return new Filter(combinedConditions, combinedOrder);
+    }
+
+    /**
+     * A comparison a column must match for a row to be selected
+     *
+     * @param column The name of the column to compare
+     * @param operator The comparison to make
+     * @param value The value to compare the column with. For
+     *              {@link Operator#IN} this is a {@code List} of values, and
+     *              for {@link Operator#NULL} this is a {@code Boolean}.
+     */
+    public record Condition(String column, Operator operator, Object value) {}
+
+    /**
+     * A column to sort rows by
+     *
+     * @param column The name of the column
+     * @param descending {@code true} to sort in descending order,
+     *                   {@code false} to sort in ascending order
+     */
+    public record Order(String column, boolean descending) {}
+
+    /**
+     * The comparisons supported by filters
+     */
+    public enum Operator {
+        /** The column is equal to the value */
+        EQ,
+        /** The column is not equal to the value */
+        NE,
+        /** The column is greater than the value */
+        GT,
+        /** The column is greater than or equal to the value */
+        GTE,
+        /** The column is less than the value */
+        LT,
+        /** The column is less than or equal to the value */
+        LTE,
+        /** The column is equal to one of a comma separated list of values */
+        IN,
+        /** The column starts with the value */
+        PREFIX,
+        /**
+         * The column is null if the value is {@code true}, or not null if
+         * the value is {@code false}
+         */
+        NULL;
+
+        static Operator parse(String name) throws IllegalArgumentException {
+            try {
+                return valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown operator " + name);
+            }
+        }
+
+        Object convert(String value, Class<?> type)
+                throws IllegalArgumentException {
+            return switch (this) {
+                case IN -> Arrays.stream(value.split(","))
+                        .map(element -> convertValue(element, type))
+                        .toList();
+                case PREFIX -> {
+                    if (type != String.class) {
+                        throw new IllegalArgumentException(
+                                "Prefix can only be used on text fields"
+                        );
+                    }
+                    yield value;
+                }
+                case NULL -> Boolean.valueOf(value);
+                default -> convertValue(value, type);
+            };
+        }
+
+        private static Object convertValue(String value, Class<?> type) {
+            if (type == UUID.class) {
+                // Ids are stored as text, so compare them as text
+                return UUID.fromString(value).toString();
+            }
+            else {
+                return SqlDatatypes.fromString(value, type);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package net.issachanzi.resteasy.model;
 
 import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
 import net.issachanzi.resteasy.model.annotation.NoHttp;
+import net.issachanzi.resteasy.model.annotation.Version;
 
 import java.lang.reflect.*;
 
@@ -265,6 +266,10 @@ public class HttpField <T> {
         if (field.getAnnotation(NoHttp.class) != null) {
             result = null;
         }
+        else if (field.getAnnotation(Version.class) != null) {
+            // Versions are only changed by saving
+            result = null;
+        }
         else if (method != null) {
             Method finalMethod = method;
             result = (model, value) -> {
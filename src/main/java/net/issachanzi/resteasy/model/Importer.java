@@ -0,0 +1,545 @@
+package net.issachanzi.resteasy.model;
+
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.Forbidden;
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Imports many new instances of a model into the database at once, using
+ * PostgreSQL's {@code COPY} command
+ *
+ * <p>
+ *     Rows are read from a stream of newline delimited JSON objects, or of
+ *     CSV with a header row of field names, and each is converted and written
+ *     to the database as soon as it is read, so uploads of any size can be
+ *     imported without holding them in memory.
+ * </p>
+ *
+ * <p>
+ *     Only fields which are stored in a column of the model's table and can
+ *     be set via the REST API are imported. Associations are not imported.
+ *     Rows without an {@code id} are given a random one. The import is a
+ *     single statement, so if any row is invalid, no rows are imported.
+ * </p>
+ *
+ * <p>
+ *     If the model overrides {@link EasyModel#authorize}, which may run
+ *     queries, rows can't be checked while a {@code COPY} is in progress on
+ *     the connection. They are instead read and checked
+ *     {@value #AUTHORIZE_BATCH_SIZE} at a time, and each batch is copied
+ *     once all of its rows are allowed, all in a single transaction.
+ * </p>
+ */
+public class Importer {
+    /**
+     * The content type of newline delimited JSON
+     */
+    public static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * The content type of CSV
+     */
+    public static final String CSV = "text/csv";
+
+    /**
+     * The number of rows checked before each {@code COPY}, for models which
+     * check access to each model instance
+     */
+    public static final int AUTHORIZE_BATCH_SIZE = 1000;
+
+    private final Connection db;
+    private final Class<? extends EasyModel> clazz;
+    private final ModelType modelType;
+    private final Map<String, Class<?>> columns;
+
+    /**
+     * Constructs an {@code Importer} for a model class
+     *
+     * @param db The database connection to use
+     * @param clazz The model class to import instances of
+     */
+    public Importer(Connection db, Class<? extends EasyModel> clazz) {
+        this.db = db;
+        this.clazz = clazz;
+        this.modelType = ModelType.get(clazz);
+        this.columns = importableColumns(modelType);
+    }
+
+    private static Map<String, Class<?>> importableColumns(
+            ModelType modelType
+    ) {
+        Set<String> httpFieldNames = new HashSet<>();
+        for (var httpField : modelType.httpFields()) {
+            if (httpField.canSet()) {
+                httpFieldNames.add(httpField.name());
+            }
+        }
+        httpFieldNames.add("id");
+
+        Map<String, Class<?>> result = new LinkedHashMap<>();
+        for (Field field : modelType.primitivePersistentFields()) {
+            if (httpFieldNames.contains(field.getName())) {
+                result.put(field.getName(), field.getType());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Imports model instances from a stream in a given format
+     *
+     * @param reader The stream to read model instances from
+     * @param contentType The format of the stream, either {@link #NDJSON} or
+     *                    {@link #CSV}. Parameters such as {@code charset}
+     *                    are ignored.
+     * @param authorization The value of the HTTP {@code Authorization}
+     *                      header, to check each model instance can be
+     *                      created with
+     * @return The number of model instances imported
+     * @throws HttpErrorStatus If the format is not supported, a row is not
+     *                         valid, or a model instance cannot be created
+     *                         with the given authorisation
+     * @throws SQLException If a database query fails
+     * @throws IOException If reading the stream fails
+     */
+    public long importRows(
+            Reader reader,
+            String contentType,
+            String authorization
+    ) throws HttpErrorStatus, SQLException, IOException {
+        String mediaType = contentType == null
+                ? ""
+                : contentType.split(";")[0].trim().toLowerCase();
+
+        Iterator<Map<String, Object>> rows = switch (mediaType) {
+            case NDJSON -> ndjsonRows(new BufferedReader(reader));
+            case CSV -> csvRows(reader);
+            default -> throw new BadRequest(
+                    "Import must be " + NDJSON + " or " + CSV
+            );
+        };
+
+        List<String> columnNames = new ArrayList<>(columns.keySet());
+        var dao = new BasicDao(
+                db,
+                clazz.getSimpleName(),
+                modelType.columnTypes()
+        );
+
+        long count;
+        try {
+            if (modelType.hasCustomAuthorization()) {
+                count = importAuthorized(dao, columnNames, rows, authorization);
+            }
+            else {
+                count = copyIn(dao, columnNames, rows);
+            }
+        } catch (RejectedRow ex) {
+            throw ex.status;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        // Cached views of the model, such as lists of its instances, may now
+        // be out of date
+        EasyModel.fireChanged(clazz, null);
+
+        return count;
+    }
+
+    /**
+     * Imports rows which don't have to be authorized in a single
+     * {@code COPY}, converting each as it is read
+     */
+    private static long copyIn(
+            BasicDao dao,
+            List<String> columnNames,
+            Iterator<Map<String, Object>> rows
+    ) throws SQLException {
+        Iterator<List<Object>> values = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public List<Object> next() {
+                return values(rows.next(), columnNames);
+            }
+        };
+
+        return dao.copyIn(columnNames, values);
+    }
+
+    /**
+     * Imports rows which each have to be authorized, a batch at a time, in a
+     * single transaction
+     */
+    private long importAuthorized(
+            BasicDao dao,
+            List<String> columnNames,
+            Iterator<Map<String, Object>> rows,
+            String authorization
+    ) throws SQLException {
+        boolean autoCommit = db.getAutoCommit();
+        db.setAutoCommit(false);
+
+        try {
+            long count = 0;
+            while (rows.hasNext()) {
+                List<List<Object>> batch = new ArrayList<>(
+                        AUTHORIZE_BATCH_SIZE
+                );
+                while (batch.size() < AUTHORIZE_BATCH_SIZE && rows.hasNext()) {
+                    var row = rows.next();
+                    authorize(row, authorization);
+                    batch.add(values(row, columnNames));
+                }
+
+                count += dao.copyIn(columnNames, batch.iterator());
+            }
+
+            if (autoCommit) {
+                db.commit();
+            }
+
+            return count;
+        } catch (SQLException | RuntimeException ex) {
+            if (autoCommit) {
+                db.rollback();
+            }
+            throw ex;
+        } finally {
+            db.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Gets the values of a row's columns, giving it an id if it has none
+     */
+    private static List<Object> values(
+            Map<String, Object> row,
+            List<String> columnNames
+    ) {
+        row.putIfAbsent("id", UUID.randomUUID().toString());
+
+        List<Object> result = new ArrayList<>(columnNames.size());
+        for (var columnName : columnNames) {
+            result.add(row.get(columnName));
+        }
+
+        return result;
+    }
+
+    private void authorize(Map<String, Object> row, String authorization) {
+        row.putIfAbsent("id", UUID.randomUUID().toString());
+        var model = EasyModel.unfreezeFields(clazz, row);
+
+        try {
+            if (!model.authorize(db, authorization, AccessType.CREATE)) {
+                throw new RejectedRow(new Forbidden());
+            }
+        } catch (HttpErrorStatus ex) {
+            throw new RejectedRow(ex);
+        }
+    }
+
+    private Iterator<Map<String, Object>> ndjsonRows(BufferedReader reader) {
+        return new RowIterator() {
+            @Override
+            Map<String, Object> readRow() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                } while (line != null && line.isBlank());
+
+                if (line == null) {
+                    return null;
+                }
+
+                JsonObject json;
+                try {
+                    json = Json.createReader(new StringReader(line))
+                            .readObject();
+                } catch (JsonException ex) {
+                    throw invalid("malformed JSON object");
+                }
+
+                Map<String, Object> row = new HashMap<>();
+                for (var key : json.keySet()) {
+                    Class<?> type = columns.get(key);
+                    if (type == null) {
+                        throw invalid("unknown field " + key);
+                    }
+
+                    if (json.get(key).getValueType() == JsonValue.ValueType.NULL) {
+                        row.put(key, null);
+                        continue;
+                    }
+
+                    try {
+                        row.put(key, columnValue(SqlDatatypes.objectFromJson(
+                                key,
+                                type,
+                                db,
+                                json
+                        )));
+                    } catch (
+                            ClassCastException |
+                            IllegalArgumentException |
+                            SQLException ex
+                    ) {
+                        throw invalid("invalid value for " + key);
+                    }
+                }
+
+                return row;
+            }
+        };
+    }
+
+    private Iterator<Map<String, Object>> csvRows(Reader reader) {
+        var csv = new CsvReader(reader);
+
+        return new RowIterator() {
+            private List<String> header = null;
+
+            @Override
+            Map<String, Object> readRow() throws IOException {
+                if (header == null) {
+                    header = csv.readRecord();
+                    lineNumber++;
+                    if (header == null) {
+                        return null;
+                    }
+
+                    for (var name : header) {
+                        if (!columns.containsKey(name)) {
+                            throw invalid("unknown field " + name);
+                        }
+                    }
+                }
+
+                var record = csv.readRecord();
+                lineNumber++;
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() != header.size()) {
+                    throw invalid(
+                            "expected " + header.size() + " values, "
+                            + "found " + record.size()
+                    );
+                }
+
+                Map<String, Object> row = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    String key = header.get(i);
+                    String value = record.get(i);
+
+                    if (value == null) {
+                        row.put(key, null);
+                        continue;
+                    }
+
+                    try {
+                        row.put(key, columnValue(
+                                SqlDatatypes.fromString(value, columns.get(key))
+                        ));
+                    } catch (IllegalArgumentException ex) {
+                        throw invalid("invalid value for " + key);
+                    }
+                }
+
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Converts a field value to the value stored in its column
+     */
+    private static Object columnValue(Object value) {
+        if (value instanceof UUID) {
+            // Ids are stored as text
+            return value.toString();
+        }
+        else {
+            return value;
+        }
+    }
+
+    /**
+     * Iterates over rows as they are read, one at a time
+     */
+    private abstract static class RowIterator
+            implements Iterator<Map<String, Object>> {
+        protected int lineNumber = 0;
+        private Map<String, Object> next = null;
+        private boolean done = false;
+
+        /**
+         * Reads the next row
+         *
+         * @return The row, or {@code null} if there are no more rows
+         */
+        abstract Map<String, Object> readRow() throws IOException;
+
+        RejectedRow invalid(String reason) {
+            return new RejectedRow(new BadRequest(
+                    "Line " + lineNumber + ": " + reason
+            ));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = readRow();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                done = next == null;
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            var result = next;
+            next = null;
+
+            return result;
+        }
+    }
+
+    /**
+     * Reads CSV records as described in RFC 4180
+     *
+     * <p>
+     *     As in PostgreSQL, an empty unquoted value is read as {@code null},
+     *     while an empty quoted value is read as an empty string.
+     * </p>
+     */
+    private static class CsvReader {
+        private final Reader reader;
+        private int lookahead = -2;
+
+        CsvReader(Reader reader) {
+            this.reader = reader instanceof BufferedReader
+                    ? reader
+                    : new BufferedReader(reader);
+        }
+
+        private int read() throws IOException {
+            if (lookahead != -2) {
+                int c = lookahead;
+                lookahead = -2;
+
+                return c;
+            }
+
+            return reader.read();
+        }
+
+        /**
+         * Reads the next record
+         *
+         * @return The values of the record, or {@code null} at the end of
+         *         the stream
+         */
+        List<String> readRecord() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') {
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            boolean inQuotes = false;
+
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted value");
+                    }
+                    else if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            value.append('"');
+                        }
+                        else {
+                            inQuotes = false;
+                            lookahead = next;
+                        }
+                    }
+                    else {
+                        value.append((char) c);
+                    }
+                }
+                else if (c == '"' && value.isEmpty()) {
+                    inQuotes = true;
+                    quoted = true;
+                }
+                else if (c == ',') {
+                    values.add(quoted || !value.isEmpty()
+                            ? value.toString()
+                            : null);
+                    value.setLength(0);
+                    quoted = false;
+                }
+                else if (c == '\n' || c == '\r' || c == -1) {
+                    values.add(quoted || !value.isEmpty()
+                            ? value.toString()
+                            : null);
+
+                    return values;
+                }
+                else {
+                    value.append((char) c);
+                }
+
+                c = read();
+            }
+        }
+    }
+
+    /**
+     * Carries an error for a row out of the iterator passed to the database
+     */
+    private static class RejectedRow extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final HttpErrorStatus status;
+
+        RejectedRow(HttpErrorStatus status) {
+            super(status.getMessage(), null, false, false);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package net.issachanzi.resteasy.model;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.stream.JsonParser;
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates model instances directly from a stream of JSON, as it is parsed
+ *
+ * <p>
+ *     A binder is compiled once for each model type, with a converter for
+ *     each field that can be set via the REST API, chosen by
+ *     {@link SqlDatatypes#jsonConverter}. Fields are set as each
+ *     value is parsed, so no {@link JsonObject} is built for the request
+ *     body. This gives the same result as the default implementation of
+ *     {@link EasyModel#init(Connection, JsonObject)}, so it is only used for
+ *     models which do not override that method.
+ * </p>
+ *
+ * @param <M> The model class to create instances of
+ */
+class JsonBinder<M extends EasyModel> {
+    private final Class<M> clazz;
+    private final Map<String, FieldBinder> fieldBinders = new HashMap<>();
+
+    /**
+     * Compiles a binder for a model type
+     *
+     * @param clazz The model class to create instances of
+     */
+    JsonBinder(Class<M> clazz) {
+        this.clazz = clazz;
+
+        for (var httpField : ModelType.get(clazz).httpFields()) {
+            if (httpField.canSet()) {
+                fieldBinders.put(httpField.name(), fieldBinder(httpField));
+            }
+        }
+    }
+
+    /**
+     * Creates a model instance from a JSON object
+     *
+     * @param db The database connection to use to look up associated model
+     *           instances, which is locked only for each lookup
+     * @param json The stream to read the JSON object from
+     * @return The new model instance
+     * @throws SQLException If looking up an associated model instance fails
+     * @throws IllegalArgumentException If a value is not valid for its field
+     * @throws jakarta.json.JsonException If the JSON is malformed, or is not
+     *                                    an object
+     */
+    M bind(Connection db, InputStream json) throws SQLException {
+        M model = newInstance();
+
+        try (JsonParser parser = Json.createParser(json)) {
+            if (!parser.hasNext() || parser.next() != JsonParser.Event.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+
+            while (parser.hasNext()) {
+                var event = parser.next();
+                if (event == JsonParser.Event.END_OBJECT) {
+                    break;
+                }
+
+                String name = parser.getString();
+                var valueEvent = parser.next();
+                var fieldBinder = fieldBinders.get(name);
+
+                if (fieldBinder == null) {
+                    skip(parser, valueEvent);
+                    continue;
+                }
+
+                try {
+                    fieldBinder.bind(db, parser, model);
+                } catch (HttpErrorStatus ignored) {
+                    // As in EasyModel.init, fields rejected by a custom
+                    // setter are left unset
+                }
+            }
+        }
+
+        return model;
+    }
+
+    private M newInstance() {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (
+                InstantiationException |
+                IllegalAccessException |
+                InvocationTargetException |
+                NoSuchMethodException e
+        ) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void skip(JsonParser parser, JsonParser.Event event) {
+        if (event == JsonParser.Event.START_OBJECT) {
+            parser.skipObject();
+        }
+        else if (event == JsonParser.Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+
+    private static FieldBinder fieldBinder(HttpField<?> httpField) {
+        var converter = SqlDatatypes.jsonConverter(
+                httpField.name(),
+                httpField.type()
+        );
+
+        return (db, parser, model) -> httpField.set(
+                model,
+                converter.convert(db, parser.getValue())
+        );
+    }
+
+    /**
+     * Converts the current value of a parser and sets it on a model instance
+     */
+    @FunctionalInterface
+    private interface FieldBinder {
+        void bind(Connection db, JsonParser parser, EasyModel model)
+                throws SQLException, HttpErrorStatus;
+    }
+}
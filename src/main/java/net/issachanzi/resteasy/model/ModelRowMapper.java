@@ -0,0 +1,163 @@
+package net.issachanzi.resteasy.model;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Creates model instances directly from the rows of a {@link ResultSet}
+ *
+ * <p>
+ *     A mapper is compiled once for each list of selected columns of a model,
+ *     and cached by its {@link ModelType}. Each column is read by its index
+ *     with a getter for its type, and written straight into the field of a
+ *     new model instance, so no intermediate {@code Map} is created for each
+ *     row, and primitive fields are set without boxing.
+ * </p>
+ *
+ * @param <M> The model class to create instances of
+ */
+class ModelRowMapper<M extends EasyModel> implements BasicDao.RowMapper<M> {
+    private final Constructor<M> constructor;
+    private final ColumnReader[] readers;
+
+    /**
+     * Compiles a mapper for some columns of a model's table
+     *
+     * @param clazz The model class to create instances of
+     * @param columns The names of the selected columns, in the order they
+     *                appear in the result set
+     */
+    ModelRowMapper(Class<M> clazz, List<String> columns) {
+        try {
+            this.constructor = clazz.getDeclaredConstructor();
+            this.constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+
+        Map<String, Field> fields = new HashMap<>();
+        for (var field : ModelType.get(clazz).primitivePersistentFields()) {
+            fields.put(field.getName(), field);
+        }
+
+        this.readers = new ColumnReader[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            Field field = fields.get(columns.get(i));
+            if (field == null) {
+                throw new IllegalArgumentException(
+                        "Unknown column " + columns.get(i)
+                );
+            }
+
+            field.setAccessible(true);
+            readers[i] = reader(field);
+        }
+    }
+
+    @Override
+    public M map(ResultSet rs) throws SQLException {
+        try {
+            M model = constructor.newInstance();
+
+            for (int i = 0; i < readers.length; i++) {
+                readers[i].read(rs, i + 1, model);
+            }
+
+            return model;
+        } catch (
+                InstantiationException |
+                IllegalAccessException |
+                InvocationTargetException e
+        ) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ColumnReader reader(Field field) {
+        Class<?> type = field.getType();
+
+        if (type == int.class) {
+            return (rs, i, model) -> field.setInt(model, rs.getInt(i));
+        }
+        else if (type == long.class) {
+            return (rs, i, model) -> field.setLong(model, rs.getLong(i));
+        }
+        else if (type == float.class) {
+            return (rs, i, model) -> field.setFloat(model, rs.getFloat(i));
+        }
+        else if (type == double.class) {
+            return (rs, i, model) -> field.setDouble(model, rs.getDouble(i));
+        }
+        else if (type == boolean.class) {
+            return (rs, i, model) -> field.setBoolean(model, rs.getBoolean(i));
+        }
+        else if (type == Integer.class) {
+            return (rs, i, model) -> {
+                int value = rs.getInt(i);
+                field.set(model, rs.wasNull() ? null : value);
+            };
+        }
+        else if (type == Long.class) {
+            return (rs, i, model) -> {
+                long value = rs.getLong(i);
+                field.set(model, rs.wasNull() ? null : value);
+            };
+        }
+        else if (type == Float.class) {
+            return (rs, i, model) -> {
+                float value = rs.getFloat(i);
+                field.set(model, rs.wasNull() ? null : value);
+            };
+        }
+        else if (type == Double.class) {
+            return (rs, i, model) -> {
+                double value = rs.getDouble(i);
+                field.set(model, rs.wasNull() ? null : value);
+            };
+        }
+        else if (type == Boolean.class) {
+            return (rs, i, model) -> {
+                boolean value = rs.getBoolean(i);
+                field.set(model, rs.wasNull() ? null : value);
+            };
+        }
+        else if (type == UUID.class) {
+            // Ids are stored as text, so they can't be read as UUIDs
+            return (rs, i, model) -> {
+                String value = rs.getString(i);
+                field.set(model, value == null ? null : UUID.fromString(value));
+            };
+        }
+        else if (type == String.class) {
+            return (rs, i, model) -> field.set(model, rs.getString(i));
+        }
+        else if (type == java.sql.Date.class) {
+            return (rs, i, model) -> field.set(model, rs.getDate(i));
+        }
+        else if (type == java.sql.Time.class) {
+            return (rs, i, model) -> field.set(model, rs.getTime(i));
+        }
+        else if (type == java.sql.Timestamp.class) {
+            return (rs, i, model) -> field.set(model, rs.getTimestamp(i));
+        }
+        else {
+            return (rs, i, model) -> field.set(model, rs.getObject(i));
+        }
+    }
+
+    /**
+     * Reads one column of a row into a field of a model instance
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+        void read(ResultSet rs, int index, Object model)
+                throws SQLException, IllegalAccessException;
+    }
+}
@@ -6,15 +6,19 @@ import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
 import net.issachanzi.resteasy.model.annotation.CustomMethod;
 import net.issachanzi.resteasy.model.annotation.NoHttp;
 import net.issachanzi.resteasy.model.annotation.NoPersist;
+import net.issachanzi.resteasy.model.annotation.Version;
 import net.issachanzi.resteasy.model.association.Association;
 
-import java.io.StringReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.lang.reflect.Field;
 
 import static net.issachanzi.resteasy.model.HttpField.isPublic;
@@ -27,6 +31,14 @@ public class ModelType {
     private Association [] associations;
     private Map <Field, HttpField <?>>  httpFields = new HashMap<>();
     private Map <String, Method> customMethods = new HashMap<> ();
+    private Map <String, CustomMethodInvoker> customMethodInvokers
+            = new HashMap<> ();
+    private final Map <List <String>, ModelRowMapper <?>> rowMappers
+            = new ConcurrentHashMap<>();
+    private volatile JsonBinder <?> jsonBinder;
+    private final Field versionField;
+    private final boolean overridesInit;
+    private final boolean customAuthorization;
 
     private ModelType (Class <? extends EasyModel> clazz) {
         // TODO
@@ -34,6 +46,9 @@ public class ModelType {
 
         setupHttpFields();
         setupCustomMethods();
+        this.versionField = findVersionField();
+        this.overridesInit = findInitOverride();
+        this.customAuthorization = findAuthorizeOverride();
 
         modelTypes.put (clazz, this);
     }
@@ -47,7 +62,12 @@ public class ModelType {
         }
     }
 
-    Collection <HttpField <?>> httpFields() {
+    /**
+     * Gets the fields of this model exposed via the REST API
+     *
+     * @return The fields which have a getter, a setter, or both
+     */
+    public Collection <HttpField <?>> httpFields() {
         // Return all fields that **do not** have a @NoHttp annotation
         return Collections.unmodifiableCollection(httpFields.values());
     }
@@ -106,10 +126,72 @@ public class ModelType {
             SQLException,
             HttpErrorStatus
     {
-        var reader = Json.createReader (new StringReader(json));
-        var jsonObject = reader.readObject();
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
 
-        return fromJson (db, jsonObject);
+        return fromJson (db, new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Instantiate a model based on its data in JSON format, read from a
+     * stream
+     *
+     * <p>
+     *     Unless the model overrides
+     *     {@link EasyModel#init(Connection, JsonObject)}, fields are set as
+     *     the JSON is parsed, without building a {@code JsonObject}.
+     * </p>
+     *
+     * <p>
+     *     The request body is read without holding the lock on {@code db},
+     *     which is only taken while associated model instances are looked
+     *     up.
+     * </p>
+     *
+     * @param db Database connection to use to perform queries
+     * @param json The stream to read JSON data from
+     * @return The new model, populated with the supplied JSON data
+     */
+    public EasyModel fromJson (
+            Connection db,
+            InputStream json
+    ) throws
+            InvocationTargetException,
+            NoSuchMethodException,
+            InstantiationException,
+            IllegalAccessException,
+            SQLException,
+            HttpErrorStatus
+    {
+        if (overridesInit) {
+            var reader = Json.createReader (json);
+            var jsonObject = reader.readObject();
+
+            synchronized (db) {
+                return fromJson (db, jsonObject);
+            }
+        }
+
+        if (jsonBinder == null) {
+            jsonBinder = new JsonBinder<>(clazz);
+        }
+
+        return jsonBinder.bind(db, json);
+    }
+
+    private boolean findInitOverride () {
+        for (
+                Class<?> c = clazz;
+                c != EasyModel.class && c != null;
+                c = c.getSuperclass()
+        ) {
+            try {
+                c.getDeclaredMethod("init", Connection.class, JsonObject.class);
+
+                return true;
+            } catch (NoSuchMethodException ignored) {}
+        }
+
+        return false;
     }
 
     /**
@@ -173,6 +255,74 @@ public class ModelType {
         return result;
     }
 
+    /**
+     * Gets the row mapper for some columns of this model's table, compiling
+     * it the first time those columns are selected
+     *
+     * @param columns The names of the columns requested from
+     *                {@link BasicDao}
+     * @return The row mapper
+     * @param <M> The model class of this model type
+     */
+    @SuppressWarnings("unchecked")
+    <M extends EasyModel> ModelRowMapper<M> rowMapper(
+            Collection<String> columns
+    ) {
+        return (ModelRowMapper<M>) rowMappers.computeIfAbsent(
+                BasicDao.selectedColumns(columns),
+                selected -> new ModelRowMapper<>(clazz, selected)
+        );
+    }
+
+    /**
+     * Gets the field annotated with {@link Version}, which holds the version
+     * of each model instance
+     *
+     * @return The version field, or {@code null} if this model isn't
+     *         versioned
+     */
+    public Field versionField() {
+        return versionField;
+    }
+
+    private Field findVersionField() {
+        for (var field : primitivePersistentFields()) {
+            if (field.getAnnotation(Version.class) == null) {
+                continue;
+            }
+            if (field.getType() != long.class && field.getType() != int.class) {
+                throw new IllegalArgumentException(
+                        "Version field " + field.getName()
+                        + " must be a long or int"
+                );
+            }
+
+            field.setAccessible(true);
+            return field;
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the version of a model instance
+     *
+     * @param model The model instance
+     * @return The value of the model instance's version field, or
+     *         {@code null} if this model isn't versioned
+     */
+    public Long version(EasyModel model) {
+        if (versionField == null) {
+            return null;
+        }
+
+        try {
+            return ((Number) versionField.get(model)).longValue();
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public List<Field> primitivePersistentFields() {
         List<Field> result = new LinkedList<>();
         var fields = persistentFields();
@@ -248,13 +398,30 @@ public class ModelType {
     private void setupCustomMethods() {
         Arrays.stream(clazz.getDeclaredMethods())
             .filter(method -> method.getAnnotation(CustomMethod.class) != null)
-            .forEach(method -> this.customMethods.put(method.getName(), method));
+            .forEach(method -> {
+                this.customMethods.put(method.getName(), method);
+                this.customMethodInvokers.put(
+                        method.getName(),
+                        new CustomMethodInvoker(method)
+                );
+            });
     }
 
     public Method customMethod (String methodName) {
         return customMethods.get(methodName);
     }
 
+    /**
+     * Gets the invoker compiled for a custom method of this model
+     *
+     * @param methodName The name of the custom method
+     * @return The invoker, or {@code null} if there is no custom method with
+     *         that name
+     */
+    public CustomMethodInvoker customMethodInvoker (String methodName) {
+        return customMethodInvokers.get(methodName);
+    }
+
     public Collection <Method> customMethods () {
         return Collections.unmodifiableCollection(customMethods.values());
     }
@@ -271,4 +438,30 @@ public class ModelType {
     public Class<? extends EasyModel> modelClass() {
         return clazz;
     }
+
+    /**
+     * Checks whether the model class overrides
+     * {@link EasyModel#authorize(Connection, String, AccessType)}
+     *
+     * @return {@code true} if access to the model is restricted by custom
+     *         authorisation code, {@code false} if any access is allowed
+     */
+    public boolean hasCustomAuthorization() {
+        return customAuthorization;
+    }
+
+    private boolean findAuthorizeOverride() {
+        try {
+            var authorize = clazz.getMethod(
+                    "authorize",
+                    Connection.class,
+                    String.class,
+                    AccessType.class
+            );
+
+            return authorize.getDeclaringClass() != EasyModel.class;
+        } catch (NoSuchMethodException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 }
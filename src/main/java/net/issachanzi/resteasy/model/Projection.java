@@ -0,0 +1,303 @@
+package net.issachanzi.resteasy.model;
+
+import net.issachanzi.resteasy.model.association.Association;
+
+import java.util.*;
+
+/**
+ * A selection of the fields of a model to load from the database and expose
+ * via the REST API, and of the associations to expand
+ *
+ * <p>
+ *     Only the columns of the selected fields are queried, and associations
+ *     that are not selected are not loaded at all. The {@code id} field is
+ *     always selected.
+ * </p>
+ *
+ * <p>
+ *     Selected associations which are not expanded are loaded lazily, as
+ *     model instances with only their id populated, read directly from the
+ *     foreign key or join table. Expanded associations are loaded in full,
+ *     using a nested projection, and are displayed as nested objects rather
+ *     than ids.
+ * </p>
+ */
+public class Projection {
+    /**
+     * The maximum depth of nested associations that can be expanded
+     */
+    public static final int MAX_INCLUDE_DEPTH = 3;
+
+    /**
+     * A projection selecting every field of a model, and eagerly loading
+     * every association recursively without expanding them.
+     */
+    public static final Projection ALL = new Projection(null, Map.of(), true);
+
+    private final Set<String> fields;
+    private final Map<String, Projection> includes;
+    private final boolean eager;
+
+    /**
+     * Constructs a projection selecting the specified fields, with
+     * associations loaded lazily
+     *
+     * @param fields The names of the fields to select, or {@code null} to
+     *               select all fields
+     */
+    public Projection(Set<String> fields) {
+        this(fields, Map.of());
+    }
+
+    /**
+     * Constructs a projection selecting the specified fields and expanding
+     * the specified associations
+     *
+     * @param fields The names of the fields to select, or {@code null} to
+     *               select all fields
+     * @param includes A map with a key of the name of each association to
+     *                 expand, with a value of the projection to load the
+     *                 associated model instances with
+     */
+    public Projection(Set<String> fields, Map<String, Projection> includes) {
+        this(fields, includes, false);
+    }
+
+    private Projection(
+            Set<String> fields,
+            Map<String, Projection> includes,
+            boolean eager
+    ) {
+        if (fields == null) {
+            this.fields = null;
+        }
+        else {
+            this.fields = new HashSet<>(fields);
+            this.fields.add("id");
+        }
+        this.includes = Map.copyOf(includes);
+        this.eager = eager;
+    }
+
+    /**
+     * Parses a projection from a comma separated list of field names, such as
+     * the value of a {@code fields} query parameter
+     *
+     * @param fieldList The comma separated list of field names, or
+     *                  {@code null} to select all fields
+     * @param modelType The type of model to select fields of
+     * @return The parsed projection
+     * @throws IllegalArgumentException If a field name is not a field of the
+     *                                  model exposed via the REST API
+     */
+    public static Projection parse(String fieldList, ModelType modelType)
+            throws IllegalArgumentException {
+        return parse(fieldList, null, modelType);
+    }
+
+    /**
+     * Parses a projection from a comma separated list of field names, such as
+     * the value of a {@code fields} query parameter, and a comma separated
+     * list of association paths to expand, such as the value of an
+     * {@code include} query parameter
+     *
+     * <p>
+     *     Association paths are separated by dots, such as
+     *     {@code comments.author}, which expands the {@code comments}
+     *     association and the {@code author} association of each comment.
+     * </p>
+     *
+     * @param fieldList The comma separated list of field names, or
+     *                  {@code null} to select all fields
+     * @param includeList The comma separated list of association paths to
+     *                    expand, or {@code null} to expand none
+     * @param modelType The type of model to select fields of
+     * @return The parsed projection
+     * @throws IllegalArgumentException If a field name is not a field of the
+     *                                  model exposed via the REST API, an
+     *                                  association path does not exist, or
+     *                                  is nested more than
+     *                                  {@link #MAX_INCLUDE_DEPTH} deep
+     */
+    public static Projection parse(
+            String fieldList,
+            String includeList,
+            ModelType modelType
+    ) throws IllegalArgumentException {
+        Set<String> fields = null;
+        if (fieldList != null) {
+            fields = parseFields(fieldList, modelType);
+        }
+
+        List<List<String>> paths = new ArrayList<>();
+        if (includeList != null) {
+            for (String path : includeList.split(",")) {
+                path = path.trim();
+                if (path.isEmpty()) {
+                    continue;
+                }
+
+                var segments = List.of(path.split("\\."));
+                if (segments.size() > MAX_INCLUDE_DEPTH) {
+                    throw new IllegalArgumentException(
+                            "Cannot include " + path + ", "
+                            + "associations can only be included "
+                            + MAX_INCLUDE_DEPTH + " levels deep"
+                    );
+                }
+                paths.add(segments);
+            }
+        }
+
+        return new Projection(fields, parseIncludes(paths, modelType));
+    }
+
+    private static Set<String> parseFields(
+            String fieldList,
+            ModelType modelType
+    ) {
+        Set<String> httpFieldNames = new HashSet<>();
+        for (var httpField : modelType.httpFields()) {
+            if (httpField.canGet()) {
+                httpFieldNames.add(httpField.name());
+            }
+        }
+
+        Set<String> fields = new HashSet<>();
+        for (String fieldName : fieldList.split(",")) {
+            fieldName = fieldName.trim();
+            if (fieldName.isEmpty()) {
+                continue;
+            }
+
+            if (!httpFieldNames.contains(fieldName)) {
+                throw new IllegalArgumentException(
+                        "Unknown field " + fieldName
+                );
+            }
+            fields.add(fieldName);
+        }
+
+        return fields;
+    }
+
+    private static Map<String, Projection> parseIncludes(
+            List<List<String>> paths,
+            ModelType modelType
+    ) {
+        Map<String, List<List<String>>> childPaths = new LinkedHashMap<>();
+        for (var path : paths) {
+            childPaths.computeIfAbsent(path.get(0), k -> new ArrayList<>())
+                    .add(path.subList(1, path.size()));
+        }
+
+        Map<String, Projection> includes = new HashMap<>();
+        for (var name : childPaths.keySet()) {
+            Association association = findAssociation(modelType, name);
+            var otherType = ModelType.get(association.otherType());
+            var nestedPaths = childPaths.get(name)
+                    .stream()
+                    .filter(path -> !path.isEmpty())
+                    .toList();
+
+            includes.put(name, new Projection(
+                    null,
+                    parseIncludes(nestedPaths, otherType)
+            ));
+        }
+
+        return includes;
+    }
+
+    private static Association findAssociation(
+            ModelType modelType,
+            String name
+    ) {
+        for (var association : modelType.associations()) {
+            if (association.name().equals(name)) {
+                return association;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown association " + name);
+    }
+
+    /**
+     * Gets a projection selecting every field, which expands the same
+     * associations as this one
+     *
+     * <p>
+     *     This is used to load model instances in full, such as so access to
+     *     them can be checked, while still only displaying the selected
+     *     fields.
+     * </p>
+     *
+     * @return A projection selecting every field
+     */
+    public Projection allFields() {
+        if (fields == null) {
+            return this;
+        }
+
+        return new Projection(null, includes, eager);
+    }
+
+    /**
+     * Checks whether a field is selected by this projection
+     *
+     * @param fieldName The name of the field to check
+     * @return {@code true} if the field is selected, {@code false} if it is
+     *         not
+     */
+    public boolean includes(String fieldName) {
+        return fields == null || fields.contains(fieldName);
+    }
+
+    /**
+     * Gets the projection to display the model instances of an expanded
+     * association with
+     *
+     * @param associationName The name of the association
+     * @return The nested projection, or {@code null} if the association is
+     *         not expanded
+     */
+    public Projection expanded(String associationName) {
+        return includes.get(associationName);
+    }
+
+    /**
+     * Gets the projection to load the model instances of an association with
+     *
+     * @param associationName The name of the association
+     * @return The projection to load the associated model instances with, or
+     *         {@code null} if only their ids should be loaded
+     */
+    public Projection association(String associationName) {
+        if (includes.containsKey(associationName)) {
+            return includes.get(associationName);
+        }
+        else if (eager) {
+            return ALL;
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the database columns to query for this projection
+     *
+     * @param modelType The type of model to get the columns of
+     * @return The names of the selected columns
+     */
+    Collection<String> columns(ModelType modelType) {
+        var columns = modelType.columnTypes().keySet();
+
+        if (fields == null) {
+            return columns;
+        }
+        else {
+            return columns.stream().filter(fields::contains).toList();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package net.issachanzi.resteasy.model;
 
+import jakarta.json.JsonNumber;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
 
 import java.sql.*;
 import java.util.UUID;
@@ -159,59 +162,165 @@ public class SqlDatatypes {
         }
     }
 
+    /**
+     * Converts a value of a JSON object to a given type
+     *
+     * <p>
+     *     {@code null} is converted to {@code null} for every type other than
+     *     primitive types. Model instances are given by their id, and looked
+     *     up in the database.
+     * </p>
+     *
+     * @param fieldName The name of the value in the JSON object
+     * @param type The type to convert the value to
+     * @param db The database connection to use to look up model instances
+     * @param jsonObject The JSON object holding the value
+     * @return The converted value
+     * @throws IllegalArgumentException If the value is not valid for the type,
+     *                                  or the type is not supported
+     * @throws SQLException If looking up a model instance fails
+     */
     public static Object objectFromJson(
             String fieldName,
             Class<?> type,
             Connection db,
             JsonObject jsonObject
     ) throws SQLException {
+        return jsonConverter(fieldName, type)
+                .convert(db, jsonObject.get(fieldName));
+    }
+
+    /**
+     * Chooses the conversion from a JSON value to a given type, so that it
+     * can be chosen once and used for many values
+     *
+     * <p>
+     *     This is the one conversion used for request bodies, custom method
+     *     arguments and imports, as described for
+     *     {@link #objectFromJson(String, Class, Connection, JsonObject)}.
+     * </p>
+     *
+     * @param name The name of the value, for error messages
+     * @param type The type to convert values to
+     * @return The conversion
+     */
+    @SuppressWarnings("unchecked")
+    static JsonConverter jsonConverter(String name, Class<?> type) {
+        JsonConverter converter;
+
         if (type == UUID.class) {
-            return UUID.fromString(jsonObject.getString(fieldName));
+            converter = (db, json) -> UUID.fromString(string(json, name));
         }
         else if (type == String.class) {
-            return jsonObject.getString(fieldName);
+            converter = (db, json) -> string(json, name);
         }
         else if (type == boolean.class || type == Boolean.class) {
-            return jsonObject.getBoolean(fieldName);
+            converter = (db, json) -> {
+                if (json == JsonValue.TRUE) {
+                    return true;
+                }
+                else if (json == JsonValue.FALSE) {
+                    return false;
+                }
+
+                throw invalid(name);
+            };
         }
         else if (type == byte.class || type == Byte.class) {
-            return (byte) jsonObject.getInt(fieldName);
+            converter = (db, json) -> (byte) number(json, name).intValue();
         }
         else if (type == short.class || type == Short.class) {
-            return (short) jsonObject.getInt(fieldName);
+            converter = (db, json) -> (short) number(json, name).intValue();
         }
         else if (type == int.class || type == Integer.class) {
-            return jsonObject.getInt(fieldName);
+            converter = (db, json) -> number(json, name).intValue();
         }
         else if (type == long.class || type == Long.class) {
-            return jsonObject.getJsonNumber(fieldName).longValue();
+            converter = (db, json) -> number(json, name).longValue();
         }
         else if (type == float.class || type == Float.class) {
-            return (float) jsonObject.getJsonNumber(fieldName).doubleValue();
+            converter = (db, json) -> number(json, name)
+                    .bigDecimalValue()
+                    .floatValue();
         }
         else if (type == double.class || type == Double.class) {
-            return jsonObject.getJsonNumber(fieldName).doubleValue();
+            converter = (db, json) -> number(json, name).doubleValue();
         }
         else if (type == Date.class) {
-            return new Date(jsonObject.getJsonNumber(fieldName).longValue());
+            converter = (db, json) -> new Date(number(json, name).longValue());
         }
         else if (type == Time.class) {
-            return new Time(jsonObject.getJsonNumber(fieldName).longValue());
+            converter = (db, json) -> new Time(number(json, name).longValue());
         }
         else if (type == Timestamp.class) {
-            return new Timestamp(jsonObject.getJsonNumber(fieldName).longValue());
-        }
-        if (EasyModel.class.isAssignableFrom(type)) {
-            return EasyModel.byId(
-                    db,
-                    UUID.fromString(jsonObject.getString(fieldName)),
-                    (Class<? extends EasyModel>) type
+            converter = (db, json) -> new Timestamp(
+                    number(json, name).longValue()
             );
         }
-        else if (jsonObject.isNull(fieldName)) {
-            return null;
+        else if (EasyModel.class.isAssignableFrom(type)) {
+            var modelClass = (Class<? extends EasyModel>) type;
+            converter = (db, json) -> {
+                var id = UUID.fromString(string(json, name));
+
+                // Only the lookup holds the shared connection's lock
+                synchronized (db) {
+                    return EasyModel.byId(db, id, modelClass);
+                }
+            };
+        }
+        else {
+            converter = (db, json) -> {
+                throw new IllegalArgumentException(
+                        "Unsupported type " + type.getName()
+                );
+            };
+        }
+
+        if (type.isPrimitive()) {
+            return converter;
         }
 
-        throw new IllegalArgumentException("Unsupported type " + type.getName());
+        JsonConverter nonNull = converter;
+        return (db, json) -> json == JsonValue.NULL
+                ? null
+                : nonNull.convert(db, json);
+    }
+
+    private static String string(JsonValue json, String name) {
+        if (json instanceof JsonString string) {
+            return string.getString();
+        }
+
+        throw invalid(name);
+    }
+
+    private static JsonNumber number(JsonValue json, String name) {
+        if (json instanceof JsonNumber number) {
+            return number;
+        }
+
+        throw invalid(name);
+    }
+
+    private static IllegalArgumentException invalid(String name) {
+        return new IllegalArgumentException("Invalid value for " + name);
+    }
+
+    /**
+     * Converts a JSON value to a type chosen ahead of time
+     */
+    @FunctionalInterface
+    interface JsonConverter {
+        /**
+         * Converts a JSON value
+         *
+         * @param db The database connection to use to look up model
+         *           instances
+         * @param json The value to convert, or {@code null} if it is missing
+         * @return The converted value
+         * @throws IllegalArgumentException If the value is not valid
+         * @throws SQLException If looking up a model instance fails
+         */
+        Object convert(Connection db, JsonValue json) throws SQLException;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package net.issachanzi.resteasy.model;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown when a model instance with a {@link
+ * net.issachanzi.resteasy.model.annotation.Version} field can't be saved or
+ * deleted, because it has been changed or deleted since it was read
+ */
+public class VersionConflictException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a {@code VersionConflictException}
+     *
+     * @param message A description of the conflict
+     */
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -8,7 +8,62 @@ import java.lang.annotation.Target;
 /**
  * Marks a method in an EasyModel subclass that should be exposed as a custom
  * HTTP endpoint
+ *
+ * <p>
+ *     A custom method which takes a long time can be made {@link #async()},
+ *     so the request returns {@code 202 Accepted} straight away, with the URL
+ *     of a job which the client can poll for the result. A custom method
+ *     which is called often with the same arguments can have its result
+ *     cached for a {@link #cacheTtl()}.
+ * </p>
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
-public @interface CustomMethod {}
+public @interface CustomMethod {
+    /**
+     * Whether the method runs in the background, rather than while the
+     * client waits for the response
+     *
+     * @return {@code true} to run the method in the background
+     */
+    boolean async() default false;
+
+    /**
+     * The maximum number of calls to the method which can run in the
+     * background at once, if it is {@link #async()}. Further calls are queued
+     * until one finishes.
+     *
+     * @return The maximum number of calls running at once
+     */
+    int concurrency() default 1;
+
+    /**
+     * How long the result of the method is cached for, in seconds, or 0 if
+     * it isn't cached
+     *
+     * <p>
+     *     Results are cached for each model instance and set of arguments,
+     *     and dropped when the model instance is saved or deleted. Only
+     *     methods whose result depends on nothing but their model instance
+     *     and their arguments, such as reports computed from its fields,
+     *     should be cached.
+     * </p>
+     *
+     * <p>
+     *     For models which don't override
+     *     {@link net.issachanzi.resteasy.model.EasyModel#authorize}, a cached
+     *     result is returned without reading the model instance at all, so
+     *     only changes made through
+     *     {@link net.issachanzi.resteasy.model.EasyModel#save} and
+     *     {@link net.issachanzi.resteasy.model.EasyModel#delete} are seen.
+     *     An {@code _import} drops every cached result of the model, but
+     *     changes made with SQL outside of the model, such as by another
+     *     application or a custom method running its own statements, are
+     *     not seen, and stale results are returned until the time to live
+     *     has passed.
+     * </p>
+     *
+     * @return The time to live of cached results, in seconds
+     */
+    int cacheTtl() default 0;
+}
@@ -0,0 +1,23 @@
+package net.issachanzi.resteasy.model.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code long} or {@code int} field in an EasyModel subclass which
+ * holds the version of each model instance, for optimistic concurrency
+ *
+ * <p>
+ *     The version is set to 1 when a model instance is first saved, and
+ *     incremented each time it is saved after that. A model instance can only
+ *     be saved or deleted if its version has not changed since it was read,
+ *     so concurrent changes are detected without locking. The version is
+ *     exposed via the REST API as the {@code ETag} of the model instance, and
+ *     can't be set by clients.
+ * </p>
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Version { }
@@ -1,15 +1,13 @@
 package net.issachanzi.resteasy.model.association;
 
 import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.Projection;
 import net.issachanzi.resteasy.model.annotation.NoPersist;
 
 import java.lang.reflect.*;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Stack;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Stream;
 
 /**
@@ -69,6 +67,24 @@ public abstract class Association {
         return (Class<?>) componentType;
     }
 
+    /**
+     * Gets the name of the field this association is stored in
+     *
+     * @return The name of the field
+     */
+    public String name () {
+        return field.getName();
+    }
+
+    /**
+     * Gets the model class on the other side of this association
+     *
+     * @return The other model class
+     */
+    public Class<? extends EasyModel> otherType () {
+        return getOtherType(field);
+    }
+
     /**
      * Sets up the database to store the association.
      *
@@ -98,6 +114,98 @@ public abstract class Association {
             Stack<EasyModel> chain
     ) throws SQLException;
 
+    /**
+     * For multiple model instances of the same class, fetches the associated
+     * model instances from the database and populates the given model
+     * instances with them.
+     *
+     * <p>
+     *     Unlike calling {@link #load(Connection, EasyModel, Stack)} for each
+     *     model instance, this runs a fixed number of queries regardless of
+     *     how many model instances are given.
+     * </p>
+     *
+     * <p>
+     *     If {@code projection} is {@code null}, the associated model
+     *     instances are not queried. Instead, they are populated with model
+     *     instances with only their id set.
+     * </p>
+     *
+     * @param db The database connection to use
+     * @param models The model instances to populate associations for
+     * @param projection The projection to load the associated model instances
+     *                   with, or {@code null} to only load their ids
+     * @param chain Model instances to break recursion on
+     * @throws SQLException If a database query fails
+     */
+    public void loadAll (
+            Connection db,
+            List<? extends EasyModel> models,
+            Projection projection,
+            Stack<EasyModel> chain
+    ) throws SQLException {
+        if (models.isEmpty()) {
+            return;
+        }
+
+        List<UUID> ids = models.stream().map(model -> model.id).toList();
+        Map<UUID, List<UUID>> associatedIds = associatedIds(db, ids);
+        List<UUID> otherIds = associatedIds.values()
+                .stream()
+                .flatMap(List::stream)
+                .distinct()
+                .toList();
+
+        Map<UUID, EasyModel> others = new HashMap<>();
+        List<? extends EasyModel> otherModels;
+        if (projection != null) {
+            otherModels = EasyModel.byIds(
+                    db,
+                    otherIds,
+                    otherType(),
+                    projection,
+                    chain
+            );
+        }
+        else {
+            otherModels = EasyModel.references(otherIds, otherType());
+        }
+        for (var other : otherModels) {
+            others.put(other.id, other);
+        }
+
+        for (var model : models) {
+            List<EasyModel> values = associatedIds
+                    .getOrDefault(model.id, List.of())
+                    .stream()
+                    .map(others::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            if (isMultiple(field)) {
+                setMany(model, values);
+            }
+            else if (!values.isEmpty()) {
+                setOne(model, values.get(0));
+            }
+        }
+    }
+
+    /**
+     * For multiple model instances, fetches the ids of the model instances
+     * associated with each of them.
+     *
+     * @param db The database connection to use
+     * @param ids The ids of the model instances to fetch associations for
+     * @return A map with a key of each id in {@code ids} that has
+     * associations, with a value of the ids of the associated model instances
+     * @throws SQLException If a database query fails
+     */
+    protected abstract Map<UUID, List<UUID>> associatedIds (
+            Connection db,
+            Collection<UUID> ids
+    ) throws SQLException;
+
     @SuppressWarnings("unchecked")
     protected void loadManyByUuid(
         Connection db,
@@ -107,27 +215,35 @@ public abstract class Association {
     ) throws SQLException {
         Class<? extends EasyModel> componentType
             = (Class<? extends EasyModel>) getComponentType(field);
-        if (field.getType().isArray()) {
 
-            Object value = Array.newInstance(componentType, uuids.length);
-            for (int i = 0; i < uuids.length; i++) {
-                EasyModel v = EasyModel.byId (
-                        db,
-                        uuids[i],
-                        componentType,
-                        chain
-                );
+        List<EasyModel> values = new ArrayList<>(uuids.length);
+        for (UUID uuid : uuids) {
+            values.add(EasyModel.byId(db, uuid, componentType, chain));
+        }
 
-                Array.set(value, i, v);
-            }
+        setMany(model, values);
+    }
 
-            try {
-                field.setAccessible(true);
-                field.set(model, value);
-                field.setAccessible(false);
-            } catch (IllegalAccessException | ClassCastException e) {
-                throw new RuntimeException(e);
+    private void setOne(EasyModel model, Object value) {
+        try {
+            field.setAccessible(true);
+            field.set(model, value);
+            field.setAccessible(false);
+        } catch (IllegalAccessException | ClassCastException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setMany(EasyModel model, List<EasyModel> values) {
+        Class<?> componentType = getComponentType(field);
+        if (field.getType().isArray()) {
+            Object value = Array.newInstance(componentType, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                Array.set(value, i, values.get(i));
             }
+
+            setOne(model, value);
         }
         else if (Collection.class.isAssignableFrom(field.getType())) {
             try {
@@ -137,24 +253,9 @@ public abstract class Association {
                 field.setAccessible(false);
 
                 collection.clear();
-                for (UUID uuid : uuids) {
-                    EasyModel element = EasyModel.byId(
-                            db,
-                            uuid,
-                            componentType,
-                            chain
-                    );
-                    // You can't add anything to a Collection with a wildcard in
-                    // the type parameter, so I have to cast to a raw Collection
-                    ((Collection) collection).add(element);
-
-//                    // I thought I was so clever with this, but it turns out
-                      // that there is a more elegant way of doing this
-//                    Method addMethod = collection
-//                            .getClass()
-//                            .getMethod("add", componentType);
-//                    addMethod.invoke(collection, element);
-                }
+                // You can't add anything to a Collection with a wildcard in
+                // the type parameter, so I have to cast to a raw Collection
+                ((Collection) collection).addAll(values);
             }
             catch (IllegalAccessException |
                    ClassCastException e) {
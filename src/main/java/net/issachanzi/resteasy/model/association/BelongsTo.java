@@ -5,8 +5,7 @@ import net.issachanzi.resteasy.model.EasyModel;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Stack;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * One side of a one-to-one or one-to-many association.
@@ -66,6 +65,16 @@ public class BelongsTo extends Association {
         }
     }
 
+    @Override
+    protected Map<UUID, List<UUID>> associatedIds (
+            Connection db,
+            Collection<UUID> ids
+    ) throws SQLException {
+        var dao = getDao(db);
+
+        return dao.getForeignByPrimaries(ids);
+    }
+
     @Override
     public void save(Connection db, EasyModel model) throws SQLException {
         var dao = getDao(db);
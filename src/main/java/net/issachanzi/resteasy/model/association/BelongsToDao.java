@@ -3,10 +3,10 @@ package net.issachanzi.resteasy.model.association;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.UUID;
-import java.util.Vector;
+import java.util.*;
 
 import static net.issachanzi.resteasy.model.BasicDao.escape;
+import static net.issachanzi.resteasy.model.BasicDao.idArray;
 
 /**
  * Data access object for performing database queries on associations where one side
@@ -141,6 +141,24 @@ public class BelongsToDao {
         }
     }
 
+    /**
+     * Retrieves the foreign keys stored in multiple rows in a single query
+     *
+     * @param primaryKeys The primary keys of the rows to query
+     * @return A map with a key of each primary key whose row contains a
+     * foreign key, with a value of a list containing that foreign key
+     * @throws SQLException If a query fails
+     */
+    public Map<UUID, List<UUID>> getForeignByPrimaries (
+            Collection<UUID> primaryKeys
+    ) throws SQLException {
+        String sql  = "SELECT id, " + columnName + " "
+                + "FROM " + tableName + " "
+                + "WHERE id = ANY (?) AND " + columnName + " IS NOT NULL";
+
+        return queryKeyPairs(sql, primaryKeys);
+    }
+
     /**
      * Converts a string to a UUID, while propagating a {@code null} value
      *
@@ -217,6 +235,55 @@ public class BelongsToDao {
         return primaryKeys.toArray(new UUID[0]);
     }
 
+    /**
+     * Gets the primary keys of all rows containing any of the given foreign
+     * keys in a single query
+     *
+     * @param foreignKeys The foreign keys to search for
+     * @return A map with a key of each foreign key found, with a value of the
+     * primary keys of the rows containing it
+     * @throws SQLException If the query fails
+     */
+    public Map<UUID, List<UUID>> getAllPrimaryByForeigns (
+            Collection<UUID> foreignKeys
+    ) throws SQLException {
+        String sql  = "SELECT " + columnName + ", id "
+                + "FROM " + tableName + " "
+                + "WHERE " + columnName + " = ANY (?)";
+
+        return queryKeyPairs(sql, foreignKeys);
+    }
+
+    /**
+     * Runs a query selecting pairs of keys, grouping the second key of each
+     * row by the first
+     */
+    private Map<UUID, List<UUID>> queryKeyPairs (
+            String sql,
+            Collection<UUID> keys
+    ) throws SQLException {
+        Map<UUID, List<UUID>> results = new HashMap<>();
+        if (keys.isEmpty()) {
+            return results;
+        }
+
+        var query = db.prepareStatement(sql);
+        query.setArray(1, idArray(db, keys));
+
+        System.out.println(sql);
+        try (var result = query.executeQuery()) {
+            while (result.next()) {
+                UUID key = uuidFromString(result.getString(1));
+                UUID value = uuidFromString(result.getString(2));
+
+                results.computeIfAbsent(key, k -> new ArrayList<>())
+                        .add(value);
+            }
+        }
+
+        return results;
+    }
+
     private ResultSet queryPrimaryByForeign(UUID foreignKey) throws SQLException {
         String sql  = "SELECT id "
                 + "FROM " + tableName + " "
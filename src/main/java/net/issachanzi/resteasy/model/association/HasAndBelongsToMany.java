@@ -6,9 +6,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Collection;
-import java.util.Stack;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * A many-to-many association
@@ -68,6 +66,16 @@ public class HasAndBelongsToMany extends Association {
         loadManyByUuid(db, model, chain, uuids);
     }
 
+    @Override
+    protected Map<UUID, List<UUID>> associatedIds (
+            Connection db,
+            Collection<UUID> ids
+    ) throws SQLException {
+        var dao = getDao(db);
+
+        return dao.getAssociations(ids);
+    }
+
     @Override
     public void save(Connection db, EasyModel model) throws SQLException {
         try {
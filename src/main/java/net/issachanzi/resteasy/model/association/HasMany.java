@@ -6,10 +6,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Stack;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * One side of a many-to-one association. The other side should be a
@@ -65,6 +62,16 @@ public class HasMany extends Association {
         loadManyByUuid(db, model, chain, uuids);
     }
 
+    @Override
+    protected Map<UUID, List<UUID>> associatedIds (
+            Connection db,
+            Collection<UUID> ids
+    ) throws SQLException {
+        var dao = getDao(db);
+
+        return dao.getAllPrimaryByForeigns(ids);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void save (Connection db, EasyModel model) throws SQLException {
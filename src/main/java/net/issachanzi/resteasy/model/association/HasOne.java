@@ -5,9 +5,7 @@ import net.issachanzi.resteasy.model.EasyModel;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Arrays;
-import java.util.Stack;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * One side of a many-to-one association. The other side should be a
@@ -78,6 +76,16 @@ public class HasOne extends Association {
         }
     }
 
+    @Override
+    protected Map<UUID, List<UUID>> associatedIds (
+            Connection db,
+            Collection<UUID> ids
+    ) throws SQLException {
+        var dao = getDao(db);
+
+        return dao.getAllPrimaryByForeigns(ids);
+    }
+
     @Override
     public void save (Connection db, EasyModel model) throws SQLException {
         try {
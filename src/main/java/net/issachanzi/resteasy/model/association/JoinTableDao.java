@@ -2,10 +2,10 @@ package net.issachanzi.resteasy.model.association;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.UUID;
-import java.util.Vector;
+import java.util.*;
 
 import static net.issachanzi.resteasy.model.BasicDao.escape;
+import static net.issachanzi.resteasy.model.BasicDao.idArray;
 
 /**
  * Data access object for performing database queries on many-to-many
@@ -117,6 +117,44 @@ public class JoinTableDao {
         return uuids.toArray(new UUID[0]);
     }
 
+    /**
+     * Gets the associations of multiple model instances in a single query
+     *
+     * @param thisIds The ids of the model instances to query associations of
+     * @return A map with a key of each id in {@code thisIds} that has
+     * associations, with a value of the ids of the associated model instances
+     * @throws SQLException If a query fails
+     */
+    public Map<UUID, List<UUID>> getAssociations (Collection<UUID> thisIds)
+            throws SQLException {
+        Map<UUID, List<UUID>> results = new HashMap<>();
+        if (thisIds.isEmpty()) {
+            return results;
+        }
+
+        String sql  = "SELECT "
+                    +   escape (thisModelName) + ", "
+                    +   escape (otherModelName) + " "
+                    + "FROM " + tableName + " "
+                    + "WHERE " + escape (thisModelName) + " = ANY (?)";
+
+        var query = db.prepareStatement(sql);
+        query.setArray(1, idArray(db, thisIds));
+
+        System.out.println(sql);
+        try (var result = query.executeQuery()) {
+            while (result.next()) {
+                UUID thisId = UUID.fromString(result.getString(1));
+                UUID otherId = UUID.fromString(result.getString(2));
+
+                results.computeIfAbsent(thisId, k -> new ArrayList<>())
+                        .add(otherId);
+            }
+        }
+
+        return results;
+    }
+
     /**
      * Deletes rows from the join table where the column given by
      * {@code thisModelName} contains the id given by {@code thisId}
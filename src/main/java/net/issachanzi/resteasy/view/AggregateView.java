@@ -0,0 +1,67 @@
+package net.issachanzi.resteasy.view;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+
+/**
+ * A view to display the results of counting or aggregating model instances as
+ * JSON, for a REST API
+ *
+ * <p>
+ *     Ungrouped results are displayed as a single object, such as
+ *     {@code {"value": 42}}. Grouped results are displayed as an array with an
+ *     object for each group, such as
+ *     {@code [{"done": false, "value": 3}, {"done": true, "value": 5}]}.
+ * </p>
+ */
+public class AggregateView {
+    private final JsonValue json;
+
+    /**
+     * Constructs an AggregateView for a single value
+     *
+     * @param name The key to display the value with
+     * @param value The value to display
+     */
+    public AggregateView(String name, Object value) {
+        this.json = Json.createObjectBuilder()
+                .add(name, EasyView.jsonValue(value))
+                .build();
+    }
+
+    /**
+     * Constructs an AggregateView for the rows returned by an aggregate query
+     *
+     * @param rows The rows returned by the query, each with a key of
+     *             {@code value}, and a key of {@code groupBy} if it is not
+     *             {@code null}
+     * @param groupBy The name of the field the rows are grouped by, or
+     *                {@code null} if they are not grouped
+     */
+    public AggregateView(List<Map<String, Object>> rows, String groupBy) {
+        if (groupBy == null) {
+            Object value = rows.isEmpty() ? null : rows.get(0).get("value");
+
+            this.json = new AggregateView("value", value).json;
+        }
+        else {
+            var builder = Json.createArrayBuilder();
+
+            for (var row : rows) {
+                builder.add(Json.createObjectBuilder()
+                        .add(groupBy, EasyView.jsonValue(row.get(groupBy)))
+                        .add("value", EasyView.jsonValue(row.get("value")))
+                );
+            }
+
+            this.json = builder.build();
+        }
+    }
+
+    public String toString () {
+        return this.json.toString();
+    }
+}
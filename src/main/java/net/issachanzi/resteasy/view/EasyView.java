@@ -1,12 +1,16 @@
 package net.issachanzi.resteasy.view;
 
 import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.Projection;
 
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Collection;
+import java.util.function.Predicate;
 
 import jakarta.json.Json;
 import jakarta.json.JsonValue;
@@ -15,7 +19,7 @@ import jakarta.json.JsonValue;
  * A view to display EasyModel instances as JSON, for a REST API
  */
 public class EasyView {
-    private final JsonValue json;
+    private final byte[] json;
 
     /**
      * Constructs an EasyView for a single model instance
@@ -34,14 +38,57 @@ public class EasyView {
      * @param <M> The type of model to be displayed
      */
     public <M extends EasyModel> EasyView(Collection<M> models) {
-        var builder = Json.createArrayBuilder();
+        this (models, Projection.ALL);
+    }
+
+    /**
+     * Constructs an EasyView for some fields of a collection of multiple
+     * model instances
+     *
+     * @param models The model instances to display in the view
+     * @param projection The fields of each model instance to display
+     * @param <M> The type of model to be displayed
+     */
+    public <M extends EasyModel> EasyView(
+            Collection<M> models,
+            Projection projection
+    ) {
+        this (models, projection, model -> true);
+    }
 
+    /**
+     * Constructs an EasyView for some fields of a collection of multiple
+     * model instances, leaving out associated model instances that the
+     * client can't read
+     *
+     * @param models The model instances to display in the view
+     * @param projection The fields of each model instance to display
+     * @param readable Checks whether each model instance of an expanded
+     *                 association can be read by the client
+     * @param <M> The type of model to be displayed
+     */
+    public <M extends EasyModel> EasyView(
+            Collection<M> models,
+            Projection projection,
+            Predicate<EasyModel> readable
+    ) {
+        var out = JsonOutput.acquire();
+
+        out.writeByte('[');
+        boolean first = true;
         for (var model : models) {
-            var view = new EasyView (model);
-            builder.add(view.json ());
+            if (!first) {
+                out.writeByte(',');
+            }
+            first = false;
+
+            ModelSerializer.get(model.getClass())
+                    .write(out, model, null, projection, readable);
         }
+        out.writeByte(']');
 
-        this.json = builder.build();
+        this.json = out.toBytes();
+        out.release();
     }
 
     /**
@@ -57,19 +104,70 @@ public class EasyView {
      * @param <M> The type of model to be displayed
      */
     public <M extends EasyModel> EasyView(M model, String authorization) {
-        var fieldValues = model.httpFieldValues(authorization);
+        this (model, authorization, Projection.ALL);
+    }
 
-        var builder = Json.createObjectBuilder();
-        for (var fieldName : fieldValues.keySet()) {
-            Object value = fieldValues.get (fieldName);
+    /**
+     * Constructs an EasyView for some fields of a single model instance
+     *
+     * @param model The model instance to display in the view
+     * @param authorization The value of the {@code Authorization} HTTP header
+     * @param projection The fields of the model instance to display
+     * @param <M> The type of model to be displayed
+     */
+    public <M extends EasyModel> EasyView(
+            M model,
+            String authorization,
+            Projection projection
+    ) {
+        this (model, authorization, projection, other -> true);
+    }
 
-            builder.add(fieldName, jsonValue(value));
-        }
+    /**
+     * Constructs an EasyView for some fields of a single model instance,
+     * leaving out associated model instances that the client can't read
+     *
+     * @param model The model instance to display in the view
+     * @param authorization The value of the {@code Authorization} HTTP header
+     * @param projection The fields of the model instance to display
+     * @param readable Checks whether each model instance of an expanded
+     *                 association can be read by the client
+     * @param <M> The type of model to be displayed
+     */
+    public <M extends EasyModel> EasyView(
+            M model,
+            String authorization,
+            Projection projection,
+            Predicate<EasyModel> readable
+    ) {
+        var out = JsonOutput.acquire();
+
+        ModelSerializer.get(model.getClass())
+                .write(out, model, authorization, projection, readable);
+
+        this.json = out.toBytes();
+        out.release();
+    }
 
-        this.json = builder.build();
+    /**
+     * Compiles the serializer for a model class ahead of time, so the first
+     * request for it is not slowed down
+     *
+     * @param clazz The model class to prepare to display
+     */
+    public static void prepare(Class<? extends EasyModel> clazz) {
+        ModelSerializer.get(clazz);
     }
 
-    private JsonValue jsonValue(Object value) {
+    /**
+     * Converts a single value to JSON
+     *
+     * <p>
+     *     Used for values which are not fields of a model, such as the
+     *     results of aggregate functions.
+     * </p>
+     */
+    static JsonValue jsonValue(Object value) {
         JsonValue jsonValue;
 
         // TODO - refactor into data type classes
@@ -91,6 +189,9 @@ public class EasyView {
         else if (value instanceof Double) {
             jsonValue = Json.createValue ((double) value);
         }
+        else if (value instanceof BigDecimal) {
+            jsonValue = Json.createValue ((BigDecimal) value);
+        }
         else if (value.getClass().isArray()) {
             jsonValue = arrayJsonValue(value);
         }
@@ -115,7 +216,7 @@ public class EasyView {
         return jsonValue;
     }
 
-    private JsonValue arrayJsonValue(Object values) {
+    private static JsonValue arrayJsonValue(Object values) {
         var builder = Json.createArrayBuilder();
 
         var length = Array.getLength(values);
@@ -128,7 +229,7 @@ public class EasyView {
         return builder.build();
     }
 
-    private JsonValue collectionJsonValue (Collection values) {
+    private static JsonValue collectionJsonValue (Collection values) {
         var builder = Json.createArrayBuilder();
 
         for (Object value : values) {
@@ -139,15 +240,15 @@ public class EasyView {
     }
 
     /**
-     * Gets the content of this view as JSON
+     * Gets the content of this view as UTF-8 encoded JSON
      *
      * @return This view rendered as JSON
      */
-    JsonValue json () {
+    public byte[] toBytes () {
         return this.json;
     }
 
     public String toString () {
-        return this.json.toString();
+        return new String(this.json, StandardCharsets.UTF_8);
     }
 }
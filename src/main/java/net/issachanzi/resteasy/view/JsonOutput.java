@@ -0,0 +1,215 @@
+package net.issachanzi.resteasy.view;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable buffer of UTF-8 encoded JSON
+ *
+ * <p>
+ *     Used by {@link ModelSerializer} to write JSON without building a tree
+ *     of {@code JsonValue}s. Buffers are reused between views on the same
+ *     thread, so their capacity only has to grow once. Buffers which grew
+ *     past {@value #MAX_SPARE_CAPACITY} bytes, such as for one very large
+ *     view, are not kept, so each thread doesn't hold on to its largest
+ *     view forever.
+ * </p>
+ */
+class JsonOutput {
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final int MAX_SPARE_CAPACITY = 64 * 1024;
+    private static final byte[] HEX = "0123456789abcdef"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+
+    private static final ThreadLocal<JsonOutput> spare = new ThreadLocal<>();
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int length = 0;
+
+    /**
+     * Takes this thread's spare buffer, or creates a new buffer if it is in
+     * use
+     *
+     * @return An empty buffer, which should be given back with
+     *         {@link #release()} once its contents have been copied
+     */
+    static JsonOutput acquire() {
+        var output = spare.get();
+        if (output == null) {
+            return new JsonOutput();
+        }
+
+        spare.remove();
+        output.length = 0;
+        return output;
+    }
+
+    /**
+     * Gives this buffer back to be reused by the next view on this thread,
+     * unless it has grown too large to keep
+     */
+    void release() {
+        if (buffer.length <= MAX_SPARE_CAPACITY) {
+            spare.set(this);
+        }
+    }
+
+    static byte[] bytes(String ascii) {
+        return ascii.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes a string as a JSON string literal, with quotes
+     *
+     * @param string The string to encode
+     * @return The UTF-8 bytes of the JSON string
+     */
+    static byte[] encodeString(String string) {
+        var output = new JsonOutput();
+        output.writeString(string);
+
+        return output.toBytes();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(
+                    buffer,
+                    Math.max(buffer.length * 2, length + extra)
+            );
+        }
+    }
+
+    void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+    }
+
+    void writeRaw(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    void writeNull() {
+        writeRaw(NULL);
+    }
+
+    void writeBoolean(boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    void writeLong(long value) {
+        writeAscii(Long.toString(value));
+    }
+
+    void writeDouble(double value) {
+        if (Double.isFinite(value)) {
+            writeAscii(Double.toString(value));
+        }
+        else {
+            // JSON has no representation of NaN or infinity
+            writeNull();
+        }
+    }
+
+    /**
+     * Writes an arbitrary precision number, without rounding it
+     *
+     * @param value The number to write
+     */
+    void writeBigNumber(Number value) {
+        if (value instanceof BigDecimal decimal) {
+            writeAscii(decimal.toString());
+        }
+        else {
+            writeAscii(((BigInteger) value).toString());
+        }
+    }
+
+    private void writeAscii(String ascii) {
+        int n = ascii.length();
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            buffer[length++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    /**
+     * Writes a JSON string literal, escaping it as needed
+     *
+     * @param string The string to write
+     */
+    void writeString(String string) {
+        int n = string.length();
+        // Worst case is 6 bytes per char, for control characters
+        ensureCapacity(n * 6 + 2);
+
+        buffer[length++] = '"';
+        for (int i = 0; i < n; i++) {
+            char c = string.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                buffer[length++] = '\\';
+                buffer[length++] = (byte) c;
+            }
+            else if (c < 0x20) {
+                buffer[length++] = '\\';
+                switch (c) {
+                    case '\n' -> buffer[length++] = 'n';
+                    case '\r' -> buffer[length++] = 'r';
+                    case '\t' -> buffer[length++] = 't';
+                    case '\b' -> buffer[length++] = 'b';
+                    case '\f' -> buffer[length++] = 'f';
+                    default -> {
+                        buffer[length++] = 'u';
+                        buffer[length++] = '0';
+                        buffer[length++] = '0';
+                        buffer[length++] = HEX[c >> 4];
+                        buffer[length++] = HEX[c & 0xf];
+                    }
+                }
+            }
+            else if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            }
+            else if (c < 0x800) {
+                buffer[length++] = (byte) (0xc0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3f));
+            }
+            else if (Character.isHighSurrogate(c)
+                    && i + 1 < n
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                buffer[length++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3f));
+            }
+            else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates can't be encoded in UTF-8
+                buffer[length++] = '?';
+            }
+            else {
+                buffer[length++] = (byte) (0xe0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        buffer[length++] = '"';
+    }
+
+    /**
+     * Copies the contents of this buffer
+     *
+     * @return The UTF-8 encoded JSON written to this buffer
+     */
+    byte[] toBytes() {
+        return Arrays.copyOf(buffer, length);
+    }
+}
@@ -0,0 +1,328 @@
+package net.issachanzi.resteasy.view;
+
+import net.issachanzi.resteasy.controller.exception.HttpErrorStatus;
+import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.HttpField;
+import net.issachanzi.resteasy.model.ModelType;
+import net.issachanzi.resteasy.model.Projection;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Writes instances of a model as JSON, with a writer for each field
+ * specialised to the field's type
+ *
+ * <p>
+ *     A serializer is compiled once per model class, and holds the name of
+ *     each field already escaped and encoded as UTF-8. Model instances are
+ *     written straight into a {@link JsonOutput} buffer, without collecting
+ *     their field values into a {@code Map} or building {@code JsonValue}s.
+ * </p>
+ */
+class ModelSerializer {
+    private static final Map<Class<?>, ModelSerializer> serializers
+            = new ConcurrentHashMap<>();
+
+    private final FieldSerializer[] fields;
+
+    private ModelSerializer(Class<? extends EasyModel> clazz) {
+        List<FieldSerializer> fields = new ArrayList<>();
+
+        for (var httpField : ModelType.get(clazz).httpFields()) {
+            if (httpField.canGet()) {
+                fields.add(new FieldSerializer(
+                        httpField,
+                        JsonOutput.encodeString(httpField.name()),
+                        valueWriter(httpField.type())
+                ));
+            }
+        }
+
+        this.fields = fields.toArray(new FieldSerializer[0]);
+    }
+
+    /**
+     * Gets the serializer for a model class, compiling it the first time it
+     * is needed
+     *
+     * @param clazz The model class
+     * @return The serializer for the model class
+     */
+    static ModelSerializer get(Class<? extends EasyModel> clazz) {
+        return serializers.computeIfAbsent(
+                clazz,
+                k -> new ModelSerializer(clazz)
+        );
+    }
+
+    /**
+     * Writes a model instance as a JSON object
+     *
+     * @param out The buffer to write to
+     * @param model The model instance to write
+     * @param authorization The value of the {@code Authorization} HTTP header
+     * @param projection The fields of the model instance to write, and the
+     *                   associations to write as nested objects
+     * @param readable Checks whether each model instance of an expanded
+     *                 association can be read by the client
+     */
+    void write(
+            JsonOutput out,
+            EasyModel model,
+            String authorization,
+            Projection projection,
+            Predicate<EasyModel> readable
+    ) {
+        out.writeByte('{');
+
+        boolean first = true;
+        for (var field : fields) {
+            String name = field.httpField().name();
+            if (!projection.includes(name)) {
+                continue;
+            }
+
+            Object value;
+            try {
+                value = field.httpField().get(model);
+            } catch (HttpErrorStatus ignored) {
+                continue;
+            }
+
+            if (!first) {
+                out.writeByte(',');
+            }
+            first = false;
+
+            out.writeRaw(field.name());
+            out.writeByte(':');
+
+            Projection expanded = projection.expanded(name);
+            if (expanded != null) {
+                writeExpanded(out, value, authorization, expanded, readable);
+            }
+            else if (value == null) {
+                out.writeNull();
+            }
+            else {
+                field.writer().write(out, value);
+            }
+        }
+
+        out.writeByte('}');
+    }
+
+    /**
+     * Writes an expanded association, with each associated model instance
+     * written as a nested object rather than its id
+     *
+     * <p>
+     *     Associated model instances which the client can't read are left
+     *     out of arrays and collections, and written as {@code null}
+     *     otherwise.
+     * </p>
+     */
+    private static void writeExpanded(
+            JsonOutput out,
+            Object value,
+            String authorization,
+            Projection projection,
+            Predicate<EasyModel> readable
+    ) {
+        if (value instanceof EasyModel model) {
+            if (readable.test(model)) {
+                get(model.getClass())
+                        .write(out, model, authorization, projection, readable);
+            }
+            else {
+                out.writeNull();
+            }
+        }
+        else if (value != null && value.getClass().isArray()) {
+            var length = Array.getLength(value);
+            var elements = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                elements.add(Array.get(value, i));
+            }
+
+            writeExpanded(out, elements, authorization, projection, readable);
+        }
+        else if (value instanceof Collection<?> values) {
+            out.writeByte('[');
+            boolean first = true;
+            for (Object element : values) {
+                if (element instanceof EasyModel model
+                        && !readable.test(model)) {
+                    continue;
+                }
+
+                if (!first) {
+                    out.writeByte(',');
+                }
+                first = false;
+
+                if (element instanceof EasyModel model) {
+                    get(model.getClass()).write(
+                            out,
+                            model,
+                            authorization,
+                            projection,
+                            readable
+                    );
+                }
+                else {
+                    writeExpanded(
+                            out,
+                            element,
+                            authorization,
+                            projection,
+                            readable
+                    );
+                }
+            }
+            out.writeByte(']');
+        }
+        else {
+            writeValue(out, value);
+        }
+    }
+
+    private static ValueWriter valueWriter(Class<?> type) {
+        if (type == String.class) {
+            return (out, value) -> out.writeString((String) value);
+        }
+        else if (type == int.class || type == Integer.class
+                || type == long.class || type == Long.class
+                || type == short.class || type == Short.class
+                || type == byte.class || type == Byte.class) {
+            return (out, value) -> out.writeLong(((Number) value).longValue());
+        }
+        else if (type == float.class || type == Float.class
+                || type == double.class || type == Double.class) {
+            return (out, value) -> out.writeDouble(
+                    ((Number) value).doubleValue()
+            );
+        }
+        else if (type == BigDecimal.class || type == BigInteger.class) {
+            return (out, value) -> out.writeBigNumber((Number) value);
+        }
+        else if (type == boolean.class || type == Boolean.class) {
+            return (out, value) -> out.writeBoolean((Boolean) value);
+        }
+        else if (type == UUID.class) {
+            return (out, value) -> out.writeString(value.toString());
+        }
+        else if (EasyModel.class.isAssignableFrom(type)) {
+            return ModelSerializer::writeReference;
+        }
+        else if (type == Date.class
+                || type == Time.class
+                || type == Timestamp.class) {
+            return (out, value) -> out.writeLong(
+                    ((java.util.Date) value).getTime()
+            );
+        }
+        else {
+            return ModelSerializer::writeValue;
+        }
+    }
+
+    private static void writeReference(JsonOutput out, Object value) {
+        var id = ((EasyModel) value).id;
+        if (id == null) {
+            out.writeNull();
+        }
+        else {
+            out.writeString(id.toString());
+        }
+    }
+
+    /**
+     * Writes a value of a type only known at runtime, such as an element of
+     * an array or collection
+     */
+    static void writeValue(JsonOutput out, Object value) {
+        if (value == null) {
+            out.writeNull();
+        }
+        else if (value instanceof String string) {
+            out.writeString(string);
+        }
+        else if (value instanceof Boolean bool) {
+            out.writeBoolean(bool);
+        }
+        else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            out.writeLong(((Number) value).longValue());
+        }
+        else if (value instanceof Float || value instanceof Double) {
+            out.writeDouble(((Number) value).doubleValue());
+        }
+        else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            out.writeBigNumber((Number) value);
+        }
+        else if (value.getClass().isArray()) {
+            out.writeByte('[');
+            var length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    out.writeByte(',');
+                }
+                writeValue(out, Array.get(value, i));
+            }
+            out.writeByte(']');
+        }
+        else if (value instanceof Collection<?> values) {
+            out.writeByte('[');
+            boolean first = true;
+            for (Object element : values) {
+                if (!first) {
+                    out.writeByte(',');
+                }
+                first = false;
+                writeValue(out, element);
+            }
+            out.writeByte(']');
+        }
+        else if (value instanceof EasyModel) {
+            writeReference(out, value);
+        }
+        else if (value instanceof Date
+                || value instanceof Time
+                || value instanceof Timestamp) {
+            out.writeLong(((java.util.Date) value).getTime());
+        }
+        else {
+            out.writeString(value.toString());
+        }
+    }
+
+    /**
+     * Writes a non-null value of a field's type
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonOutput out, Object value);
+    }
+
+    /**
+     * A field to write, with its name pre-encoded as a JSON string
+     */
+    private record FieldSerializer(
+            HttpField<?> httpField,
+            byte[] name,
+            ValueWriter writer
+    ) {}
+}
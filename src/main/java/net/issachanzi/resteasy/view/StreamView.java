@@ -0,0 +1,358 @@
+package net.issachanzi.resteasy.view;
+
+import net.issachanzi.resteasy.model.EasyModel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.BaseStream;
+
+/**
+ * A view of many values, such as those returned by a custom method, which is
+ * written to the client one value at a time as they are produced
+ *
+ * <p>
+ *     The values can be given as a {@link Collection}, a {@link BaseStream},
+ *     an {@link Iterator} or a {@link Flow.Publisher}. Model instances are
+ *     rendered as they are by {@link EasyView}, and other values as single
+ *     JSON values. The view is written either as a JSON array, or as
+ *     newline delimited JSON, with one value on each line.
+ * </p>
+ *
+ * <p>
+ *     Only one value is held in memory at a time. Values from a publisher
+ *     are requested one at a time, as each is written, so a slow client
+ *     slows the publisher down rather than letting values pile up.
+ * </p>
+ *
+ * <p>
+ *     Each value can be read from its source while holding a lock, such as
+ *     that of a database connection the source reads from, which is released
+ *     while the value is rendered and written. Values from a publisher are
+ *     produced on its own threads, so they are read without the lock, and a
+ *     publisher which uses the database has to hold the lock itself. Model
+ *     instances which may not be read are left out.
+ * </p>
+ */
+public class StreamView implements Closeable {
+    /**
+     * Returned when there are no more values to read
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Returned in place of a model instance which may not be read
+     */
+    private static final Object SKIPPED = new Object();
+
+    private final Object values;
+    private final boolean ndjson;
+    private final Object lock;
+    private final Predicate<EasyModel> readable;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * Constructs a {@code StreamView}
+     *
+     * @param values The values to write, which must be
+     *               {@link #isStreamable(Object) streamable}
+     * @param ndjson {@code true} to write newline delimited JSON, or
+     *               {@code false} to write a JSON array
+     */
+    public StreamView(Object values, boolean ndjson) {
+        this(values, ndjson, null, model -> true);
+    }
+
+    /**
+     * Constructs a {@code StreamView} which reads each value while holding a
+     * lock, and leaves out model instances which may not be read
+     *
+     * @param values The values to write, which must be
+     *               {@link #isStreamable(Object) streamable}
+     * @param ndjson {@code true} to write newline delimited JSON, or
+     *               {@code false} to write a JSON array
+     * @param lock The object to hold the lock of while reading each value,
+     *             or {@code null} to read values without a lock
+     * @param readable Checks whether each model instance can be read. It is
+     *                 called while holding the lock.
+     */
+    public StreamView(
+            Object values,
+            boolean ndjson,
+            Object lock,
+            Predicate<EasyModel> readable
+    ) {
+        this.values = values;
+        this.ndjson = ndjson;
+        this.lock = lock;
+        this.readable = readable;
+    }
+
+    /**
+     * Checks whether a value can be written by a {@code StreamView}
+     *
+     * @param value The value to check
+     * @return {@code true} if the value is a collection, stream, iterator or
+     *         publisher
+     */
+    public static boolean isStreamable(Object value) {
+        return value instanceof Collection
+                || value instanceof BaseStream
+                || value instanceof Iterator
+                || value instanceof Flow.Publisher;
+    }
+
+    /**
+     * Writes the values to a stream, closing the source of the values once
+     * they have been written
+     *
+     * @param out The stream to write to
+     * @throws IOException If writing fails, or the source of the values fails
+     */
+    public void write(OutputStream out) throws IOException {
+        var iterator = iterator();
+
+        try {
+            if (!ndjson) {
+                out.write('[');
+            }
+
+            boolean first = true;
+            boolean locked = lock != null
+                    && !(iterator instanceof PublisherIterator);
+            while (true) {
+                Object value;
+                if (locked) {
+                    synchronized (lock) {
+                        value = next(iterator);
+                    }
+                }
+                else {
+                    value = next(iterator);
+                }
+
+                if (value == END) {
+                    break;
+                }
+                if (value == SKIPPED) {
+                    continue;
+                }
+
+                if (!first && !ndjson) {
+                    out.write(',');
+                }
+                first = false;
+
+                out.write(render(value));
+                if (ndjson) {
+                    out.write('\n');
+                }
+            }
+
+            if (!ndjson) {
+                out.write(']');
+            }
+            out.flush();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            close(iterator);
+        }
+    }
+
+    /**
+     * Writes the values to memory, for when they can't be streamed
+     *
+     * @return The values rendered as JSON
+     * @throws UncheckedIOException If the source of the values fails
+     */
+    @Override
+    public String toString() {
+        var out = new ByteArrayOutputStream();
+        try {
+            write(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next value, or {@link #END} if there are none left, or
+     * {@link #SKIPPED} if it is a model instance which may not be read
+     */
+    private Object next(Iterator<?> iterator) {
+        if (!iterator.hasNext()) {
+            return END;
+        }
+
+        Object value = iterator.next();
+        if (value instanceof EasyModel model && !readable.test(model)) {
+            return SKIPPED;
+        }
+
+        return value;
+    }
+
+    /**
+     * Closes the source of the values, if it hasn't been already, such as
+     * when the view won't be written after all
+     *
+     * @throws IOException If closing the source fails
+     */
+    @Override
+    public void close() throws IOException {
+        close(null);
+    }
+
+    private Iterator<?> iterator() {
+        if (values instanceof Collection<?> collection) {
+            return collection.iterator();
+        }
+        else if (values instanceof BaseStream<?, ?> stream) {
+            return stream.iterator();
+        }
+        else if (values instanceof Flow.Publisher<?> publisher) {
+            return new PublisherIterator<>(publisher);
+        }
+        else {
+            return (Iterator<?>) values;
+        }
+    }
+
+    private void close(Iterator<?> iterator) throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (iterator instanceof PublisherIterator<?> publisherIterator) {
+            publisherIterator.cancel();
+        }
+
+        // The stream may hold a database cursor open
+        if (values instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IOException(ex);
+            }
+        }
+    }
+
+    private static byte[] render(Object value) {
+        if (value instanceof EasyModel model) {
+            return new EasyView(model).toBytes();
+        }
+
+        return EasyView.jsonValue(value)
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the values of a publisher one at a time, requesting each value
+     * only once the previous one has been read
+     */
+    private static class PublisherIterator<T>
+            implements Iterator<T>, Flow.Subscriber<T> {
+        private static final Object COMPLETE = new Object();
+
+        private final LinkedBlockingQueue<Object> signals
+                = new LinkedBlockingQueue<>();
+        private volatile Flow.Subscription subscription;
+        private Object next;
+        private boolean done = false;
+
+        PublisherIterator(Flow.Publisher<T> publisher) {
+            publisher.subscribe(this);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            signals.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.add(new Failure(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add(COMPLETE);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (done) {
+                return false;
+            }
+            if (next != null) {
+                return true;
+            }
+
+            Object signal;
+            try {
+                signal = signals.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new IOException(ex));
+            }
+
+            if (signal == COMPLETE) {
+                done = true;
+                return false;
+            }
+            if (signal instanceof Failure failure) {
+                done = true;
+                throw new UncheckedIOException(
+                        new IOException(failure.cause())
+                );
+            }
+
+            next = signal;
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            var result = (T) next;
+            next = null;
+            subscription.request(1);
+
+            return result;
+        }
+
+        void cancel() {
+            if (!done && subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        private record Failure(Throwable cause) {}
+    }
+}
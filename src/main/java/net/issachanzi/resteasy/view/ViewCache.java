@@ -0,0 +1,316 @@
+package net.issachanzi.resteasy.view;
+
+import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.ModelType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A cache of model instances already rendered as JSON, so that repeated
+ * requests for an unchanged model instance don't have to serialize it again
+ *
+ * <p>
+ *     Entries are kept for each model instance, with a separate rendering for
+ *     each variant requested, such as a different set of fields. An entry is
+ *     dropped whenever its model instance is saved or deleted, and every
+ *     entry of a model is dropped when instances of it are imported. Since a
+ *     model instance's view also lists the ids of its associated model
+ *     instances, saving or deleting any model instance also drops every
+ *     entry of the models which have associations to its model.
+ * </p>
+ *
+ * <p>
+ *     Only changes made through {@link EasyModel#save} and
+ *     {@link EasyModel#delete}, and imports, are seen, and views are assumed
+ *     to depend only on what is stored in the database. Models with custom
+ *     getters that return anything else should not have their views cached.
+ * </p>
+ *
+ * <p>
+ *     The entries of each model are kept separately, with their own lock, so
+ *     requests for and changes to one model don't wait on those of another.
+ *     The least recently used model instances of a model are evicted once it
+ *     has as many entries as the capacity.
+ * </p>
+ */
+public class ViewCache {
+    /**
+     * The default number of instances of each model to keep views of
+     */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final Map<Class<?>, Set<Class<?>>> dependencies
+            = new ConcurrentHashMap<>();
+
+    private final int capacity;
+    private final Map<Class<?>, Segment> segments = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@code ViewCache} with the default capacity
+     */
+    public ViewCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a {@code ViewCache}
+     *
+     * @param capacity The maximum number of instances of each model to keep
+     *                 views of
+     */
+    public ViewCache(int capacity) {
+        this.capacity = capacity;
+
+        EasyModel.addChangeListener(this::invalidate);
+    }
+
+    /**
+     * Gets the current generation of a model's entries, to be passed to
+     * {@link #put(Class, UUID, String, long, CachedView)}
+     *
+     * <p>
+     *     This must be read before the model instance to be rendered is read
+     *     from the database.
+     * </p>
+     *
+     * @param clazz The class of the model instance to be rendered
+     * @return The current generation
+     */
+    public long generation(Class<? extends EasyModel> clazz) {
+        return segment(clazz).generation();
+    }
+
+    /**
+     * Gets a cached view of a model instance
+     *
+     * @param clazz The class of the model instance
+     * @param id The id of the model instance
+     * @param variant Identifies how the model instance was rendered, such as
+     *                the fields included
+     * @return The cached view, or {@code null} if it is not cached
+     */
+    public CachedView get(
+            Class<? extends EasyModel> clazz,
+            UUID id,
+            String variant
+    ) {
+        var segment = segments.get(clazz);
+
+        return segment == null ? null : segment.get(id, variant);
+    }
+
+    /**
+     * Caches a view of a model instance
+     *
+     * <p>
+     *     The view is not cached if anything it may depend on has been
+     *     invalidated since {@code generation} was read, as it may have been
+     *     rendered from a model instance that has since changed.
+     * </p>
+     *
+     * @param clazz The class of the model instance
+     * @param id The id of the model instance
+     * @param variant Identifies how the model instance was rendered, such as
+     *                the fields included
+     * @param generation The generation of the model's entries read before
+     *                   the model instance was read
+     * @param view The view to cache
+     */
+    public void put(
+            Class<? extends EasyModel> clazz,
+            UUID id,
+            String variant,
+            long generation,
+            CachedView view
+    ) {
+        if (capacity <= 0) {
+            return;
+        }
+
+        segment(clazz).put(id, variant, generation, view);
+    }
+
+    /**
+     * Drops the cached views of a model instance, and of every model instance
+     * which may list it as an associated model instance
+     *
+     * @param clazz The class of the model instance that changed
+     * @param id The id of the model instance that changed, or {@code null} to
+     *           drop the views of every instance of the model
+     */
+    public void invalidate(
+            Class<? extends EasyModel> clazz,
+            UUID id
+    ) {
+        for (var entry : segments.entrySet()) {
+            if (dependsOn(entry.getKey(), clazz)) {
+                entry.getValue().invalidate(null);
+            }
+            else if (entry.getKey() == clazz) {
+                entry.getValue().invalidate(id);
+            }
+        }
+    }
+
+    private Segment segment(Class<? extends EasyModel> clazz) {
+        return segments.computeIfAbsent(clazz, k -> new Segment(capacity));
+    }
+
+    /**
+     * Checks whether the views of a model have associations to another model
+     */
+    private static boolean dependsOn(Class<?> clazz, Class<?> other) {
+        return dependencies.computeIfAbsent(clazz, k -> {
+            Set<Class<?>> otherTypes = new HashSet<>();
+            @SuppressWarnings("unchecked")
+            var modelClazz = (Class<? extends EasyModel>) clazz;
+            for (var association : ModelType.get(modelClazz).associations()) {
+                otherTypes.add(association.otherType());
+            }
+
+            return otherTypes;
+        }).contains(other);
+    }
+
+    /**
+     * The cached views of the instances of one model
+     */
+    private static class Segment {
+        private final LinkedHashMap<UUID, Map<String, CachedView>> entries;
+
+        /**
+         * Incremented whenever an entry is invalidated, so views rendered
+         * from model instances read before the change are not cached
+         */
+        private long generation = 0;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<UUID, Map<String, CachedView>> eldest
+                ) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized CachedView get(UUID id, String variant) {
+            var variants = entries.get(id);
+
+            return variants == null ? null : variants.get(variant);
+        }
+
+        synchronized void put(
+                UUID id,
+                String variant,
+                long generation,
+                CachedView view
+        ) {
+            if (generation != this.generation) {
+                return;
+            }
+
+            entries.computeIfAbsent(id, k -> new HashMap<>())
+                    .put(variant, view);
+        }
+
+        synchronized void invalidate(UUID id) {
+            generation++;
+
+            if (id == null) {
+                entries.clear();
+            }
+            else {
+                entries.remove(id);
+            }
+        }
+    }
+
+    /**
+     * A model instance rendered as JSON
+     */
+    public static class CachedView {
+        private final byte[] json;
+        private final String etag;
+        private volatile byte[] gzipped;
+
+        /**
+         * Constructs a {@code CachedView}
+         *
+         * @param json The view rendered as UTF-8 encoded JSON
+         * @param etag The HTTP entity tag of the view, so it doesn't have to
+         *             be computed again for each request
+         */
+        public CachedView(byte[] json, String etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+
+        /**
+         * Gets the view rendered as JSON
+         *
+         * @return The UTF-8 encoded JSON
+         */
+        public byte[] json() {
+            return json;
+        }
+
+        /**
+         * Gets the HTTP entity tag of the view
+         *
+         * @return The entity tag, including its quotes
+         */
+        public String etag() {
+            return etag;
+        }
+
+        /**
+         * Gets the view compressed with gzip, compressing it the first time
+         * it is needed
+         *
+         * <p>
+         *     Since it is only compressed once, the highest compression level
+         *     is used.
+         * </p>
+         *
+         * @return The gzip compressed JSON
+         */
+        public byte[] gzipped() {
+            byte[] result = gzipped;
+            if (result == null) {
+                var out = new ByteArrayOutputStream(json.length / 2 + 32);
+                try (var gzip = new GZIPOutputStream(out) {
+                    {
+                        def.setLevel(Deflater.BEST_COMPRESSION);
+                    }
+                }) {
+                    gzip.write(json);
+                } catch (IOException e) {
+                    // Writing to memory doesn't fail
+                    throw new UncheckedIOException(e);
+                }
+
+                result = out.toByteArray();
+                gzipped = result;
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package net.issachanzi.resteasy;
+
+import net.issachanzi.resteasy.model.StubDatabase;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.unixdomain.server.UnixDomainServerConnector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerConfigTest {
+    @Test
+    void gzipIsEnabledByDefault() {
+        var config = new ServerConfig();
+
+        assertTrue(config.gzipEnabled());
+        assertEquals(GzipHandler.DEFAULT_MIN_GZIP_SIZE, config.gzipMinSize());
+        assertEquals(Deflater.DEFAULT_COMPRESSION, config.gzipLevel());
+        assertNull(config.gzipMimeTypes());
+    }
+
+    @Test
+    void gzipSettingsCanBeChanged() {
+        var config = new ServerConfig();
+
+        config.setGzipEnabled(false);
+        config.setGzipMinSize(1024);
+        config.setGzipLevel(Deflater.BEST_SPEED);
+        config.setGzipMimeTypes("application/json", "application/x-ndjson");
+
+        assertFalse(config.gzipEnabled());
+        assertEquals(1024, config.gzipMinSize());
+        assertEquals(Deflater.BEST_SPEED, config.gzipLevel());
+        assertArrayEquals(
+                new String[] {"application/json", "application/x-ndjson"},
+                config.gzipMimeTypes()
+        );
+    }
+
+    @Test
+    void connectorDefaultsLetJettyChoose() {
+        var config = new ServerConfig();
+
+        assertTrue(config.http2Enabled());
+        assertEquals(-1, config.acceptors());
+        assertEquals(-1, config.selectors());
+        assertEquals(ServerConfig.DEFAULT_IDLE_TIMEOUT, config.idleTimeout());
+        assertEquals(0, config.acceptQueueSize());
+        assertEquals(
+                ServerConfig.DEFAULT_OUTPUT_BUFFER_SIZE,
+                config.outputBufferSize()
+        );
+    }
+
+    @Test
+    void http2IsOfferedAlongsideHttp1() {
+        var app = new RestEasy(new StubDatabase().connection);
+        app.config.setOutputBufferSize(4096);
+
+        var factories = app.connectionFactories();
+
+        assertEquals(2, factories.length);
+        var http1 = assertInstanceOf(HttpConnectionFactory.class, factories[0]);
+        assertInstanceOf(HTTP2CServerConnectionFactory.class, factories[1]);
+        assertEquals(
+                4096,
+                http1.getHttpConfiguration().getOutputBufferSize()
+        );
+    }
+
+    @Test
+    void http2CanBeTurnedOff() {
+        var app = new RestEasy(new StubDatabase().connection);
+        app.config.setHttp2Enabled(false);
+
+        var factories = app.connectionFactories();
+
+        assertEquals(1, factories.length);
+        assertInstanceOf(HttpConnectionFactory.class, factories[0]);
+    }
+
+    @Test
+    void tcpConnectorIsAddedByDefault() throws Exception {
+        var app = new RestEasy(new StubDatabase().connection);
+        var server = new Server();
+
+        app.initConnectors(server, 8080);
+
+        assertNull(app.config.unixSocketPath());
+        assertEquals(1, server.getConnectors().length);
+        var connector = assertInstanceOf(
+                ServerConnector.class,
+                server.getConnectors()[0]
+        );
+        assertEquals(8080, connector.getPort());
+    }
+
+    @Test
+    void unixSocketConnectorCanReplaceTcp(@TempDir Path dir)
+            throws Exception {
+        var app = new RestEasy(new StubDatabase().connection);
+        var socket = dir.resolve("app.sock");
+        app.config.setUnixSocketPath(socket);
+        app.config.setTcpEnabled(false);
+        var server = new Server();
+
+        app.initConnectors(server, 8080);
+
+        assertEquals(1, server.getConnectors().length);
+        var connector = assertInstanceOf(
+                UnixDomainServerConnector.class,
+                server.getConnectors()[0]
+        );
+        assertEquals(socket, connector.getUnixDomainPath());
+    }
+
+    @Test
+    void staleUnixSocketIsReplaced(@TempDir Path dir) throws Exception {
+        var socket = dir.resolve("app.sock");
+        var address = UnixDomainSocketAddress.of(socket);
+        // Closing a bound socket leaves its file behind, as a crash would
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                .bind(address)
+                .close();
+        assertTrue(Files.exists(socket));
+
+        unixSocketApp(socket).initConnectors(new Server(), 8080);
+
+        assertFalse(Files.exists(socket));
+    }
+
+    @Test
+    void unixSocketPathInUseIsKept(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("notes.txt");
+        Files.writeString(file, "keep me");
+        var socket = dir.resolve("app.sock");
+
+        assertThrows(
+                FileAlreadyExistsException.class,
+                () -> unixSocketApp(file).initConnectors(new Server(), 8080)
+        );
+        assertEquals("keep me", Files.readString(file));
+
+        try (var listening = ServerSocketChannel.open(
+                StandardProtocolFamily.UNIX
+        )) {
+            listening.bind(UnixDomainSocketAddress.of(socket));
+
+            assertThrows(
+                    FileAlreadyExistsException.class,
+                    () -> unixSocketApp(socket)
+                            .initConnectors(new Server(), 8080)
+            );
+            assertTrue(Files.exists(socket));
+        }
+    }
+
+    @Test
+    void someConnectorIsRequired() {
+        var app = new RestEasy(new StubDatabase().connection);
+        app.config.setTcpEnabled(false);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> app.initConnectors(new Server(), 8080)
+        );
+    }
+
+    private static RestEasy unixSocketApp(Path path) {
+        var app = new RestEasy(new StubDatabase().connection);
+        app.config.setUnixSocketPath(path);
+        app.config.setTcpEnabled(false);
+
+        return app;
+    }
+}
@@ -0,0 +1,229 @@
+package net.issachanzi.resteasy.controller;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchControllerTest {
+    private static final UUID ID
+            = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private final List<String> dbCalls
+            = Collections.synchronizedList(new ArrayList<>());
+    private final Connection db = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                dbCalls.add(method.getName());
+
+                return method.getReturnType() == boolean.class ? true : null;
+            }
+    );
+
+    private final BatchController batch = new BatchController(
+            Map.of("TodoItem", new HttpController(controller())),
+            db
+    );
+
+    private int status;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @Test
+    void resultsAreInRequestOrder() {
+        var results = post("""
+                [
+                    {"path": "/TodoItem/%s"},
+                    {"method": "DELETE", "path": "/TodoItem/%s"},
+                    {"path": "/TodoItem?ids=%s"},
+                    {"path": "/Note"}
+                ]
+                """.formatted(ID, ID, ID));
+
+        assertEquals(200, status);
+        assertEquals(4, results.size());
+        assertEquals(200, status(results, 0));
+        assertEquals(
+                ID.toString(),
+                results.getJsonObject(0).getJsonObject("body").getString("id")
+        );
+        assertEquals(204, status(results, 1));
+        assertEquals(200, status(results, 2));
+        assertEquals(404, status(results, 3));
+        assertFalse(dbCalls.contains("setAutoCommit"));
+    }
+
+    @Test
+    void failedAtomicBatchIsRolledBack() {
+        var results = post("""
+                {
+                    "atomic": true,
+                    "requests": [
+                        {"method": "DELETE", "path": "/TodoItem/%s"},
+                        {"method": "POST", "path": "/TodoItem", "body": {}},
+                        {"path": "/TodoItem/%s"}
+                    ]
+                }
+                """.formatted(ID, ID));
+
+        assertEquals(204, status(results, 0));
+        assertEquals(400, status(results, 1));
+        assertEquals(
+                BatchController.NOT_EXECUTED_STATUS,
+                status(results, 2)
+        );
+        assertTrue(dbCalls.contains("rollback"));
+        assertFalse(dbCalls.contains("commit"));
+    }
+
+    @Test
+    void atomicBatchIsCommitted() {
+        var results = post("""
+                {
+                    "atomic": true,
+                    "requests": [
+                        {"method": "DELETE", "path": "/TodoItem/%s"}
+                    ]
+                }
+                """.formatted(ID));
+
+        assertEquals(204, status(results, 0));
+        assertTrue(dbCalls.contains("commit"));
+        assertFalse(dbCalls.contains("rollback"));
+    }
+
+    @Test
+    void exportIsRejectedInABatch() {
+        var results = post("""
+                [
+                    {"path": "/TodoItem/_export"},
+                    {"path": "/TodoItem/%s"}
+                ]
+                """.formatted(ID));
+
+        assertEquals(400, status(results, 0));
+        assertEquals(200, status(results, 1));
+    }
+
+    @Test
+    void malformedBatchIsRejected() {
+        post("{\"requests\": 1}");
+
+        assertEquals(400, status);
+    }
+
+    private static int status(JsonArray results, int index) {
+        return results.getJsonObject(index).getInt("status");
+    }
+
+    private JsonArray post(String batchJson) {
+        var request = (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getReader" -> new BufferedReader(
+                            new StringReader(batchJson)
+                    );
+                    case "getMethod" -> "POST";
+                    default -> null;
+                }
+        );
+        var out = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {}
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        };
+        var response = (HttpServletResponse) Proxy.newProxyInstance(
+                HttpServletResponse.class.getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setStatus", "sendError" ->
+                                status = (Integer) args[0];
+                        case "getOutputStream" -> {
+                            return out;
+                        }
+                        case "isCommitted" -> {
+                            return false;
+                        }
+                        default -> {}
+                    }
+
+                    return null;
+                }
+        );
+
+        batch.doPost(request, response);
+
+        if (status != 200) {
+            return null;
+        }
+        String json = body.toString(StandardCharsets.UTF_8);
+
+        return Json.createReader(new StringReader(json)).readArray();
+    }
+
+    /**
+     * Stubs a controller whose reads return the requested model instance,
+     * whose deletes succeed and whose creates are rejected
+     */
+    private static Controller controller() {
+        return (Controller) Proxy.newProxyInstance(
+                Controller.class.getClassLoader(),
+                new Class<?>[] {Controller.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "get" -> {
+                            String json = Json.createObjectBuilder()
+                                    .add("id", ID.toString())
+                                    .build()
+                                    .toString();
+
+                            return method.getReturnType() == Response.class
+                                    ? new Response(json)
+                                    : json;
+                        }
+                        case "post" -> throw new BadRequest("Invalid model");
+                        case "customMethodNames" -> {
+                            return List.of();
+                        }
+                        default -> {
+                            return method.getReturnType() == Response.class
+                                    ? new Response((String) null)
+                                    : null;
+                        }
+                    }
+                }
+        );
+    }
+}
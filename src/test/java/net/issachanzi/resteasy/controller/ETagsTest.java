@@ -0,0 +1,60 @@
+package net.issachanzi.resteasy.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+    @Test
+    void bodyTagIsQuotedDigest() {
+        byte[] body = "{\"a\":1}".getBytes();
+        String etag = ETags.of(body);
+
+        assertEquals(etag, ETags.of(body.clone()));
+        assertNotEquals(etag, ETags.of("{\"a\":2}".getBytes()));
+        assertTrue(etag.matches("\"[0-9a-f]{32}\""), etag);
+    }
+
+    @Test
+    void ifNoneMatchComparesWeakly() {
+        String etag = ETags.ofVersion(3);
+
+        assertTrue(ETags.matchesAny("\"2\", \"3\"", etag));
+        assertTrue(ETags.matchesAny("W/\"3\"", etag));
+        assertTrue(ETags.matchesAny("*", etag));
+        assertFalse(ETags.matchesAny("\"2\"", etag));
+        assertFalse(ETags.matchesAny(null, etag));
+    }
+
+    @Test
+    void ifMatchComparesStrongly() {
+        String etag = ETags.ofVersion(3);
+
+        assertTrue(ETags.matchesStrongly("\"2\", \"3\"", etag));
+        assertTrue(ETags.matchesStrongly("*", etag));
+        assertFalse(ETags.matchesStrongly("W/\"3\"", etag));
+        assertFalse(ETags.matchesStrongly("\"4\"", etag));
+    }
+
+    @Test
+    void gzippedTagDiffers() {
+        String etag = ETags.quote("abc");
+
+        assertEquals("\"abc-gzip\"", ETags.gzipped(etag));
+        assertNotEquals(etag, ETags.gzipped(etag));
+        assertFalse(ETags.matchesAny(ETags.gzipped(etag), etag));
+    }
+
+    @Test
+    void gzippedTagMatchesForChanges() {
+        String etag = ETags.ofVersion(3);
+
+        assertTrue(ETags.matchesStrongly(ETags.gzipped(etag), etag));
+        assertFalse(
+                ETags.matchesStrongly(ETags.gzipped(ETags.ofVersion(2)), etag)
+        );
+    }
+}
@@ -0,0 +1,256 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.Forbidden;
+import net.issachanzi.resteasy.controller.exception.NotFound;
+import net.issachanzi.resteasy.model.AccessType;
+import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.ModelType;
+import net.issachanzi.resteasy.model.StubDatabase;
+import net.issachanzi.resteasy.model.annotation.Version;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static net.issachanzi.resteasy.model.StubDatabase.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EasyControllerTest {
+    public static class Note extends EasyModel {
+        public String text;
+    }
+
+    /**
+     * A model only readable by its owner, which can't be checked in SQL
+     */
+    public static class Secret extends EasyModel {
+        public String text;
+        public String owner;
+
+        @Override
+        public boolean authorize(
+                Connection db,
+                String authorization,
+                AccessType accessType
+        ) {
+            return owner.equals(authorization);
+        }
+    }
+
+    public static class Memo extends EasyModel {
+        public String text;
+        @Version public long version;
+    }
+
+    /**
+     * A versioned model only readable by its owner
+     */
+    public static class PrivateMemo extends EasyModel {
+        public String text;
+        public String owner;
+        @Version public long version;
+
+        @Override
+        public boolean authorize(
+                Connection db,
+                String authorization,
+                AccessType accessType
+        ) {
+            return owner.equals(authorization);
+        }
+    }
+
+    @BeforeAll
+    static void syncAssociations() {
+        var db = new StubDatabase().connection;
+        ModelType.get(Note.class).syncAssociations(db);
+        ModelType.get(Secret.class).syncAssociations(db);
+        ModelType.get(Memo.class).syncAssociations(db);
+        ModelType.get(PrivateMemo.class).syncAssociations(db);
+    }
+
+    @Test
+    void exportWritesOneObjectPerLine() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(
+                row("id", UUID.randomUUID().toString(), "text", "a"),
+                row("id", UUID.randomUUID().toString(), "text", "b")
+        ));
+        var controller = new EasyController(Note.class, db.connection);
+
+        var response = controller.export(Map.of("sort", "text"), null);
+        String body = write(response);
+
+        assertEquals(
+                "application/x-ndjson",
+                response.headers().get("Content-Type")
+        );
+        var lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"text\":\"a\""), lines[0]);
+        assertTrue(lines[1].contains("\"text\":\"b\""), lines[1]);
+    }
+
+    @Test
+    void exportLeavesOutUnreadableRows() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(
+                row("id", UUID.randomUUID().toString(),
+                        "text", "mine", "owner", "ann"),
+                row("id", UUID.randomUUID().toString(),
+                        "text", "theirs", "owner", "bob")
+        ));
+        var controller = new EasyController(Secret.class, db.connection);
+
+        String body = write(controller.export(Map.of(), "ann"));
+
+        assertTrue(body.contains("mine"), body);
+        assertFalse(body.contains("theirs"), body);
+    }
+
+    @Test
+    void projectedModelIsLoadedInFullToCheckAccess() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        db.queue(List.of(row(
+                "id", id.toString(), "text", "mine", "owner", "ann"
+        )));
+        var controller = new EasyController(Secret.class, db.connection);
+
+        String body = controller.get(id, Map.of("fields", "text"), "ann")
+                .body();
+
+        assertTrue(db.statements.get(0).contains("\"owner\""));
+        assertTrue(body.contains("\"text\":\"mine\""), body);
+        assertFalse(body.contains("owner"), body);
+    }
+
+    @Test
+    void idsAreFilteredByTheOtherParameters() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        var controller = new EasyController(Note.class, db.connection);
+
+        controller.get(List.of(id), Map.of("ids", id.toString(),
+                "text", "a", "sort", "-text"), null);
+
+        String sql = db.statements.get(0);
+        assertTrue(sql.contains("id = ANY (?) AND (\"text\" = ?)"), sql);
+        assertTrue(sql.contains("ORDER BY \"text\" DESC"), sql);
+        assertEquals("a", db.parameters.get(0).get(1));
+    }
+
+    @Test
+    void unknownParameterWithIdsIsBadRequest() {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        var controller = new EasyController(Note.class, db.connection);
+
+        assertThrows(
+                BadRequest.class,
+                () -> controller.get(
+                        List.of(id),
+                        Map.of("status", "open"),
+                        null
+                )
+        );
+        assertTrue(db.statements.isEmpty());
+    }
+
+    @Test
+    void currentVersionIsNotModifiedWithoutLoadingModel() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        db.queue(List.of(row("id", id.toString(), "version", 3L)));
+        var controller = new EasyController(Memo.class, db.connection);
+
+        var response = controller.get(id, Map.of(), "W/\"3\"", null);
+
+        assertEquals(304, response.statusCode());
+        assertNull(response.bodyBytes());
+        assertEquals("\"3\"", response.headers().get("ETag"));
+        assertEquals(1, db.statements.size());
+        assertTrue(db.statements.get(0).startsWith(
+                "SELECT \"id\", \"version\" FROM"
+        ), db.statements.get(0));
+    }
+
+    @Test
+    void compressedCopyOfCurrentVersionIsNotModified() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        db.queue(List.of(row("id", id.toString(), "version", 3L)));
+        var controller = new EasyController(Memo.class, db.connection);
+
+        var response = controller.get(id, Map.of(), "\"3-gzip\"", null);
+
+        assertEquals(304, response.statusCode());
+        assertEquals("\"3-gzip\"", response.headers().get("ETag"));
+    }
+
+    @Test
+    void staleVersionIsSentInFull() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        db.queue(List.of(row("id", id.toString(), "version", 4L)));
+        db.queue(List.of(row(
+                "id", id.toString(), "text", "new", "version", 4L
+        )));
+        var controller = new EasyController(Memo.class, db.connection);
+
+        var response = controller.get(id, Map.of(), "\"3\"", null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("\"4\"", response.headers().get("ETag"));
+        assertTrue(response.body().contains("\"text\":\"new\""));
+    }
+
+    @Test
+    void missingModelIsNotFoundWhenConditional() {
+        var db = new StubDatabase();
+        var controller = new EasyController(Memo.class, db.connection);
+
+        assertThrows(
+                NotFound.class,
+                () -> controller.get(UUID.randomUUID(), Map.of(), "*", null)
+        );
+    }
+
+    @Test
+    void accessIsCheckedBeforeNotModified() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        var memo = row(
+                "id", id.toString(), "text", "a", "owner", "ann", "version", 3L
+        );
+        db.queue(List.of(memo));
+        db.queue(List.of(memo));
+        var controller = new EasyController(PrivateMemo.class, db.connection);
+
+        assertThrows(
+                Forbidden.class,
+                () -> controller.get(id, Map.of(), "\"3\"", "bob")
+        );
+        assertEquals(
+                304,
+                controller.get(id, Map.of(), "\"3\"", "ann").statusCode()
+        );
+    }
+
+    private static String write(Response response) throws Exception {
+        var out = new ByteArrayOutputStream();
+        response.bodyWriter().write(out);
+
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
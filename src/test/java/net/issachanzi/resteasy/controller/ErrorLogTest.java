@@ -0,0 +1,81 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.controller.exception.InternalServerError;
+import net.issachanzi.resteasy.controller.exception.NotFound;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorLogTest {
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private PrintStream systemErr;
+
+    @BeforeEach
+    void captureErr() {
+        systemErr = System.err;
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void restoreErr() {
+        System.setErr(systemErr);
+    }
+
+    @Test
+    void onlyLimitIsLoggedPerInterval() {
+        var log = new ErrorLog(2, 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            log.log(new IllegalStateException("failure " + i));
+        }
+
+        String logged = logged();
+        assertEquals(2, count(logged, "IllegalStateException"));
+        assertTrue(logged.contains("failure 1"), logged);
+        assertFalse(logged.contains("failure 2"), logged);
+    }
+
+    @Test
+    void skippedErrorsAreCountedInNextInterval() throws Exception {
+        var log = new ErrorLog(1, 20);
+
+        for (int i = 0; i < 4; i++) {
+            log.log(new IllegalStateException());
+        }
+        Thread.sleep(50);
+        log.log(new IllegalStateException());
+
+        String logged = logged();
+        assertEquals(2, count(logged, "IllegalStateException"));
+        assertTrue(logged.contains("3 errors were not logged"), logged);
+    }
+
+    @Test
+    void clientErrorsAreNotLogged() {
+        var log = new ErrorLog(10, 60_000);
+
+        log.log(NotFound.INSTANCE);
+        log.log(new InternalServerError(new IllegalStateException("db")));
+
+        String logged = logged();
+        assertEquals(1, count(logged, "IllegalStateException: db"));
+        assertFalse(logged.contains("NotFound"), logged);
+    }
+
+    private String logged() {
+        return err.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int count(String s, String part) {
+        return s.split(Pattern.quote(part), -1).length - 1;
+    }
+}
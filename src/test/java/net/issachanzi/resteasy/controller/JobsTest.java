@@ -0,0 +1,170 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.controller.exception.Conflict;
+import net.issachanzi.resteasy.controller.exception.ServiceUnavailable;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobsTest {
+    @Test
+    void succeededJobHasItsResult() throws Exception {
+        var jobs = new Jobs("/_jobs");
+        var job = jobs.submit(
+                Object.class.getMethod("hashCode"),
+                1,
+                null,
+                () -> "{\"total\":3}"
+        );
+
+        assertEquals("{\"total\":3}", job.result().get(5, TimeUnit.SECONDS));
+        assertSame(job, jobs.get(job.id()));
+        assertEquals("/_jobs/" + job.id(), job.url());
+        var status = job.status();
+        assertEquals("succeeded", status.getString("status"));
+        assertEquals(3, status.getJsonObject("result").getInt("total"));
+
+        jobs.shutdown();
+    }
+
+    @Test
+    void failedJobHasItsError() throws Exception {
+        var jobs = new Jobs("/_jobs");
+        var job = jobs.submit(
+                Object.class.getMethod("hashCode"),
+                1,
+                null,
+                () -> {
+                    throw new Conflict("Already done");
+                }
+        );
+
+        assertThrows(
+                ExecutionException.class,
+                () -> job.result().get(5, TimeUnit.SECONDS)
+        );
+        var status = job.status();
+        assertEquals("failed", status.getString("status"));
+        assertEquals(409, status.getJsonObject("error").getInt("status"));
+        assertEquals(
+                "Already done",
+                status.getJsonObject("error").getString("error")
+        );
+
+        jobs.shutdown();
+    }
+
+    @Test
+    void jobThrowingAnErrorStillFails() throws Exception {
+        var jobs = new Jobs("/_jobs");
+        var job = jobs.submit(
+                Object.class.getMethod("hashCode"),
+                1,
+                null,
+                () -> {
+                    throw new ExceptionInInitializerError("Broken");
+                }
+        );
+
+        assertThrows(
+                ExecutionException.class,
+                () -> job.result().get(5, TimeUnit.SECONDS)
+        );
+        var status = job.status();
+        assertEquals("failed", status.getString("status"));
+        assertEquals(500, status.getJsonObject("error").getInt("status"));
+
+        jobs.shutdown();
+    }
+
+    @Test
+    void callsBeyondTheQueueAreRejected() throws Exception {
+        var jobs = new Jobs("/_jobs", 1, Jobs.DEFAULT_RETENTION);
+        var method = Object.class.getMethod("hashCode");
+        var release = new CountDownLatch(1);
+        Jobs.Task blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            return null;
+        };
+
+        var running = jobs.submit(method, 1, null, blocked);
+        var queued = jobs.submit(method, 1, null, blocked);
+
+        assertThrows(
+                ServiceUnavailable.class,
+                () -> jobs.submit(method, 1, null, blocked)
+        );
+        assertEquals("pending", queued.status().getString("status"));
+
+        release.countDown();
+        running.result().get(5, TimeUnit.SECONDS);
+        queued.result().get(5, TimeUnit.SECONDS);
+        jobs.shutdown();
+    }
+
+    @Test
+    void finishedJobIsDroppedAfterRetention() throws Exception {
+        var jobs = new Jobs("/_jobs", Jobs.DEFAULT_QUEUE_SIZE, -1);
+        var job = jobs.submit(
+                Object.class.getMethod("hashCode"),
+                1,
+                null,
+                () -> ""
+        );
+
+        job.result().get(5, TimeUnit.SECONDS);
+
+        assertNull(jobs.get(job.id()));
+        jobs.shutdown();
+    }
+
+    @Test
+    void jobIsOnlyReadableWithItsAuthorization() throws Exception {
+        var jobs = new Jobs("/_jobs");
+        var job = jobs.submit(
+                Object.class.getMethod("toString"),
+                1,
+                "Bearer a",
+                () -> "{}"
+        );
+
+        assertSame(job, jobs.get(job.id()));
+        assertTrue(job.readableBy("Bearer a"));
+        assertFalse(job.readableBy("Bearer b"));
+        assertFalse(job.readableBy(null));
+
+        jobs.shutdown();
+    }
+
+    @Test
+    void jobWithoutAuthorizationNeedsNone() throws Exception {
+        var jobs = new Jobs("/_jobs");
+        var job = jobs.submit(
+                Object.class.getMethod("hashCode"),
+                1,
+                null,
+                () -> "1"
+        );
+
+        assertEquals("1", job.result().get(5, TimeUnit.SECONDS));
+        assertTrue(job.readableBy(null));
+        assertFalse(job.readableBy("Bearer a"));
+        assertEquals("succeeded", job.status().getString("status"));
+
+        jobs.shutdown();
+    }
+}
@@ -0,0 +1,94 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.model.EasyModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MethodResultCacheTest {
+    public static class Report extends EasyModel {}
+
+    private static final long TTL = 60_000;
+
+    @Test
+    void resultIsCachedPerVariant() {
+        var cache = new MethodResultCache(Report.class);
+        UUID id = UUID.randomUUID();
+
+        cache.put(id, "a", cache.generation(), "1", TTL);
+
+        assertEquals("1", cache.get(id, "a"));
+        assertNull(cache.get(id, "b"));
+        assertNull(cache.get(UUID.randomUUID(), "a"));
+    }
+
+    @Test
+    void expiredResultIsDropped() {
+        var cache = new MethodResultCache(Report.class);
+        UUID id = UUID.randomUUID();
+
+        cache.put(id, "a", cache.generation(), "1", 0);
+
+        assertNull(cache.get(id, "a"));
+    }
+
+    @Test
+    void staleGenerationIsNotCached() {
+        var cache = new MethodResultCache(Report.class);
+        UUID id = UUID.randomUUID();
+        long generation = cache.generation();
+
+        cache.invalidate(UUID.randomUUID());
+        cache.put(id, "a", generation, "1", TTL);
+
+        assertNull(cache.get(id, "a"));
+    }
+
+    @Test
+    void invalidatingInstanceKeepsOthers() {
+        var cache = new MethodResultCache(Report.class);
+        UUID changed = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        cache.put(changed, "a", cache.generation(), "1", TTL);
+        cache.put(other, "a", cache.generation(), "2", TTL);
+
+        cache.invalidate(changed);
+
+        assertNull(cache.get(changed, "a"));
+        assertEquals("2", cache.get(other, "a"));
+    }
+
+    @Test
+    void invalidatingModelDropsEveryInstance() {
+        var cache = new MethodResultCache(Report.class);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        cache.put(first, "a", cache.generation(), "1", TTL);
+        cache.put(second, "a", cache.generation(), "2", TTL);
+
+        cache.invalidate(null);
+
+        assertNull(cache.get(first, "a"));
+        assertNull(cache.get(second, "a"));
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        var cache = new MethodResultCache(Report.class, 2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.put(first, "a", cache.generation(), "1", TTL);
+        cache.put(second, "a", cache.generation(), "2", TTL);
+        cache.get(first, "a");
+
+        cache.put(third, "a", cache.generation(), "3", TTL);
+
+        assertEquals("1", cache.get(first, "a"));
+        assertNull(cache.get(second, "a"));
+        assertEquals("3", cache.get(third, "a"));
+    }
+}
@@ -0,0 +1,63 @@
+package net.issachanzi.resteasy.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QualityValuesTest {
+    @Test
+    void listedValueIsAccepted() {
+        assertTrue(QualityValues.accepts("deflate, gzip;q=0.5", "gzip"));
+        assertTrue(QualityValues.accepts("GZIP", "gzip"));
+    }
+
+    @Test
+    void zeroQualityIsRejected() {
+        assertFalse(QualityValues.accepts("gzip;q=0", "gzip"));
+        assertFalse(QualityValues.accepts("gzip; q=0.000, br", "gzip"));
+    }
+
+    @Test
+    void missingOrUnlistedIsRejected() {
+        assertFalse(QualityValues.accepts(null, "gzip"));
+        assertFalse(QualityValues.accepts("br, deflate", "gzip"));
+        assertFalse(QualityValues.accepts("x-gzip", "gzip"));
+    }
+
+    @Test
+    void mostSpecificMatchWins() {
+        assertFalse(QualityValues.accepts("gzip;q=0, *", "gzip"));
+        assertTrue(QualityValues.accepts("*;q=0, gzip", "gzip"));
+        assertTrue(QualityValues.accepts("*", "gzip"));
+    }
+
+    @Test
+    void mediaRangesMatch() {
+        assertEquals(
+                0.5,
+                QualityValues.quality(
+                        "application/*;q=0.5, */*;q=0.1",
+                        "application/json"
+                )
+        );
+        assertEquals(
+                0.1,
+                QualityValues.quality(
+                        "application/*;q=0.5, */*;q=0.1",
+                        "text/csv"
+                )
+        );
+        assertEquals(
+                1,
+                QualityValues.quality("application/json", "application/json")
+        );
+    }
+
+    @Test
+    void invalidQualityIsRejected() {
+        assertFalse(QualityValues.accepts("gzip;q=high", "gzip"));
+        assertFalse(QualityValues.accepts("gzip;q=2", "gzip"));
+    }
+}
@@ -0,0 +1,163 @@
+package net.issachanzi.resteasy.controller;
+
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.NotFound;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RouterTest {
+    private static final UUID ID
+            = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private final HttpController todos = controller("publish", "pin");
+    private final HttpController notes = controller();
+    private final Router router = new Router(Map.of(
+            "TodoItem", todos,
+            "Note", notes
+    ));
+
+    @Test
+    void modelIsRouted() {
+        assertEquals(
+                new Router.Route(null, todos, null, null, null),
+                router.route("/TodoItem")
+        );
+        assertEquals(
+                new Router.Route(null, notes, null, null, null),
+                router.route("/Note/")
+        );
+    }
+
+    @Test
+    void idIsRouted() {
+        assertEquals(
+                new Router.Route(null, todos, null, ID, null),
+                router.route("/TodoItem/" + ID)
+        );
+        assertEquals(
+                new Router.Route(null, todos, null, ID, null),
+                router.route("/TodoItem/" + ID.toString().toUpperCase() + "/")
+        );
+    }
+
+    @Test
+    void actionIsRouted() {
+        assertEquals(
+                new Router.Route(
+                        null,
+                        todos,
+                        HttpController.COUNT_ACTION,
+                        null,
+                        null
+                ),
+                router.route("/TodoItem/_count")
+        );
+        assertEquals(
+                new Router.Route(
+                        null,
+                        notes,
+                        HttpController.IMPORT_ACTION,
+                        null,
+                        null
+                ),
+                router.route("/Note/_import/")
+        );
+    }
+
+    @Test
+    void customMethodIsRouted() {
+        assertEquals(
+                new Router.Route(null, todos, null, ID, "pin"),
+                router.route("/TodoItem/" + ID + "/pin")
+        );
+    }
+
+    @Test
+    void unknownPathsAreNotFound() {
+        for (String path : List.of(
+                "",
+                "TodoItem",
+                "/",
+                "/Todo",
+                "/TodoItems",
+                "/TodoItem/_counts",
+                "/TodoItem/_count/more",
+                "/TodoItem/" + ID + "/publis",
+                "/Note/" + ID + "/publish",
+                "/TodoItem/" + ID + "/pin/more"
+        )) {
+            var route = router.route(path);
+
+            assertSame(NotFound.INSTANCE, route.error(), path);
+            assertNull(route.controller(), path);
+        }
+    }
+
+    @Test
+    void invalidIdIsBadRequest() {
+        assertInstanceOf(
+                BadRequest.class,
+                router.route("/TodoItem/123").error()
+        );
+        assertInstanceOf(
+                BadRequest.class,
+                router.route("/TodoItem/" + ID.toString().replace('a', 'g'))
+                        .error()
+        );
+    }
+
+    @Test
+    void uuidIsParsedFromRegion() {
+        String s = "/x/" + ID + "/y";
+
+        assertEquals(ID, Router.parseUuid(s, 3, 39));
+        assertNull(Router.parseUuid(s, 3, 38));
+        assertNull(Router.parseUuid(
+                ID.toString().replace('-', '_'),
+                0,
+                36
+        ));
+    }
+
+    @Test
+    void uuidDigitsMustBeAscii() {
+        String id = "123e4567-e89b-12d3-a456-42661417400";
+
+        assertEquals(
+                UUID.fromString(id + "0"),
+                Router.parseUuid(id + "0", 0, 36)
+        );
+        assertEquals(
+                UUID.fromString(id + "a"),
+                Router.parseUuid(id + "A", 0, 36)
+        );
+        // Fullwidth and Arabic-Indic zeros
+        assertNull(Router.parseUuid(id + "\uFF10", 0, 36));
+        assertNull(Router.parseUuid(id + "\u0660", 0, 36));
+        assertNull(Router.parseUuid(id + "g", 0, 36));
+    }
+
+    private static HttpController controller(String... methodNames) {
+        var controller = (Controller) Proxy.newProxyInstance(
+                Controller.class.getClassLoader(),
+                new Class<?>[] {Controller.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "customMethodNames" -> List.of(methodNames);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException();
+                }
+        );
+
+        return new HttpController(controller);
+    }
+}
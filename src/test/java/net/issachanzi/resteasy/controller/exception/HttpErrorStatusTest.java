@@ -0,0 +1,35 @@
+package net.issachanzi.resteasy.controller.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpErrorStatusTest {
+    @Test
+    void bodyIsJsonRenderedOnce() {
+        var error = new BadRequest("Invalid \"id\"");
+
+        byte[] body = error.body();
+
+        assertEquals(
+                "{\"status\":400,\"error\":\"Invalid \\\"id\\\"\"}",
+                new String(body, StandardCharsets.UTF_8)
+        );
+        assertSame(body, error.body());
+    }
+
+    @Test
+    void stackTraceIsOnlyKeptForCause() {
+        var cause = new IllegalStateException();
+        var error = new InternalServerError(cause);
+
+        assertEquals(0, NotFound.INSTANCE.getStackTrace().length);
+        assertEquals(0, error.getStackTrace().length);
+        assertTrue(error.getCause().getStackTrace().length > 0);
+        assertEquals(500, error.statusCode());
+    }
+}
@@ -0,0 +1,92 @@
+package net.issachanzi.resteasy.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static net.issachanzi.resteasy.model.StubDatabase.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BasicDaoTest {
+    @Test
+    void streamContinuesAfterLastRowOfEachBatch() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(
+                row("id", "1", "title", "a"),
+                row("id", "2", "title", "b")
+        ));
+        db.queue(List.of(row("id", "3", "title", "c")));
+
+        var titles = titles(db, false).toList();
+
+        assertEquals(List.of("a", "b", "c"), titles);
+        // The second batch was short, so there is no third query
+        assertEquals(2, db.statements.size());
+        assertTrue(db.statements.get(0).endsWith(
+                "ORDER BY \"title\" ASC, \"id\" ASC LIMIT 2;"
+        ));
+        assertTrue(db.statements.get(1).contains(
+                "((\"title\" > ? OR \"title\" IS NULL))"
+                + " OR (\"title\" = ? AND (\"id\" > ? OR \"id\" IS NULL))"
+        ), db.statements.get(1));
+        assertEquals(List.of("b", "b", "2"), db.parameters.get(1));
+    }
+
+    @Test
+    void streamContinuesAfterNullSortKey() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(
+                row("id", "1", "title", "a"),
+                row("id", "2", "title", null)
+        ));
+
+        titles(db, false).toList();
+
+        // Nothing sorts after NULL, so only rows with a NULL title and a
+        // later id follow
+        assertTrue(db.statements.get(1).contains(
+                "(\"title\" IS NULL AND (\"id\" > ? OR \"id\" IS NULL))"
+        ), db.statements.get(1));
+        assertEquals(List.of("2"), db.parameters.get(1));
+    }
+
+    @Test
+    void streamContinuesDescendingKeysWithLessThan() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(
+                row("id", "1", "title", "b"),
+                row("id", "2", "title", "a")
+        ));
+
+        titles(db, true).toList();
+
+        assertTrue(db.statements.get(1).contains(
+                "((\"title\" < ?)"
+                + " OR (\"title\" = ? AND (\"id\" > ? OR \"id\" IS NULL))"
+        ), db.statements.get(1));
+        assertEquals(List.of("a", "a", "2"), db.parameters.get(1));
+    }
+
+    /**
+     * Streams the titles of a table sorted by title, two rows at a time
+     */
+    private static Stream<Object> titles(StubDatabase db, boolean descending)
+            throws SQLException {
+        var dao = new BasicDao(
+                db.connection,
+                "Book",
+                Map.of("id", "UUID", "title", "TEXT")
+        );
+        var filter = new Filter(
+                List.of(),
+                List.of(new Filter.Order("title", descending))
+        );
+
+        return dao.stream(filter, List.of("id", "title"), 2)
+                .map(row -> row.get("title"));
+    }
+}
@@ -0,0 +1,291 @@
+package net.issachanzi.resteasy.model;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.Conflict;
+import net.issachanzi.resteasy.model.annotation.CustomMethod;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CustomMethodInvokerTest {
+    public static class Report extends EasyModel {
+        public String title = "Sales";
+
+        @CustomMethod
+        public String summary(int limit, String authorization) {
+            return title + " " + limit + " for " + authorization;
+        }
+
+        @CustomMethod
+        public Connection connection(Connection db) {
+            return db;
+        }
+
+        @CustomMethod
+        public static double half(double value) {
+            return value / 2;
+        }
+
+        @CustomMethod
+        public void nothing() {}
+
+        @CustomMethod
+        public void conflict() throws Conflict {
+            throw new Conflict();
+        }
+
+        @CustomMethod
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    public static class CachedReport extends EasyModel {
+        @CustomMethod(cacheTtl = 30)
+        public String summary(int limit, Object options) {
+            return "";
+        }
+
+        @CustomMethod(cacheTtl = 30)
+        public String mine(int limit, String authorization) {
+            return "";
+        }
+    }
+
+    @Test
+    void argumentsAreBoundByName() throws Exception {
+        var result = invoker("summary").invoke(
+                new Report(),
+                null,
+                "ann",
+                json("{\"limit\": 5, \"other\": true}")
+        );
+
+        assertEquals("Sales 5 for ann", result);
+    }
+
+    @Test
+    void connectionAndStaticMethodsAreSupported() throws Exception {
+        var db = new StubDatabase().connection;
+
+        assertSame(db, invoker("connection").invoke(
+                new Report(),
+                db,
+                null,
+                json("{}")
+        ));
+        assertEquals(2.5, invoker("half").invoke(
+                new Report(),
+                db,
+                null,
+                json("{\"value\": 5}")
+        ));
+        assertNull(invoker("nothing").invoke(
+                new Report(),
+                db,
+                null,
+                json("{}")
+        ));
+    }
+
+    @Test
+    void missingArgumentIsBadRequest() {
+        assertThrows(
+                BadRequest.class,
+                () -> invoker("summary").invoke(
+                        new Report(),
+                        null,
+                        null,
+                        json("{}")
+                )
+        );
+    }
+
+    @Test
+    void argumentsAreConvertedLikeModelFields() throws Exception {
+        assertEquals("Sales 5 for null", invoker("summary").invoke(
+                new Report(),
+                null,
+                null,
+                json("{\"limit\": 5.0}")
+        ));
+        assertThrows(
+                BadRequest.class,
+                () -> invoker("summary").invoke(
+                        new Report(),
+                        null,
+                        null,
+                        json("{\"limit\": \"five\"}")
+                )
+        );
+        assertThrows(
+                BadRequest.class,
+                () -> invoker("half").invoke(
+                        new Report(),
+                        null,
+                        null,
+                        json("{\"value\": null}")
+                )
+        );
+    }
+
+    @Test
+    void exceptionsAreWrappedUnlessErrorStatuses() {
+        assertThrows(
+                Conflict.class,
+                () -> invoker("conflict").invoke(
+                        new Report(),
+                        null,
+                        null,
+                        json("{}")
+                )
+        );
+
+        var error = assertThrows(
+                InvocationTargetException.class,
+                () -> invoker("fail").invoke(
+                        new Report(),
+                        null,
+                        null,
+                        json("{}")
+                )
+        );
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void invokerIsCompiledOncePerMethod() {
+        var modelType = ModelType.get(Report.class);
+
+        assertSame(
+                modelType.customMethodInvoker("summary"),
+                modelType.customMethodInvoker("summary")
+        );
+        assertNull(modelType.customMethodInvoker("title"));
+    }
+
+    @Test
+    void cacheTtlIsInMilliseconds() {
+        assertEquals(30_000, cached("summary").cacheTtl());
+    }
+
+    @Test
+    void equivalentBodiesGiveSameVariant() {
+        var invoker = cached("summary");
+
+        assertEquals(
+                invoker.cacheVariant(null, json(
+                        "{\"limit\": 10, "
+                        + "\"options\": {\"a\": 1.50, \"b\": [1, 2]}}"
+                )),
+                invoker.cacheVariant(null, json(
+                        "{\"options\":{\"b\":[1,2],\"a\":1.5},\"limit\":1E1}"
+                ))
+        );
+    }
+
+    @Test
+    void differentArgumentsGiveDifferentVariants() {
+        var invoker = cached("summary");
+
+        assertNotEquals(
+                invoker.cacheVariant(null, json(
+                        "{\"limit\": 10, \"options\": [1, 2]}"
+                )),
+                invoker.cacheVariant(null, json(
+                        "{\"limit\": 10, \"options\": [2, 1]}"
+                ))
+        );
+        assertNotEquals(
+                invoker.cacheVariant(null, json(
+                        "{\"limit\": 10, \"options\": \"1\"}"
+                )),
+                invoker.cacheVariant(null, json(
+                        "{\"limit\": 10, \"options\": 1}"
+                ))
+        );
+    }
+
+    @Test
+    void missingArgumentIsNotCached() {
+        assertNull(cached("summary").cacheVariant(null, json(
+                "{\"limit\": 10}"
+        )));
+    }
+
+    @Test
+    void unusedKeysAreIgnored() {
+        var invoker = cached("summary");
+
+        assertEquals(
+                invoker.cacheVariant(null, json(
+                        "{\"limit\": 10, \"options\": null}"
+                )),
+                invoker.cacheVariant(null, json(
+                        "{\"limit\": 10, \"options\": null, \"other\": true}"
+                ))
+        );
+    }
+
+    @Test
+    void authorizationIsOnlyIncludedIfTaken() {
+        var summary = cached("summary");
+        var mine = cached("mine");
+        var body = json("{\"limit\": 10, \"options\": null}");
+
+        assertEquals(
+                summary.cacheVariant("Bearer a", body),
+                summary.cacheVariant("Bearer b", body)
+        );
+        assertNotEquals(
+                mine.cacheVariant("Bearer a", body),
+                mine.cacheVariant("Bearer b", body)
+        );
+    }
+
+    @Test
+    void methodsGiveDifferentVariants() {
+        var body = json("{\"limit\": 10, \"options\": null}");
+
+        assertNotEquals(
+                cached("summary").cacheVariant(null, body),
+                cached("mine").cacheVariant(null, body)
+        );
+    }
+
+    private static CustomMethodInvoker cached(String methodName) {
+        return invoker(CachedReport.class, methodName);
+    }
+
+    private static CustomMethodInvoker invoker(String methodName) {
+        return invoker(Report.class, methodName);
+    }
+
+    private static CustomMethodInvoker invoker(
+            Class<? extends EasyModel> clazz,
+            String methodName
+    ) {
+        for (var method : clazz.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return new CustomMethodInvoker(method);
+            }
+        }
+
+        throw new IllegalArgumentException(methodName);
+    }
+
+    private static JsonObject json(String json) {
+        return Json.createReader(new StringReader(json)).readObject();
+    }
+}
@@ -0,0 +1,308 @@
+package net.issachanzi.resteasy.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EasyModelTest {
+    public static class Book extends EasyModel {
+        public String title;
+        public int pages;
+    }
+
+    private static final ModelType BOOK = ModelType.get(Book.class);
+
+    @BeforeAll
+    static void syncAssociations() {
+        BOOK.syncAssociations(new StubDatabase().connection);
+    }
+
+    @Test
+    void byIdsSelectsAllInOneQuery() throws Exception {
+        var db = new StubDatabase();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        EasyModel.byIds(db.connection, List.of(first, second), Book.class);
+
+        assertEquals(1, db.statements.size());
+        assertTrue(db.statements.get(0).contains("id = ANY (?)"));
+        assertArrayEquals(
+                new Object[] {first.toString(), second.toString()},
+                (Object[]) ((java.sql.Array) db.parameters.get(0).get(0))
+                        .getArray()
+        );
+    }
+
+    @Test
+    void byIdsKeepsRequestOrderAndSkipsMissing() throws Exception {
+        var db = new StubDatabase();
+        UUID first = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        db.queue(List.of(row(second, "Second"), row(first, "First")));
+
+        var books = EasyModel.byIds(
+                db.connection,
+                List.of(first, missing, second),
+                Book.class
+        );
+
+        assertEquals(2, books.size());
+        assertEquals("First", books.get(0).title);
+        assertEquals("Second", books.get(1).title);
+    }
+
+    @Test
+    void byIdsWithNoIdsDoesNotQuery() throws Exception {
+        var db = new StubDatabase();
+
+        var books = EasyModel.byIds(db.connection, List.of(), Book.class);
+
+        assertTrue(books.isEmpty());
+        assertTrue(db.statements.isEmpty());
+    }
+
+    @Test
+    void byIdsWithFilterMatchesConditionsInTheSameQuery() throws Exception {
+        var db = new StubDatabase();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        db.queue(List.of(row(second, "Second"), row(first, "First")));
+
+        var books = EasyModel.byIds(
+                db.connection,
+                List.of(first, second),
+                Filter.parse(Map.of("pages[gt]", "100"), BOOK),
+                Book.class,
+                Projection.ALL
+        );
+
+        assertEquals(1, db.statements.size());
+        assertTrue(
+                db.statements.get(0)
+                        .contains("id = ANY (?) AND (\"pages\" > ?)"),
+                db.statements.get(0)
+        );
+        assertEquals(100, db.parameters.get(0).get(1));
+        assertEquals(
+                List.of("First", "Second"),
+                books.stream().map(book -> book.title).toList()
+        );
+    }
+
+    @Test
+    void byIdsWithSortIsInSortedOrder() throws Exception {
+        var db = new StubDatabase();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        db.queue(List.of(row(second, "Second"), row(first, "First")));
+
+        var books = EasyModel.byIds(
+                db.connection,
+                List.of(first, second),
+                Filter.parse(Map.of("sort", "-title"), BOOK),
+                Book.class,
+                Projection.ALL
+        );
+
+        assertTrue(
+                db.statements.get(0).contains("ORDER BY \"title\" DESC"),
+                db.statements.get(0)
+        );
+        assertEquals(
+                List.of("Second", "First"),
+                books.stream().map(book -> book.title).toList()
+        );
+    }
+
+    @Test
+    void streamReadsRowsWithoutHoldingATransaction() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(
+                row(UUID.randomUUID(), "First"),
+                row(UUID.randomUUID(), "Second")
+        ));
+
+        List<String> titles;
+        try (var books = EasyModel.stream(
+                db.connection,
+                Filter.parse(Map.of("sort", "title"), BOOK),
+                Book.class,
+                Projection.ALL
+        )) {
+            titles = books.map(book -> book.title).toList();
+        }
+
+        assertEquals(List.of("First", "Second"), titles);
+        assertEquals(1, db.statements.size());
+        assertTrue(db.statements.get(0).endsWith(
+                "ORDER BY \"title\" ASC, \"id\" ASC LIMIT "
+                        + EasyModel.STREAM_BATCH_SIZE + ";"
+        ));
+        assertFalse(db.calls.contains("setAutoCommit"));
+        assertFalse(db.calls.contains("commit"));
+    }
+
+    @Test
+    void whereMapMatchesFieldsExactly() throws Exception {
+        var db = new StubDatabase();
+
+        EasyModel.where(db.connection, Map.of("pages", "100"), Book.class);
+
+        assertTrue(
+                db.statements.get(0).contains("WHERE \"pages\" = ?"),
+                db.statements.get(0)
+        );
+        assertEquals(List.of(100), db.parameters.get(0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> EasyModel.where(
+                        db.connection,
+                        Map.of("pages[gt]", "100"),
+                        Book.class
+                )
+        );
+    }
+
+    @Test
+    void countIsComputedInSql() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(Map.of("count", 7L)));
+
+        long count = EasyModel.count(
+                db.connection,
+                Filter.parse(Map.of("pages[gt]", "100"), BOOK),
+                Book.class
+        );
+
+        assertEquals(7, count);
+        assertTrue(db.statements.get(0).startsWith(
+                "SELECT COUNT(*) FROM \"Book\" WHERE \"pages\" > ?"
+        ));
+        assertEquals(List.of(100), db.parameters.get(0));
+    }
+
+    @Test
+    void estimateIsReadFromTableStatistics() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(Map.of("reltuples", 1200L)));
+
+        long count = EasyModel.estimateCount(
+                db.connection,
+                Filter.parse(Map.of(), BOOK),
+                Book.class
+        );
+
+        assertEquals(1200, count);
+        assertEquals(1, db.statements.size());
+        assertTrue(db.statements.get(0).contains("pg_class"));
+        assertEquals(List.of("\"Book\""), db.parameters.get(0));
+    }
+
+    @Test
+    void estimateFallsBackToQueryPlan() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(Map.of("reltuples", -1L)));
+        db.queue(List.of(plan(42)));
+
+        long count = EasyModel.estimateCount(
+                db.connection,
+                Filter.parse(Map.of(), BOOK),
+                Book.class
+        );
+
+        assertEquals(42, count);
+        assertTrue(db.statements.get(1).startsWith("EXPLAIN (FORMAT JSON)"));
+    }
+
+    @Test
+    void filteredEstimateIsPlanned() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(plan(5)));
+
+        long count = EasyModel.estimateCount(
+                db.connection,
+                Filter.parse(Map.of("pages[lt]", "50"), BOOK),
+                Book.class
+        );
+
+        assertEquals(5, count);
+        assertEquals(1, db.statements.size());
+        assertTrue(db.statements.get(0).startsWith(
+                "EXPLAIN (FORMAT JSON) SELECT 1 FROM \"Book\" "
+                + "WHERE \"pages\" < ?"
+        ));
+        assertEquals(List.of(50), db.parameters.get(0));
+    }
+
+    @Test
+    void aggregateIsGroupedInSql() throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(StubDatabase.row("title", "Dune", "value", 412L)));
+
+        var rows = EasyModel.aggregate(
+                db.connection,
+                Aggregate.SUM,
+                "pages",
+                "title",
+                Filter.parse(Map.of(), BOOK),
+                Book.class
+        );
+
+        assertEquals(List.of(Map.of("title", "Dune", "value", 412L)), rows);
+        String sql = db.statements.get(0);
+        assertTrue(sql.contains("SUM(\"pages\") AS value"), sql);
+        assertTrue(sql.contains("GROUP BY \"title\""), sql);
+    }
+
+    @Test
+    void aggregateOfUnsupportedFieldIsRejected() {
+        var db = new StubDatabase();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> EasyModel.aggregate(
+                        db.connection,
+                        Aggregate.AVG,
+                        "title",
+                        null,
+                        Filter.parse(Map.of(), BOOK),
+                        Book.class
+                )
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> EasyModel.aggregate(
+                        db.connection,
+                        Aggregate.SUM,
+                        null,
+                        null,
+                        Filter.parse(Map.of(), BOOK),
+                        Book.class
+                )
+        );
+        assertTrue(db.statements.isEmpty());
+    }
+
+    private static Map<String, Object> plan(long rows) {
+        return Map.of(
+                "QUERY PLAN",
+                "[{\"Plan\": {\"Node Type\": \"Seq Scan\", "
+                + "\"Plan Rows\": " + rows + "}}]"
+        );
+    }
+
+    private static Map<String, Object> row(UUID id, String title) {
+        return Map.of("id", id.toString(), "title", title, "pages", 0);
+    }
+}
@@ -0,0 +1,172 @@
+package net.issachanzi.resteasy.model;
+
+import net.issachanzi.resteasy.model.Filter.Condition;
+import net.issachanzi.resteasy.model.Filter.Operator;
+import net.issachanzi.resteasy.model.Filter.Order;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilterTest {
+    public static class Task extends EasyModel {
+        public String text;
+        public int priority;
+        public boolean done;
+    }
+
+    private static final ModelType TASK = ModelType.get(Task.class);
+
+    @BeforeAll
+    static void syncAssociations() {
+        TASK.syncAssociations(new StubDatabase().connection);
+    }
+
+    @Test
+    void valuesAreConvertedToFieldTypes() {
+        var filter = Filter.parse(params("priority", "3", "done", "true"), TASK);
+
+        assertEquals(
+                List.of(
+                        new Condition("priority", Operator.EQ, 3),
+                        new Condition("done", Operator.EQ, true)
+                ),
+                filter.conditions()
+        );
+    }
+
+    @Test
+    void operatorsAreParsed() {
+        var filter = Filter.parse(
+                params(
+                        "priority[gte]", "2",
+                        "priority[IN]", "1,2",
+                        "text[prefix]", "Buy",
+                        "text[null]", "false"
+                ),
+                TASK
+        );
+
+        assertEquals(
+                List.of(
+                        new Condition("priority", Operator.GTE, 2),
+                        new Condition("priority", Operator.IN, List.of(1, 2)),
+                        new Condition("text", Operator.PREFIX, "Buy"),
+                        new Condition("text", Operator.NULL, false)
+                ),
+                filter.conditions()
+        );
+    }
+
+    @Test
+    void idsAreComparedAsText() {
+        var id = UUID.randomUUID();
+        var filter = Filter.parse(params("id", id.toString()), TASK);
+
+        assertEquals(
+                List.of(new Condition("id", Operator.EQ, id.toString())),
+                filter.conditions()
+        );
+    }
+
+    @Test
+    void sortIsParsed() {
+        var filter = Filter.parse(params("sort", "-priority, text,"), TASK);
+
+        assertEquals(List.of(), filter.conditions());
+        assertEquals(
+                List.of(new Order("priority", true), new Order("text", false)),
+                filter.order()
+        );
+    }
+
+    @Test
+    void invalidParamsAreRejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Filter.parse(params("owner", "a"), TASK)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Filter.parse(params("priority[like]", "1"), TASK)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Filter.parse(params("priority[prefix]", "1"), TASK)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Filter.parse(params("priority", "high"), TASK)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Filter.parse(params("sort", "-owner"), TASK)
+        );
+    }
+
+    @Test
+    void combinedFiltersKeepOrderOfBoth() {
+        var first = new Filter(
+                List.of(new Condition("done", Operator.EQ, false)),
+                List.of(new Order("priority", true))
+        );
+        var second = Filter.equal(Map.of("text", "a"));
+
+        var combined = first.and(second).and(
+                new Filter(List.of(), List.of(new Order("id", false)))
+        );
+
+        assertEquals(
+                List.of(
+                        new Condition("done", Operator.EQ, false),
+                        new Condition("text", Operator.EQ, "a")
+                ),
+                combined.conditions()
+        );
+        assertEquals(
+                List.of(new Order("priority", true), new Order("id", false)),
+                combined.order()
+        );
+    }
+
+    @Test
+    void filterIsCompiledToParameterisedSql() throws Exception {
+        var db = new StubDatabase();
+        var filter = Filter.parse(
+                params(
+                        "priority[in]", "1,2",
+                        "text[prefix]", "50%_",
+                        "done[null]", "true",
+                        "sort", "-priority"
+                ),
+                TASK
+        );
+
+        EasyModel.where(db.connection, filter, Task.class, Projection.ALL);
+
+        String sql = db.statements.get(0);
+        assertTrue(sql.contains(
+                "WHERE \"priority\" IN (?, ?) "
+                + "AND \"text\" LIKE ? ESCAPE '\\' "
+                + "AND \"done\" IS NULL "
+                + "ORDER BY \"priority\" DESC"
+        ), sql);
+        assertEquals(List.of(1, 2, "50\\%\\_%"), db.parameters.get(0));
+    }
+
+    private static Map<String, String> params(String... keysAndValues) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            params.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+
+        return params;
+    }
+}
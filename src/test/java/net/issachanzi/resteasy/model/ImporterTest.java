@@ -0,0 +1,231 @@
+package net.issachanzi.resteasy.model;
+
+import net.issachanzi.resteasy.controller.exception.BadRequest;
+import net.issachanzi.resteasy.controller.exception.Forbidden;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImporterTest {
+    public static class Entry extends EasyModel {
+        public String text;
+        public int count;
+    }
+
+    /**
+     * A model which can only be created with a count below 10
+     */
+    public static class Limited extends EasyModel {
+        public int count;
+
+        @Override
+        public boolean authorize(
+                Connection db,
+                String authorization,
+                AccessType accessType
+        ) {
+            return count < 10;
+        }
+    }
+
+    private static final Pattern COLUMNS
+            = Pattern.compile("\\(([^)]*)\\) FROM STDIN");
+
+    @Test
+    void csvValuesAreQuotedForCopy() throws Exception {
+        var db = new StubDatabase();
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        String third = UUID.randomUUID().toString();
+
+        long imported = new Importer(db.connection, Entry.class).importRows(
+                new StringReader(
+                        "id,text,count\r\n"
+                        + first + ",\"Hello, \"\"world\"\"\n!\",1\r\n"
+                        + second + ",,2\n"
+                        + third + ",\"\",3\n"
+                ),
+                "text/csv; charset=utf-8",
+                null
+        );
+
+        assertEquals(3, imported);
+        assertEquals(
+                copied(
+                        Map.of(
+                                "id", "\"" + first + "\"",
+                                "text", "\"Hello, \"\"world\"\"\n!\"",
+                                "count", "\"1\""
+                        ),
+                        Map.of(
+                                "id", "\"" + second + "\"",
+                                "text", "",
+                                "count", "\"2\""
+                        ),
+                        Map.of(
+                                "id", "\"" + third + "\"",
+                                "text", "\"\"",
+                                "count", "\"3\""
+                        )
+                ).apply(db.statements.get(0)),
+                db.copied.toString()
+        );
+    }
+
+    @Test
+    void ndjsonRowsAreGivenIds() throws Exception {
+        var db = new StubDatabase();
+
+        long imported = new Importer(db.connection, Entry.class).importRows(
+                new StringReader("{\"text\": \"a\", \"count\": 1}\n\n"
+                        + "{\"text\": null, \"count\": 2}\n"),
+                Importer.NDJSON,
+                null
+        );
+
+        assertEquals(2, imported);
+        for (var line : db.copied.toString().split("\n")) {
+            var values = line.split(",", -1);
+            assertEquals(3, values.length, line);
+            assertTrue(Arrays.stream(values).anyMatch(value -> value.matches(
+                    "\"[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-"
+                    + "[0-9a-f]{12}\""
+            )), line);
+        }
+    }
+
+    @Test
+    void importIsAChangeToEveryInstance() throws Exception {
+        var db = new StubDatabase();
+        List<UUID> changed = new ArrayList<>();
+        EasyModel.addChangeListener((clazz, id) -> {
+            if (clazz == Entry.class) {
+                changed.add(id);
+            }
+        });
+
+        new Importer(db.connection, Entry.class).importRows(
+                new StringReader("text,count\na,1\n"),
+                Importer.CSV,
+                null
+        );
+
+        assertEquals(Collections.singletonList(null), changed);
+    }
+
+    @Test
+    void invalidRowCancelsCopy() {
+        var db = new StubDatabase();
+        var importer = new Importer(db.connection, Entry.class);
+
+        var error = assertThrows(
+                BadRequest.class,
+                () -> importer.importRows(
+                        new StringReader("text,count\na,1\nb,many\n"),
+                        Importer.CSV,
+                        null
+                )
+        );
+
+        assertTrue(error.getMessage().startsWith("Line 3"), error.getMessage());
+        assertTrue(db.copyCancelled);
+    }
+
+    @Test
+    void unknownFieldAndFormatAreRejected() {
+        var db = new StubDatabase();
+        var importer = new Importer(db.connection, Entry.class);
+
+        assertThrows(
+                BadRequest.class,
+                () -> importer.importRows(
+                        new StringReader("text,owner\na,b\n"),
+                        Importer.CSV,
+                        null
+                )
+        );
+        assertThrows(
+                BadRequest.class,
+                () -> importer.importRows(
+                        new StringReader("{}"),
+                        "application/json",
+                        null
+                )
+        );
+    }
+
+    @Test
+    void unauthorizedRowRejectsImport() throws Exception {
+        var db = new StubDatabase();
+        var importer = new Importer(db.connection, Limited.class);
+
+        assertThrows(
+                Forbidden.class,
+                () -> importer.importRows(
+                        new StringReader("count\n1\n10\n"),
+                        Importer.CSV,
+                        null
+                )
+        );
+        // Rows are authorized before any COPY is started
+        assertTrue(db.statements.isEmpty());
+        assertTrue(db.calls.contains("rollback"));
+        assertTrue(db.connection.getAutoCommit());
+    }
+
+    @Test
+    void authorizedRowsAreCopiedInOneTransaction() throws Exception {
+        var db = new StubDatabase();
+        var importer = new Importer(db.connection, Limited.class);
+
+        long imported = importer.importRows(
+                new StringReader("count\n1\n2\n"),
+                Importer.CSV,
+                null
+        );
+
+        assertEquals(2, imported);
+        assertEquals(1, db.statements.size());
+        assertTrue(db.calls.contains("commit"));
+        assertTrue(db.connection.getAutoCommit());
+    }
+
+    /**
+     * Gets the data a {@code COPY} command is expected to send for some rows,
+     * from the order of the columns in the command
+     */
+    @SafeVarargs
+    private static Function<String, String> copied(
+            Map<String, String>... rows
+    ) {
+        return sql -> {
+            var matcher = COLUMNS.matcher(sql);
+            assertTrue(matcher.find(), sql);
+            var columns = matcher.group(1).replace("\"", "").split(", ");
+
+            var expected = new StringBuilder();
+            for (var row : rows) {
+                List<String> values = new ArrayList<>();
+                for (var column : columns) {
+                    values.add(row.get(column));
+                }
+                expected.append(String.join(",", values)).append('\n');
+            }
+
+            return expected.toString();
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package net.issachanzi.resteasy.model;
+
+import jakarta.json.Json;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding a request body with {@link JsonBinder} against building a
+ * {@code JsonObject} and passing it to
+ * {@link EasyModel#init(Connection, jakarta.json.JsonObject)}, as was done
+ * before
+ *
+ * <p>
+ *     This is not run by the tests. Run it with {@link #main(String[])}, with
+ *     the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBinderBenchmark {
+    public static class Order extends EasyModel {
+        public String customer;
+        public String address;
+        public int quantity;
+        public long total;
+        public double weight;
+        public boolean paid;
+        public Timestamp placed;
+    }
+
+    private Connection db;
+    private JsonBinder<Order> binder;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        db = new StubDatabase().connection;
+        binder = new JsonBinder<>(Order.class);
+        body = """
+                {
+                    "customer": "Ada Lovelace",
+                    "address": "12 St James's Square, London",
+                    "quantity": 3,
+                    "total": 129900,
+                    "weight": 2.75,
+                    "paid": true,
+                    "placed": 1700000000000,
+                    "notes": {"gift": true, "tags": ["a", "b"]}
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Order bind() throws SQLException {
+        return binder.bind(db, new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    public Order jsonObjectAndInit() throws Exception {
+        var jsonObject = Json.createReader(new ByteArrayInputStream(body))
+                .readObject();
+        var order = new Order();
+        order.init(db, jsonObject);
+
+        return order;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonBinderBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,151 @@
+package net.issachanzi.resteasy.model;
+
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static net.issachanzi.resteasy.model.StubDatabase.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonBinderTest {
+    public static class Author extends EasyModel {
+        public String name;
+    }
+
+    public static class Post extends EasyModel {
+        public String title;
+        public int likes;
+        public double rating;
+        public boolean published;
+        public Long views;
+        public Timestamp written;
+        public Author author;
+    }
+
+    /**
+     * A model with its own {@code init}, which must be given a JSON object
+     */
+    public static class Draft extends EasyModel {
+        public String title;
+
+        @Override
+        protected void init(Connection db, JsonObject jsonObject) {
+            title = jsonObject.getString("title").toUpperCase();
+        }
+    }
+
+    @BeforeAll
+    static void syncAssociations() {
+        var db = new StubDatabase().connection;
+        ModelType.get(Author.class).syncAssociations(db);
+        ModelType.get(Post.class).syncAssociations(db);
+    }
+
+    @Test
+    void valuesAreConvertedToFieldTypes() throws Exception {
+        var db = new StubDatabase();
+
+        var post = new JsonBinder<>(Post.class).bind(db.connection, json("""
+                {
+                    "title": "Hello",
+                    "likes": 3,
+                    "rating": 4.5,
+                    "published": true,
+                    "views": null,
+                    "written": 1700000000000
+                }
+                """));
+
+        assertEquals("Hello", post.title);
+        assertEquals(3, post.likes);
+        assertEquals(4.5, post.rating);
+        assertTrue(post.published);
+        assertNull(post.views);
+        assertEquals(new Timestamp(1_700_000_000_000L), post.written);
+        assertTrue(db.statements.isEmpty());
+    }
+
+    @Test
+    void unknownFieldsAreSkipped() throws Exception {
+        var db = new StubDatabase();
+
+        var post = new JsonBinder<>(Post.class).bind(db.connection, json("""
+                {
+                    "extra": {"nested": [1, {"deep": true}]},
+                    "list": [1, 2, 3],
+                    "title": "Kept"
+                }
+                """));
+
+        assertEquals("Kept", post.title);
+    }
+
+    @Test
+    void associationIsLookedUpById() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        db.queue(List.of(row("id", id.toString(), "name", "Ann")));
+
+        var post = new JsonBinder<>(Post.class).bind(
+                db.connection,
+                json("{\"author\": \"" + id + "\"}")
+        );
+
+        assertEquals(id, post.author.id);
+        assertEquals("Ann", post.author.name);
+        assertEquals(List.of(id.toString()), db.parameters.get(0));
+    }
+
+    @Test
+    void invalidValuesAreRejected() {
+        var binder = new JsonBinder<>(Post.class);
+        var db = new StubDatabase().connection;
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> binder.bind(db, json("{\"likes\": \"many\"}"))
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> binder.bind(db, json("{\"likes\": null}"))
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> binder.bind(db, json("{\"published\": 1}"))
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> binder.bind(db, json("[]"))
+        );
+        assertThrows(
+                JsonException.class,
+                () -> binder.bind(db, json("{\"title\": "))
+        );
+    }
+
+    @Test
+    void overriddenInitIsGivenAJsonObject() throws Exception {
+        var db = new StubDatabase();
+
+        var draft = (Draft) ModelType.get(Draft.class)
+                .fromJson(db.connection, "{\"title\": \"draft\"}");
+
+        assertEquals("DRAFT", draft.title);
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
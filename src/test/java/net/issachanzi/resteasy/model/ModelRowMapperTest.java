@@ -0,0 +1,127 @@
+package net.issachanzi.resteasy.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static net.issachanzi.resteasy.model.StubDatabase.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelRowMapperTest {
+    public static class Reading extends EasyModel {
+        public int count;
+        public long total;
+        public double mean;
+        public boolean valid;
+        public Integer limit;
+        public String label;
+        public Timestamp taken;
+    }
+
+    private static final List<String> COLUMNS = List.of(
+            "id", "label", "count", "total", "mean", "valid", "limit", "taken"
+    );
+
+    @Test
+    void columnsAreReadByIndexIntoTypedFields() throws Exception {
+        UUID id = UUID.randomUUID();
+        var taken = new Timestamp(1_700_000_000_000L);
+        var rs = query(row(
+                "taken", taken,
+                "limit", 10,
+                "valid", true,
+                "mean", 2.5,
+                "total", 9_000_000_000L,
+                "count", 3,
+                "label", "a",
+                "id", id.toString()
+        ));
+        var mapper = new ModelRowMapper<>(Reading.class, COLUMNS);
+
+        assertTrue(rs.next());
+        var reading = mapper.map(rs);
+
+        assertEquals(id, reading.id);
+        assertEquals("a", reading.label);
+        assertEquals(3, reading.count);
+        assertEquals(9_000_000_000L, reading.total);
+        assertEquals(2.5, reading.mean);
+        assertTrue(reading.valid);
+        assertEquals(10, reading.limit);
+        assertEquals(taken, reading.taken);
+    }
+
+    @Test
+    void nullColumnsKeepWrappersNull() throws Exception {
+        var values = new HashMap<String, Object>();
+        for (var column : COLUMNS) {
+            values.put(column, null);
+        }
+        values.put("id", UUID.randomUUID().toString());
+        var rs = query(values);
+
+        assertTrue(rs.next());
+        var reading = new ModelRowMapper<>(Reading.class, COLUMNS).map(rs);
+
+        assertEquals(0, reading.count);
+        assertFalse(reading.valid);
+        assertNull(reading.limit);
+        assertNull(reading.label);
+        assertNull(reading.taken);
+    }
+
+    @Test
+    void unknownColumnIsRejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ModelRowMapper<>(
+                        Reading.class,
+                        List.of("id", "owner")
+                )
+        );
+    }
+
+    @Test
+    void mapperIsCompiledOncePerColumns() {
+        var modelType = ModelType.get(Reading.class);
+
+        var mapper = modelType.rowMapper(List.of("label", "count"));
+
+        assertSame(
+                mapper,
+                modelType.rowMapper(List.of("id", "label", "count"))
+        );
+        assertNotSame(
+                mapper,
+                modelType.rowMapper(List.of("count", "label"))
+        );
+    }
+
+    /**
+     * Runs a query selecting {@link #COLUMNS} against a stubbed connection
+     * answering with one row
+     */
+    private static ResultSet query(Map<String, Object> row) throws Exception {
+        var db = new StubDatabase();
+        db.queue(List.of(row));
+        String columns = String.join(
+                ", ",
+                COLUMNS.stream().map(column -> "\"" + column + "\"").toList()
+        );
+
+        return db.connection
+                .prepareStatement("SELECT " + columns + " FROM \"Reading\"")
+                .executeQuery();
+    }
+}
@@ -0,0 +1,134 @@
+package net.issachanzi.resteasy.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectionTest {
+    public static class Article extends EasyModel {
+        public String title;
+        public String body;
+        public int views;
+        public Writer writer;
+    }
+
+    public static class Writer extends EasyModel {
+        public String name;
+    }
+
+    private static final ModelType ARTICLE = ModelType.get(Article.class);
+
+    @BeforeAll
+    static void syncAssociations() {
+        var db = new StubDatabase().connection;
+        ARTICLE.syncAssociations(db);
+        ModelType.get(Writer.class).syncAssociations(db);
+    }
+
+    @Test
+    void missingListSelectsEverything() {
+        var projection = Projection.parse(null, ARTICLE);
+
+        assertTrue(projection.includes("body"));
+        assertTrue(Projection.ALL.includes("body"));
+    }
+
+    @Test
+    void associationsAreOnlyLoadedEagerlyForAll() {
+        var projection = Projection.parse(null, ARTICLE);
+
+        assertNull(projection.association("writer"));
+        assertNull(projection.expanded("writer"));
+        assertSame(Projection.ALL, Projection.ALL.association("writer"));
+    }
+
+    @Test
+    void includedAssociationIsExpanded() {
+        var projection = Projection.parse("title", "writer", ARTICLE);
+        var expanded = projection.expanded("writer");
+
+        assertSame(expanded, projection.association("writer"));
+        assertTrue(expanded.includes("name"));
+        assertNull(expanded.expanded("writer"));
+    }
+
+    @Test
+    void unknownOrTooDeepIncludeIsRejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Projection.parse(null, "editor", ARTICLE)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Projection.parse(null, "writer.a.b.c", ARTICLE)
+        );
+    }
+
+    @Test
+    void listedFieldsAndIdAreSelected() {
+        var projection = Projection.parse("title, views", ARTICLE);
+
+        assertTrue(projection.includes("id"));
+        assertTrue(projection.includes("title"));
+        assertTrue(projection.includes("views"));
+        assertFalse(projection.includes("body"));
+        assertEquals(
+                Set.of("id", "title", "views"),
+                Set.copyOf(projection.columns(ARTICLE))
+        );
+    }
+
+    @Test
+    void allFieldsKeepsExpandedAssociations() {
+        var projection = Projection.parse("title", "writer", ARTICLE);
+        var loaded = projection.allFields();
+
+        assertTrue(loaded.includes("body"));
+        assertTrue(loaded.includes("views"));
+        assertFalse(projection.includes("body"));
+        assertSame(
+                projection.expanded("writer"),
+                loaded.expanded("writer")
+        );
+        assertSame(Projection.ALL, Projection.ALL.allFields());
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Projection.parse("title,author", ARTICLE)
+        );
+    }
+
+    @Test
+    void onlySelectedColumnsAreQueried() throws Exception {
+        var db = new StubDatabase();
+        UUID id = UUID.randomUUID();
+        db.queue(List.of(Map.of("id", id.toString(), "title", "Hello")));
+
+        var article = EasyModel.byId(
+                db.connection,
+                id,
+                Article.class,
+                Projection.parse("title", ARTICLE)
+        );
+
+        String sql = db.statements.get(0);
+        assertTrue(sql.contains("\"title\""));
+        assertFalse(sql.contains("\"body\""));
+        assertEquals("Hello", article.title);
+        assertNull(article.body);
+    }
+}
@@ -0,0 +1,393 @@
+package net.issachanzi.resteasy.model;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stub of a JDBC connection, so models can be tested without a database
+ *
+ * <p>
+ *     The SQL of every statement is recorded, along with the parameters set
+ *     on it. Queries are answered with the rows queued by the test, in the
+ *     order they were queued, or with no rows once the queue is empty.
+ * </p>
+ */
+public final class StubDatabase {
+    /**
+     * The SQL of each statement prepared or executed, in order
+     */
+    public final List<String> statements = new ArrayList<>();
+
+    /**
+     * The parameters set on each prepared statement, in the same order as
+     * {@link #statements}
+     */
+    public final List<List<Object>> parameters = new ArrayList<>();
+
+    /**
+     * The name of each method called on the connection, in order
+     */
+    public final List<String> calls = new ArrayList<>();
+
+    /**
+     * The data sent to the database by {@code COPY ... FROM STDIN} commands
+     */
+    public final StringBuilder copied = new StringBuilder();
+
+    /**
+     * Whether a {@code COPY} command was cancelled
+     */
+    public boolean copyCancelled = false;
+
+    /**
+     * The number of rows each update or delete reports that it changed
+     */
+    public int updateCount = 1;
+
+    public final Connection connection
+            = proxy(Connection.class, this::connection);
+
+    private boolean autoCommit = true;
+
+    private final Deque<List<Map<String, Object>>> results
+            = new ArrayDeque<>();
+
+    /**
+     * Queues the rows to answer a query with
+     *
+     * @param rows The rows, each a map of column names to values, in column
+     *             order
+     */
+    public void queue(List<Map<String, Object>> rows) {
+        results.add(rows);
+    }
+
+    /**
+     * Builds a row to queue, keeping its columns in the order given
+     *
+     * @param columnsAndValues The name of each column followed by its value
+     * @return The row
+     */
+    public static Map<String, Object> row(Object... columnsAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            row.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+        }
+
+        return row;
+    }
+
+    private Object connection(Method method, Object[] args) {
+        calls.add(method.getName());
+
+        switch (method.getName()) {
+            case "getAutoCommit":
+                return autoCommit;
+            case "setAutoCommit":
+                autoCommit = (Boolean) args[0];
+
+                return null;
+            case "prepareStatement":
+                return statement(PreparedStatement.class, (String) args[0]);
+            case "createStatement":
+                return statement(Statement.class, null);
+            case "unwrap":
+                if (args[0] == PGConnection.class) {
+                    return proxy(
+                            PGConnection.class,
+                            (pgMethod, pgArgs) ->
+                                    pgMethod.getName().equals("getCopyAPI")
+                                            ? copyManager()
+                                            : defaultValue(pgMethod)
+                    );
+                }
+
+                return null;
+            case "createArrayOf":
+                return proxy(
+                        Array.class,
+                        (arrayMethod, arrayArgs) ->
+                                arrayMethod.getName().equals("getArray")
+                                        ? args[1]
+                                        : defaultValue(arrayMethod)
+                );
+            default:
+                return defaultValue(method);
+        }
+    }
+
+    private CopyManager copyManager() throws SQLException {
+        var baseConnection = proxy(
+                BaseConnection.class,
+                (method, args) -> defaultValue(method)
+        );
+
+        return new CopyManager(baseConnection) {
+            @Override
+            public CopyIn copyIn(String sql) {
+                statements.add(sql);
+                parameters.add(List.of());
+                boolean[] active = {true};
+                long[] writes = {0};
+
+                return proxy(CopyIn.class, (method, args) -> {
+                    switch (method.getName()) {
+                        case "writeToCopy":
+                            writes[0]++;
+                            copied.append(new String(
+                                    (byte[]) args[0],
+                                    (Integer) args[1],
+                                    (Integer) args[2],
+                                    StandardCharsets.UTF_8
+                            ));
+
+                            return null;
+                        case "endCopy":
+                            active[0] = false;
+
+                            // Each row is written to the command separately
+                            return writes[0];
+                        case "cancelCopy":
+                            active[0] = false;
+                            copyCancelled = true;
+
+                            return null;
+                        case "isActive":
+                            return active[0];
+                        default:
+                            return defaultValue(method);
+                    }
+                });
+            }
+        };
+    }
+
+    private <S extends Statement> S statement(Class<S> type, String sql) {
+        List<Object> params = new ArrayList<>();
+        if (sql != null) {
+            statements.add(sql);
+            parameters.add(params);
+        }
+
+        return proxy(type, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set")
+                    && args != null
+                    && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                while (params.size() < index) {
+                    params.add(null);
+                }
+                params.set(index - 1, args[1]);
+
+                return null;
+            }
+            else if (name.startsWith("execute")
+                    && args != null
+                    && args.length > 0
+                    && args[0] instanceof String executedSql) {
+                statements.add(executedSql);
+                parameters.add(List.of());
+            }
+
+            if (name.equals("executeUpdate")) {
+                return updateCount;
+            }
+            else if (name.equals("executeQuery")
+                    || name.equals("getResultSet")) {
+                var rows = results.poll();
+
+                return resultSet(
+                        rows != null ? rows : List.of(),
+                        selectedColumns(sql)
+                );
+            }
+            else {
+                return defaultValue(method);
+            }
+        });
+    }
+
+    /**
+     * Gets the names of the columns selected by a query, so that they can be
+     * read by their index
+     */
+    private static List<String> selectedColumns(String sql) {
+        List<String> columns = new ArrayList<>();
+        if (sql == null
+                || !sql.startsWith("SELECT ")
+                || !sql.contains(" FROM ")) {
+            return columns;
+        }
+
+        String list = sql.substring("SELECT ".length(), sql.indexOf(" FROM "));
+        for (var column : list.split(", ")) {
+            int alias = column.lastIndexOf(" AS ");
+            if (alias >= 0) {
+                column = column.substring(alias + " AS ".length());
+            }
+            columns.add(column.replace("\"", ""));
+        }
+
+        return columns;
+    }
+
+    private static ResultSet resultSet(
+            List<Map<String, Object>> rows,
+            List<String> columns
+    ) {
+        var iterator = rows.iterator();
+        Object[] state = new Object[2];
+
+        return proxy(ResultSet.class, (method, args) -> {
+            @SuppressWarnings("unchecked")
+            var row = (Map<String, Object>) state[0];
+
+            switch (method.getName()) {
+                case "next":
+                    state[0] = iterator.hasNext() ? iterator.next() : null;
+
+                    return state[0] != null;
+                case "getMetaData":
+                    return metaData(rows.isEmpty() ? Map.of() : rows.get(0));
+                case "wasNull":
+                    return state[1] == null;
+                default:
+                    if (method.getName().startsWith("get")
+                            && args != null
+                            && args.length >= 1) {
+                        Object value;
+                        if (args[0] instanceof Integer index) {
+                            String column = index <= columns.size()
+                                    ? columns.get(index - 1)
+                                    : null;
+                            value = column != null && row.containsKey(column)
+                                    ? row.get(column)
+                                    : new ArrayList<>(row.values())
+                                            .get(index - 1);
+                        }
+                        else {
+                            value = row.get((String) args[0]);
+                        }
+                        state[1] = value;
+
+                        return convert(value, method.getReturnType());
+                    }
+
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    private static ResultSetMetaData metaData(Map<String, Object> row) {
+        List<String> columns = new ArrayList<>(row.keySet());
+
+        return proxy(ResultSetMetaData.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return columns.size();
+                case "getColumnName":
+                case "getColumnLabel":
+                    return columns.get((Integer) args[0] - 1);
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (value == null) {
+            return type.isPrimitive() ? defaultValue(type) : null;
+        }
+        else if (type == long.class) {
+            return ((Number) value).longValue();
+        }
+        else if (type == int.class) {
+            return ((Number) value).intValue();
+        }
+        else if (type == double.class) {
+            return ((Number) value).doubleValue();
+        }
+        else if (type == float.class) {
+            return ((Number) value).floatValue();
+        }
+        else if (type == String.class) {
+            return value.toString();
+        }
+        else {
+            return value;
+        }
+    }
+
+    private static Object defaultValue(Method method) {
+        var type = method.getReturnType();
+        if (type.isInterface() && type.getPackageName().equals("java.sql")) {
+            return proxy(type, (m, args) -> defaultValue(m));
+        }
+
+        return defaultValue(type);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        else if (type == int.class) {
+            return 0;
+        }
+        else if (type == long.class) {
+            return 0L;
+        }
+        else if (type == double.class) {
+            return 0.0;
+        }
+        else if (type == float.class) {
+            return 0.0f;
+        }
+        else {
+            return null;
+        }
+    }
+
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> type.getSimpleName() + " stub";
+                        };
+                    }
+
+                    return handler.invoke(method, args);
+                }
+        );
+    }
+}
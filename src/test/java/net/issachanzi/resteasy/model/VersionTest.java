@@ -0,0 +1,93 @@
+package net.issachanzi.resteasy.model;
+
+import net.issachanzi.resteasy.model.annotation.Version;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionTest {
+    public static class Account extends EasyModel {
+        public String owner;
+        @Version public long version;
+    }
+
+    @BeforeAll
+    static void syncAssociations() {
+        ModelType.get(Account.class)
+                .syncAssociations(new StubDatabase().connection);
+    }
+
+    @Test
+    void newInstanceStartsAtVersionOne() throws Exception {
+        var db = new StubDatabase();
+        var account = new Account();
+
+        account.save(db.connection);
+
+        assertEquals(1, account.version);
+        assertTrue(db.statements.get(0).startsWith("INSERT"));
+    }
+
+    @Test
+    void updateChecksAndIncrementsVersion() throws Exception {
+        var db = new StubDatabase();
+        var account = account(4);
+
+        account.save(db.connection);
+
+        assertEquals(5, account.version);
+        String sql = db.statements.get(0);
+        assertTrue(
+                sql.endsWith("WHERE id = ? AND COALESCE(\"version\", 0) = ?;"),
+                sql
+        );
+        var params = db.parameters.get(0);
+        assertEquals(account.id.toString(), params.get(params.size() - 2));
+        assertEquals(4L, params.get(params.size() - 1));
+        assertTrue(params.contains(5L));
+    }
+
+    @Test
+    void staleUpdateIsAConflict() {
+        var db = new StubDatabase();
+        db.updateCount = 0;
+        var account = account(4);
+
+        assertThrows(
+                VersionConflictException.class,
+                () -> account.save(db.connection)
+        );
+        assertEquals(4, account.version);
+    }
+
+    @Test
+    void deleteChecksVersion() throws Exception {
+        var db = new StubDatabase();
+        var account = account(2);
+
+        account.delete(db.connection);
+
+        assertEquals(List.of(account.id.toString(), 2L), db.parameters.get(0));
+
+        db.updateCount = 0;
+        assertThrows(
+                VersionConflictException.class,
+                () -> account.delete(db.connection)
+        );
+    }
+
+    private static Account account(long version) {
+        var account = new Account();
+        account.id = UUID.randomUUID();
+        account.owner = "ann";
+        account.version = version;
+
+        return account;
+    }
+}
@@ -0,0 +1,136 @@
+package net.issachanzi.resteasy.view;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.Projection;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EasyViewTest {
+    public static class Author extends EasyModel {
+        public String name;
+        public boolean secret;
+    }
+
+    public static class Post extends EasyModel {
+        public String title;
+        public Author author;
+        public Author[] editors;
+    }
+
+    public static class Price extends EasyModel {
+        public BigDecimal amount;
+        public List<Object> history;
+    }
+
+    private static final Projection EXPANDED = new Projection(
+            Set.of("title", "author", "editors"),
+            Map.of(
+                    "author", new Projection(Set.of("name")),
+                    "editors", new Projection(Set.of("name"))
+            )
+    );
+
+    @Test
+    void unreadableExpandedAssociationIsNull() {
+        var post = post(author("Ann", true));
+
+        String json = new EasyView(
+                post,
+                null,
+                EXPANDED,
+                model -> !((Author) model).secret
+        ).toString();
+
+        assertEquals(
+                json("{\"id\":\"" + post.id + "\",\"title\":\"Hello\","
+                        + "\"author\":null,\"editors\":[]}"),
+                json(json)
+        );
+    }
+
+    @Test
+    void unreadableExpandedElementsAreLeftOut() {
+        var visible = author("Bob", false);
+        var post = post(visible, author("Ann", true), visible);
+
+        String json = new EasyView(
+                List.of(post),
+                EXPANDED,
+                model -> !((Author) model).secret
+        ).toString();
+
+        String bob = "{\"id\":\"" + visible.id + "\",\"name\":\"Bob\"}";
+        assertEquals(
+                json("[{\"id\":\"" + post.id + "\",\"title\":\"Hello\","
+                        + "\"author\":" + bob + ","
+                        + "\"editors\":[" + bob + "]}]"),
+                json(json)
+        );
+    }
+
+    @Test
+    void readableExpandedAssociationIsNested() {
+        var author = author("Ann", true);
+        var post = post(author);
+
+        String json = new EasyView(post, null, EXPANDED).toString();
+
+        assertEquals(
+                json("{\"id\":\"" + post.id + "\",\"title\":\"Hello\","
+                        + "\"author\":{\"id\":\"" + author.id + "\","
+                        + "\"name\":\"Ann\"},\"editors\":[]}"),
+                json(json)
+        );
+    }
+
+    @Test
+    void bigDecimalIsNumber() {
+        var price = new Price();
+        price.id = UUID.randomUUID();
+        price.amount = new BigDecimal("12345678901234567890.123456789");
+        price.history = List.of(new BigDecimal("0.1"), BigInteger.TEN);
+
+        String json = new EasyView(price).toString();
+
+        assertEquals(
+                json("{\"id\":\"" + price.id + "\","
+                        + "\"amount\":12345678901234567890.123456789,"
+                        + "\"history\":[0.1,10]}"),
+                json(json)
+        );
+    }
+
+    private static JsonValue json(String json) {
+        return Json.createReader(new StringReader(json)).readValue();
+    }
+
+    private static Author author(String name, boolean secret) {
+        var author = new Author();
+        author.id = UUID.randomUUID();
+        author.name = name;
+        author.secret = secret;
+
+        return author;
+    }
+
+    private static Post post(Author author, Author... editors) {
+        var post = new Post();
+        post.id = UUID.randomUUID();
+        post.title = "Hello";
+        post.author = author;
+        post.editors = editors;
+
+        return post;
+    }
+}
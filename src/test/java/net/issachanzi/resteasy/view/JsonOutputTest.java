@@ -0,0 +1,98 @@
+package net.issachanzi.resteasy.view;
+
+import jakarta.json.Json;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JsonOutputTest {
+    @Test
+    void stringsAreEscapedAndEncoded() {
+        String string = "quote \" backslash \\ newline \n tab \t bell \u0007 "
+                + "é € 😀";
+
+        byte[] json = JsonOutput.encodeString(string);
+
+        assertEquals(
+                "\"quote \\\" backslash \\\\ newline \\n tab \\t "
+                        + "bell \\u0007 é € 😀\"",
+                new String(json, StandardCharsets.UTF_8)
+        );
+        assertEquals(string, parse(json));
+    }
+
+    @Test
+    void unpairedSurrogateIsReplaced() {
+        byte[] json = JsonOutput.encodeString("a\ud800b");
+
+        assertEquals("\"a?b\"", new String(json, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void nonFiniteNumbersAreNull() {
+        var out = new JsonOutput();
+
+        out.writeByte('[');
+        out.writeDouble(Double.NaN);
+        out.writeByte(',');
+        out.writeDouble(Double.POSITIVE_INFINITY);
+        out.writeByte(',');
+        out.writeDouble(1.5);
+        out.writeByte(',');
+        out.writeLong(Long.MIN_VALUE);
+        out.writeByte(']');
+
+        assertEquals(
+                "[null,null,1.5," + Long.MIN_VALUE + "]",
+                new String(out.toBytes(), StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void bufferGrowsPastItsInitialCapacity() {
+        var out = new JsonOutput();
+        String string = "x".repeat(20_000);
+
+        out.writeString(string);
+
+        assertEquals(20_002, out.toBytes().length);
+    }
+
+    @Test
+    void releasedBufferIsReusedEmpty() {
+        var first = JsonOutput.acquire();
+        var second = JsonOutput.acquire();
+        assertNotSame(first, second);
+
+        first.writeString("used");
+        first.release();
+        var reused = JsonOutput.acquire();
+
+        assertSame(first, reused);
+        assertEquals(0, reused.toBytes().length);
+    }
+
+    @Test
+    void largeBufferIsNotKept() {
+        var large = JsonOutput.acquire();
+        large.writeString("x".repeat(100_000));
+
+        large.release();
+
+        assertNotSame(large, JsonOutput.acquire());
+    }
+
+    private static String parse(byte[] json) {
+        var array = ("[" + new String(json, StandardCharsets.UTF_8) + "]")
+                .getBytes(StandardCharsets.UTF_8);
+
+        return Json.createReader(new ByteArrayInputStream(array))
+                .readArray()
+                .getString(0);
+    }
+}
@@ -0,0 +1,93 @@
+package net.issachanzi.resteasy.view;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.Projection;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ModelSerializerTest {
+    public static class Tag extends EasyModel {
+        public String label;
+    }
+
+    public static class Item extends EasyModel {
+        public String name;
+        public int count;
+        public short rank;
+        public double price;
+        public Boolean sold;
+        public Timestamp listed;
+        public Tag tag;
+        public Tag[] tags;
+        public List<Object> notes;
+    }
+
+    @Test
+    void fieldsAreWrittenByType() {
+        var tag = new Tag();
+        tag.id = UUID.randomUUID();
+        var item = new Item();
+        item.id = UUID.randomUUID();
+        item.name = "Lamp \"Lux\"";
+        item.count = 2;
+        item.rank = 7;
+        item.price = 19.5;
+        item.listed = new Timestamp(1_700_000_000_000L);
+        item.tag = tag;
+        item.tags = new Tag[] {tag};
+        item.notes = List.of("a", 1, 2.5, true);
+
+        String json = new EasyView(item).toString();
+
+        assertEquals(
+                json("{\"id\":\"" + item.id + "\","
+                        + "\"name\":\"Lamp \\\"Lux\\\"\","
+                        + "\"count\":2,\"rank\":7,\"price\":19.5,"
+                        + "\"sold\":null,\"listed\":1700000000000,"
+                        + "\"tag\":\"" + tag.id + "\","
+                        + "\"tags\":[\"" + tag.id + "\"],"
+                        + "\"notes\":[\"a\",1,2.5,true]}"),
+                json(json)
+        );
+    }
+
+    @Test
+    void onlyProjectedFieldsAreWritten() {
+        var item = new Item();
+        item.id = UUID.randomUUID();
+        item.name = "Lamp";
+
+        String json = new EasyView(
+                item,
+                null,
+                new Projection(Set.of("name"))
+        ).toString();
+
+        assertEquals(
+                json("{\"id\":\"" + item.id + "\",\"name\":\"Lamp\"}"),
+                json(json)
+        );
+    }
+
+    @Test
+    void serializerIsCompiledOncePerModel() {
+        assertSame(
+                ModelSerializer.get(Item.class),
+                ModelSerializer.get(Item.class)
+        );
+    }
+
+    private static JsonValue json(String json) {
+        return Json.createReader(new StringReader(json)).readValue();
+    }
+}
@@ -0,0 +1,167 @@
+package net.issachanzi.resteasy.view;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamViewTest {
+    @Test
+    void collectionIsWrittenAsArray() {
+        assertEquals(
+                "[1,\"a\",true]",
+                new StreamView(List.of(1, "a", true), false).toString()
+        );
+        assertEquals("[]", new StreamView(List.of(), false).toString());
+    }
+
+    @Test
+    void iteratorIsWrittenAsNdjson() {
+        Iterator<Integer> values = List.of(1, 2).iterator();
+
+        assertEquals("1\n2\n", new StreamView(values, true).toString());
+    }
+
+    @Test
+    void streamIsClosedOnceWritten() {
+        var closed = new AtomicBoolean(false);
+        var values = Stream.of("a", "b").onClose(() -> closed.set(true));
+
+        assertEquals("[\"a\",\"b\"]", new StreamView(values, false).toString());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void streamIsClosedIfWritingFails() {
+        var closed = new AtomicBoolean(false);
+        var values = Stream.of("a", "b").onClose(() -> closed.set(true));
+        var failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Client went away");
+            }
+        };
+
+        assertThrows(
+                IOException.class,
+                () -> new StreamView(values, false).write(failing)
+        );
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void publisherIsWrittenInOrder() throws IOException {
+        try (var publisher = new SubmissionPublisher<Integer>()) {
+            var view = new StreamView(publisher, true);
+            var out = new ByteArrayOutputStream();
+
+            var thread = new Thread(() -> {
+                // Wait for the view to subscribe
+                while (publisher.getNumberOfSubscribers() == 0) {
+                    Thread.onSpinWait();
+                }
+                for (int i = 1; i <= 3; i++) {
+                    publisher.submit(i);
+                }
+                publisher.close();
+            });
+            thread.start();
+            view.write(out);
+
+            assertEquals("1\n2\n3\n", out.toString());
+        }
+    }
+
+    @Test
+    void failedPublisherFailsWrite() {
+        var publisher = new SubmissionPublisher<Integer>();
+        var view = new StreamView(publisher, false);
+        publisher.closeExceptionally(new IllegalStateException("failed"));
+
+        assertThrows(
+                IOException.class,
+                () -> view.write(new ByteArrayOutputStream())
+        );
+    }
+
+    @Test
+    void valuesAreReadWhileHoldingLock() {
+        var lock = new Object();
+        var values = new Iterator<Boolean>() {
+            private int remaining = 2;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Boolean next() {
+                remaining--;
+                return Thread.holdsLock(lock);
+            }
+        };
+
+        assertEquals(
+                "[true,true]",
+                new StreamView(values, false, lock, model -> true).toString()
+        );
+    }
+
+    @Test
+    void unreadableModelsAreLeftOut() {
+        var visible = new EasyViewTest.Author();
+        visible.id = UUID.randomUUID();
+        visible.name = "Ann";
+        var hidden = new EasyViewTest.Author();
+        hidden.id = UUID.randomUUID();
+        hidden.secret = true;
+
+        String json = new StreamView(
+                List.of(hidden, visible, hidden),
+                true,
+                null,
+                model -> !((EasyViewTest.Author) model).secret
+        ).toString();
+
+        assertEquals(1, json.lines().count());
+        assertTrue(json.contains(visible.id.toString()));
+        assertFalse(json.contains(hidden.id.toString()));
+    }
+
+    @Test
+    void closingWithoutWritingClosesSourceOnce() throws IOException {
+        var closes = new AtomicInteger();
+        var values = Stream.of("a").onClose(closes::incrementAndGet);
+        var view = new StreamView(values, false);
+
+        view.close();
+        view.close();
+
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    void onlyManyValuesAreStreamable() {
+        assertTrue(StreamView.isStreamable(List.of()));
+        assertTrue(StreamView.isStreamable(Stream.empty()));
+        assertTrue(StreamView.isStreamable(List.of().iterator()));
+        assertTrue(StreamView.isStreamable(new SubmissionPublisher<>()));
+        assertFalse(StreamView.isStreamable("a"));
+        assertFalse(StreamView.isStreamable(Map.of()));
+    }
+}
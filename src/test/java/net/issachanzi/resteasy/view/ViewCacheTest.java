@@ -0,0 +1,156 @@
+package net.issachanzi.resteasy.view;
+
+import net.issachanzi.resteasy.model.EasyModel;
+import net.issachanzi.resteasy.model.ModelType;
+import net.issachanzi.resteasy.model.StubDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ViewCacheTest {
+    public static class Author extends EasyModel {
+        public String name;
+    }
+
+    public static class Post extends EasyModel {
+        public String title;
+        public Author author;
+    }
+
+    public static class Price extends EasyModel {
+        public double amount;
+    }
+
+    private static final ViewCache.CachedView VIEW
+            = new ViewCache.CachedView(new byte[0], "\"a\"");
+
+    @BeforeAll
+    static void syncAssociations() {
+        var db = new StubDatabase().connection;
+        ModelType.get(Author.class).syncAssociations(db);
+        ModelType.get(Post.class).syncAssociations(db);
+        ModelType.get(Price.class).syncAssociations(db);
+    }
+
+    @Test
+    void variantsAreCachedSeparately() {
+        var cache = new ViewCache();
+        UUID id = UUID.randomUUID();
+        var names = new ViewCache.CachedView(new byte[0], "\"b\"");
+
+        cache.put(Author.class, id, "", cache.generation(Author.class), VIEW);
+        cache.put(
+                Author.class,
+                id,
+                "name",
+                cache.generation(Author.class),
+                names
+        );
+
+        assertSame(VIEW, cache.get(Author.class, id, ""));
+        assertSame(names, cache.get(Author.class, id, "name"));
+        assertNull(cache.get(Author.class, id, "id"));
+    }
+
+    @Test
+    void invalidatingInstanceKeepsOthers() {
+        var cache = new ViewCache();
+        UUID changed = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        put(cache, Author.class, changed);
+        put(cache, Author.class, other);
+
+        cache.invalidate(Author.class, changed);
+
+        assertNull(cache.get(Author.class, changed, ""));
+        assertSame(VIEW, cache.get(Author.class, other, ""));
+    }
+
+    @Test
+    void invalidatingModelDropsEveryInstance() {
+        var cache = new ViewCache();
+        UUID id = UUID.randomUUID();
+        put(cache, Author.class, id);
+        put(cache, Price.class, id);
+
+        cache.invalidate(Author.class, null);
+
+        assertNull(cache.get(Author.class, id, ""));
+        assertSame(VIEW, cache.get(Price.class, id, ""));
+    }
+
+    @Test
+    void invalidatingAssociatedModelDropsDependents() {
+        var cache = new ViewCache();
+        UUID id = UUID.randomUUID();
+        put(cache, Post.class, id);
+        put(cache, Price.class, id);
+
+        cache.invalidate(Author.class, UUID.randomUUID());
+
+        assertNull(cache.get(Post.class, id, ""));
+        assertSame(VIEW, cache.get(Price.class, id, ""));
+    }
+
+    @Test
+    void staleGenerationIsNotCached() {
+        var cache = new ViewCache();
+        UUID id = UUID.randomUUID();
+        long generation = cache.generation(Author.class);
+
+        cache.invalidate(Author.class, UUID.randomUUID());
+        cache.put(Author.class, id, "", generation, VIEW);
+        cache.put(Price.class, id, "", cache.generation(Price.class), VIEW);
+
+        assertNull(cache.get(Author.class, id, ""));
+        assertSame(VIEW, cache.get(Price.class, id, ""));
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        var cache = new ViewCache(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        put(cache, Author.class, first);
+        put(cache, Author.class, second);
+        cache.get(Author.class, first, "");
+
+        put(cache, Author.class, third);
+        put(cache, Price.class, third);
+
+        assertSame(VIEW, cache.get(Author.class, first, ""));
+        assertNull(cache.get(Author.class, second, ""));
+        assertSame(VIEW, cache.get(Author.class, third, ""));
+        assertSame(VIEW, cache.get(Price.class, third, ""));
+    }
+
+    @Test
+    void viewIsGzippedOnce() throws IOException {
+        byte[] json = "{\"name\":\"Ann\"}".repeat(100).getBytes();
+        var view = new ViewCache.CachedView(json, "\"a\"");
+
+        byte[] gzipped = view.gzipped();
+
+        assertSame(gzipped, view.gzipped());
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    private static void put(
+            ViewCache cache,
+            Class<? extends EasyModel> clazz,
+            UUID id
+    ) {
+        cache.put(clazz, id, "", cache.generation(clazz), VIEW);
+    }
+}